@@ -6,8 +6,9 @@ import am.ivix.securitycore.jwt.JwtTokenValidator;
 import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
 import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
 import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
 import am.ivix.users.app.AuthService;
-import am.ivix.users.domain.User;
+import am.ivix.users.domain.UserSnapshot;
 import com.nimbusds.jwt.JWTClaimsSet;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +22,7 @@ public class JwtAuthService {
     private final JwtTokenCreator tokenCreator;
     private final JwtTokenValidator tokenValidator;
     private final TokenJtiStore tokenJtiStore;
+    private final UserRevocationStore userRevocationStore;
 
     public static class TokenPair {
         private final String accessToken;
@@ -44,19 +46,21 @@ public class JwtAuthService {
             AuthService authService,
             JwtTokenCreator tokenCreator,
             JwtTokenValidator tokenValidator,
-            TokenJtiStore tokenJtiStore
+            TokenJtiStore tokenJtiStore,
+            UserRevocationStore userRevocationStore
     ) {
         this.authService = authService;
         this.tokenCreator = tokenCreator;
         this.tokenValidator = tokenValidator;
         this.tokenJtiStore = tokenJtiStore;
+        this.userRevocationStore = userRevocationStore;
     }
 
     /** ---------------------------
      *  REGISTER
      * --------------------------- */
     public TokenPair register(String email, String rawPassword) {
-        User user = authService.register(email, rawPassword);
+        UserSnapshot user = UserSnapshot.of(authService.register(email, rawPassword));
         return issueTokensForUser(user);
     }
 
@@ -64,16 +68,15 @@ public class JwtAuthService {
      *  LOGIN
      * --------------------------- */
     public TokenPair login(String email, String rawPassword) {
-        User user = authService.login(email, rawPassword);
+        UserSnapshot user = authService.login(email, rawPassword);
         return issueTokensForUser(user);
     }
 
     /** ---------------------------
      *  REFRESH
      *  - validate refresh JWT
-     *  - check jti in whitelist
-     *  - remove old jti (one-time)
-     *  - issue new pair, whitelist new refresh
+     *  - issue new pair
+     *  - consume old jti + whitelist new refresh atomically (one-time)
      * --------------------------- */
     public TokenPair refresh(String refreshToken) {
         ValidationResult result = tokenValidator.validate(refreshToken, TokenKind.REFRESH);
@@ -84,12 +87,12 @@ public class JwtAuthService {
         JWTClaimsSet claims = result.claims;
 
         String jti = claims.getJWTID();
-        if (!tokenJtiStore.isRefreshWhitelisted(jti)) {
-            throw new RuntimeException("Refresh token is not whitelisted (maybe reused or revoked)");
-        }
 
-        // refresh-токен одноразовый — после использования убираем
-        tokenJtiStore.removeRefresh(jti);
+        // выпущен до "выйти везде"
+        if (claims.getIssueTime() != null
+                && userRevocationStore.isRevoked(claims.getSubject(), claims.getIssueTime().toInstant().getEpochSecond())) {
+            throw new RuntimeException("Refresh token revoked");
+        }
 
         String email;
         try {
@@ -99,9 +102,16 @@ public class JwtAuthService {
         }
 
         // контроль, что пользователь ещё существует / активен
-        User user = authService.findByEmail(email);
+        UserSnapshot user = authService.findByEmail(email);
 
-        return issueTokensForUser(user);
+        Issued issued = createTokens(user);
+
+        // refresh-токен одноразовый: расходуем старый и регистрируем новый одной операцией
+        if (!tokenJtiStore.rotateRefresh(jti, issued.refresh().jti(), issued.refresh().expiresAt())) {
+            throw new RuntimeException("Refresh token is not whitelisted (maybe reused or revoked)");
+        }
+
+        return new TokenPair(issued.access().token(), issued.refresh().token());
     }
 
     /** ---------------------------
@@ -123,27 +133,36 @@ public class JwtAuthService {
     /** ---------------------------
      *  Вспомогательное: выпускаем пару токенов
      * --------------------------- */
-    private TokenPair issueTokensForUser(User user) {
+    private TokenPair issueTokensForUser(UserSnapshot user) {
+        Issued issued = createTokens(user);
+
+        // whitelist для refresh (одноразовый токен, контролируем reuse)
+        tokenJtiStore.whitelistRefresh(issued.refresh().jti(), issued.refresh().expiresAt());
+
+        return new TokenPair(issued.access().token(), issued.refresh().token());
+    }
+
+    private record Issued(IssuedToken access, IssuedToken refresh) {}
+
+    /** access + refresh, без записи в whitelist */
+    private Issued createTokens(UserSnapshot user) {
         // Пока все обычные пользователи — USER.
-        // Позже заменим на реальные роли из user.getRoles().
+        // Позже заменим на реальные роли из user.roles().
         List<String> roles = List.of("USER");
 
         IssuedToken access = tokenCreator.createAccessToken(
-                user.getId(),
-                user.getEmail(),
+                user.id(),
+                user.email(),
                 roles
         );
 
         IssuedToken refresh = tokenCreator.createRefreshToken(
-                user.getId(),
-                user.getEmail(),
+                user.id(),
+                user.email(),
                 roles
         );
 
-        // whitelist для refresh (одноразовый токен, контролируем reuse)
-        tokenJtiStore.whitelistRefresh(refresh.jti(), refresh.expiresAt());
-
-        return new TokenPair(access.token(), refresh.token());
+        return new Issued(access, refresh);
     }
 }
 
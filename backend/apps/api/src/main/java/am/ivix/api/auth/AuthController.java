@@ -3,13 +3,17 @@ package am.ivix.api.auth;
 import am.ivix.api.auth.dto.LoginRequest;
 import am.ivix.api.auth.dto.RefreshRequest;
 import am.ivix.api.auth.dto.RegisterRequest;
+import am.ivix.api.auth.dto.SessionResponse;
 import am.ivix.api.auth.dto.TokenPairResponse;
 import am.ivix.api.auth.dto.UserProfileResponse;
 import am.ivix.api.security.JwtAuthService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -54,6 +58,26 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
+    /** LOGOUT ALL (все устройства) ------------------------------------------- */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal String userId) {
+        jwtAuthService.logoutAll(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** SESSIONS (активные устройства) ---------------------------------------- */
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionResponse>> sessions(@AuthenticationPrincipal String userId) {
+        return ResponseEntity.ok(jwtAuthService.sessions(userId));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> revokeSession(@AuthenticationPrincipal String userId,
+                                              @PathVariable String sessionId) {
+        jwtAuthService.revokeSession(userId, sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
     /** ME ---------------------------------------------------------------- */
     @GetMapping("/me")
     public ResponseEntity<UserProfileResponse> me(@RequestAttribute("userId") String userId) {
@@ -0,0 +1,14 @@
+package am.ivix.api.auth.dto;
+
+import java.time.Instant;
+
+/**
+ * Активная сессия (семейство refresh-токенов) пользователя.
+ */
+public record SessionResponse(
+        String sessionId,
+        Instant createdAt,
+        Instant lastUsedAt,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,167 @@
+package am.ivix.api.config;
+
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.JwtTokenManager;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.securitycore.jwt.RoleBitmask;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import am.ivix.securitycore.keys.FileSystemKeyProvider;
+import am.ivix.securitycore.keys.KeyProvider;
+import am.ivix.securitycore.keys.PublicKeyFileProvider;
+import am.ivix.securitycore.keys.RotatingKeyProvider;
+import am.ivix.securitycore.keys.SigningAlgorithm;
+import am.ivix.securitycore.store.RefreshFamilyStore;
+import am.ivix.securitycore.store.RefreshGrantStore;
+import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
+import am.ivix.users.domain.UserRole;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Бины security-core: создание и проверка JWT поверх одного KeyProvider.
+ *
+ * Тот же KeyProvider публикуется в /.well-known/jwks.json,
+ * поэтому набор ключей у нас и у downstream всегда совпадает.
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Ключи подписи: RotatingKeyProvider поверх
+     *
+     * - активного ключа — PEM-файлы (k8s secret / volume) с горячей перезагрузкой:
+     *   подмена файлов подхватывается без рестарта, creator / validator / JWKS пересобираются сами
+     * - предыдущих ключей — security.jwt.key.previous-public-paths: ими уже не подписываем,
+     *   но принимаем (и публикуем в JWKS), пока живут подписанные ими токены. Заменённый на лету
+     *   ключ FileSystemKeyProvider и так держит refresh-ttl-days, но только до рестарта
+     *
+     * kid — отпечаток ключа. security.jwt.key.legacy-id — kid токенов, выпущенных до kid-отпечатков;
+     * пустой — не принимать.
+     *
+     * close() у RotatingKeyProvider (watcher файлов) Spring вызовет сам (inferred destroy method).
+     */
+    @Bean
+    public KeyProvider keyProvider(
+            @Value("${security.jwt.key.public-path}") String publicPath,
+            @Value("${security.jwt.key.private-path}") String privatePath,
+            @Value("${security.jwt.key.previous-public-paths:}") List<String> previousPublicPaths,
+            @Value("${security.jwt.key.legacy-id:}") String legacyKeyId,
+            @Value("${security.jwt.refresh-ttl-days}") int refreshTtlDays
+    ) {
+        FileSystemKeyProvider active = new FileSystemKeyProvider(
+                Path.of(privatePath), Path.of(publicPath), SigningAlgorithm.RS256,
+                Duration.ofDays(refreshTtlDays), legacyKeyId);
+
+        List<KeyProvider> previous = previousPublicPaths.stream()
+                .filter(path -> !path.isBlank())
+                .map(path -> (KeyProvider) new PublicKeyFileProvider(Path.of(path.trim()), SigningAlgorithm.RS256))
+                .toList();
+
+        RotatingKeyProvider provider = new RotatingKeyProvider(active, previous);
+        active.start();
+        return provider;
+    }
+
+    /**
+     * Бит роли в claim "rl" = ordinal UserRole.
+     * Новые роли — только в конец enum, иначе маски уже выданных токенов поменяют смысл.
+     */
+    @Bean
+    public RoleBitmask roleBitmask() {
+        return new RoleBitmask(Arrays.stream(UserRole.values()).map(Enum::name).toList());
+    }
+
+    /**
+     * security.jwt.access-profile:
+     *  - standard (по умолчанию) — email + roles списком, UUID jti
+     *  - compact — роли маской "rl", без email / nbf, jti 22 символа
+     *
+     * Фильтр понимает оба профиля, поэтому переключение не разлогинивает пользователей.
+     */
+    @Bean
+    public JwtTokenCreator jwtTokenCreator(
+            KeyProvider keyProvider,
+            RoleBitmask roleBitmask,
+            @Value("${security.jwt.issuer}") String issuer,
+            @Value("${security.jwt.audience}") String audience,
+            @Value("${security.jwt.access-ttl-minutes}") int accessTtlMinutes,
+            @Value("${security.jwt.refresh-ttl-days}") int refreshTtlDays,
+            @Value("${security.jwt.access-profile:standard}") String accessProfile
+    ) {
+        RoleBitmask compact = switch (accessProfile) {
+            case "standard" -> null;
+            case "compact" -> roleBitmask;
+            default -> throw new IllegalArgumentException("Unknown security.jwt.access-profile: " + accessProfile);
+        };
+        return new JwtTokenCreator(keyProvider, issuer, audience, accessTtlMinutes, refreshTtlDays, compact);
+    }
+
+    @Bean
+    public JwtTokenValidator jwtTokenValidator(
+            KeyProvider keyProvider,
+            @Value("${security.jwt.issuer}") String issuer,
+            @Value("${security.jwt.audience}") String audience
+    ) {
+        return new JwtTokenValidator(keyProvider, issuer, audience);
+    }
+
+    /**
+     * Выдача, обмен и отзыв пар токенов: семейства refresh, reuse detection, непрозрачные refresh.
+     *
+     * security.jwt.refresh-format:
+     *  - jwt (по умолчанию) — refresh-JWT
+     *  - opaque — случайный refresh, в Redis только хеш (одна RSA-подпись на login / refresh)
+     *
+     * Формат при обмене определяется по токену: переключение не разлогинивает пользователей.
+     */
+    @Bean
+    public JwtTokenManager jwtTokenManager(
+            JwtTokenCreator tokenCreator,
+            JwtTokenValidator tokenValidator,
+            TokenJtiStore tokenJtiStore,
+            RefreshFamilyStore refreshFamilyStore,
+            RefreshGrantStore refreshGrantStore,
+            UserRevocationStore userRevocationStore,
+            @Value("${security.jwt.refresh-format:jwt}") String refreshFormat
+    ) {
+        boolean opaque = switch (refreshFormat) {
+            case "jwt" -> false;
+            case "opaque" -> true;
+            default -> throw new IllegalArgumentException("Unknown security.jwt.refresh-format: " + refreshFormat);
+        };
+        return new JwtTokenManager(tokenCreator, tokenValidator, tokenJtiStore,
+                refreshFamilyStore, refreshGrantStore, userRevocationStore, opaque);
+    }
+
+    /**
+     * Быстрый путь для access-токенов в JwtAuthenticationFilter (без Nimbus-моделей).
+     *
+     * auth.jwt.signature.verifications — проверки подписи; в сравнении с http.server.requests
+     * видно, что на запрос приходится не больше одной.
+     */
+    @Bean
+    public AccessTokenVerifier accessTokenVerifier(
+            KeyProvider keyProvider,
+            RoleBitmask roleBitmask,
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.issuer}") String issuer,
+            @Value("${security.jwt.audience}") String audience
+    ) {
+        AccessTokenVerifier verifier =
+                new AccessTokenVerifier(keyProvider, issuer, audience, VerifiedTokenCache.defaults(), roleBitmask);
+        FunctionCounter.builder("auth.jwt.signature.verifications", verifier, AccessTokenVerifier::signatureVerifications)
+                .description("Access token signature verifications (cache misses)")
+                .register(meterRegistry);
+        return verifier;
+    }
+}
@@ -0,0 +1,39 @@
+package am.ivix.api.config;
+
+import am.ivix.securitycore.ratelimit.LoginRateLimiter;
+import am.ivix.securitycore.ratelimit.LoginRateLimiter.Limit;
+import am.ivix.securitycore.ratelimit.RedisLoginRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Лимит попыток входа / регистрации (security.login-rate-limit):
+ *
+ * - ip — сколько попыток с одного адреса за окно (перебор паролей по многим аккаунтам)
+ * - email — сколько неудачных проверок пароля на один аккаунт за окно (перебор пароля одного аккаунта
+ *   с многих адресов); удачные попытки не считаются — запросами аккаунт не заблокировать
+ *
+ * Окна общие для всех нод (Redis); фильтр — {@link am.ivix.api.security.LoginRateLimitFilter}.
+ */
+@Configuration
+public class LoginRateLimitConfig {
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(
+            StringRedisTemplate redis,
+            @Value("${security.login-rate-limit.ip.max-attempts:20}") int ipMaxAttempts,
+            @Value("${security.login-rate-limit.ip.window:1m}") Duration ipWindow,
+            @Value("${security.login-rate-limit.email.max-attempts:5}") int emailMaxAttempts,
+            @Value("${security.login-rate-limit.email.window:5m}") Duration emailWindow
+    ) {
+        return new RedisLoginRateLimiter(
+                redis,
+                new Limit(ipMaxAttempts, ipWindow),
+                new Limit(emailMaxAttempts, emailWindow)
+        );
+    }
+}
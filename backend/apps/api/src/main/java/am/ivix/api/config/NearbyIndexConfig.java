@@ -0,0 +1,38 @@
+package am.ivix.api.config;
+
+import am.ivix.profiles.app.nearby.NearbyIndexMaintainer;
+import am.ivix.profiles.app.nearby.ProviderGridIndex;
+import am.ivix.profiles.repo.NearbyProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Индекс исполнителей в памяти для /api/profiles/nearest (profiles.nearby-index):
+ *
+ * - cell-size-km — сторона ячейки сетки; порядок типичного радиуса поиска
+ * - rebuild-interval — полная пересборка из БД; за это время доходят изменения с других нод
+ */
+@Configuration
+public class NearbyIndexConfig {
+
+    @Bean
+    public ProviderGridIndex providerGridIndex(
+            @Value("${profiles.nearby-index.cell-size-km:2}") double cellSizeKm
+    ) {
+        return new ProviderGridIndex(cellSizeKm);
+    }
+
+    @Bean
+    public NearbyIndexMaintainer nearbyIndexMaintainer(
+            NearbyProfileRepository repository,
+            ProviderGridIndex index,
+            @Value("${profiles.nearby-index.rebuild-interval:5m}") Duration rebuildInterval
+    ) {
+        NearbyIndexMaintainer maintainer = new NearbyIndexMaintainer(repository, index, rebuildInterval);
+        maintainer.start();
+        return maintainer;
+    }
+}
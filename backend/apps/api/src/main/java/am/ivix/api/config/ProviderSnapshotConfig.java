@@ -0,0 +1,44 @@
+package am.ivix.api.config;
+
+import am.ivix.profiles.app.snapshot.ProviderSnapshotRefresher;
+import am.ivix.profiles.repo.ProfileRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Колоночный снимок исполнителей для /api/profiles/filter (profiles.snapshot):
+ *
+ * - refresh-interval — дельта по updated_at; это же — задержка изменений в фильтрах
+ * - full-rebuild-interval — полная пересборка (подбирает удалённые профили)
+ *
+ * Метрики: profiles.snapshot.rows, profiles.snapshot.bytes. Сравнение с сущностями —
+ * ProviderSnapshotFootprint в libs/benchmarks.
+ */
+@Configuration
+public class ProviderSnapshotConfig {
+
+    @Bean
+    public ProviderSnapshotRefresher providerSnapshotRefresher(
+            ProfileRepository profiles,
+            MeterRegistry meterRegistry,
+            @Value("${profiles.snapshot.refresh-interval:30s}") Duration refreshInterval,
+            @Value("${profiles.snapshot.full-rebuild-interval:1h}") Duration fullRebuildInterval
+    ) {
+        ProviderSnapshotRefresher refresher = new ProviderSnapshotRefresher(profiles, refreshInterval, fullRebuildInterval);
+        refresher.start();
+
+        Gauge.builder("profiles.snapshot.rows", refresher, r -> r.snapshot().size())
+                .description("Profiles in the columnar provider snapshot")
+                .register(meterRegistry);
+        Gauge.builder("profiles.snapshot.bytes", refresher, r -> r.snapshot().footprint().columnarBytes())
+                .description("Heap used by the columnar provider snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return refresher;
+    }
+}
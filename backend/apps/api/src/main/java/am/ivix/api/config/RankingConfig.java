@@ -0,0 +1,75 @@
+package am.ivix.api.config;
+
+import am.ivix.profiles.app.nearby.ProviderGridIndex;
+import am.ivix.profiles.app.ranking.ProviderRankingService;
+import am.ivix.profiles.app.ranking.RankingMetrics;
+import am.ivix.profiles.app.ranking.RankingWeights;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ранжирование исполнителей для /api/profiles/ranked (profiles.ranking):
+ *
+ * - weights.* — веса признаков; признаки в [0, 1], так что веса сравнимы между собой
+ * - parallel-threshold / parallelism — с какого числа кандидатов и на скольких потоках оценивать параллельно
+ *
+ * Метрики: profiles.ranking.latency (mode=sequential|parallel), profiles.ranking.candidates.
+ */
+@Configuration
+public class RankingConfig {
+
+    @Bean
+    public RankingWeights rankingWeights(
+            @Value("${profiles.ranking.weights.distance:0.35}") double distance,
+            @Value("${profiles.ranking.weights.rating:0.2}") double rating,
+            @Value("${profiles.ranking.weights.reviews:0.1}") double reviews,
+            @Value("${profiles.ranking.weights.orders:0.1}") double orders,
+            @Value("${profiles.ranking.weights.level:0.1}") double level,
+            @Value("${profiles.ranking.weights.verified:0.1}") double verified,
+            @Value("${profiles.ranking.weights.specialization-rating:0.05}") double specializationRating
+    ) {
+        return new RankingWeights(distance, rating, reviews, orders, level, verified, specializationRating);
+    }
+
+    @Bean
+    public ProviderRankingService providerRankingService(
+            ProviderGridIndex index,
+            RankingWeights weights,
+            MeterRegistry meterRegistry,
+            @Value("${profiles.ranking.parallel-threshold:20000}") int parallelThreshold,
+            @Value("${profiles.ranking.parallelism:0}") int parallelism
+    ) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ProviderRankingService(index, weights, parallelThreshold, threads, micrometer(meterRegistry));
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static RankingMetrics micrometer(MeterRegistry registry) {
+        Timer sequential = latency(registry, "sequential");
+        Timer parallel = latency(registry, "parallel");
+        DistributionSummary candidates = DistributionSummary.builder("profiles.ranking.candidates")
+                .description("Providers scored per ranking query")
+                .register(registry);
+        return (n, isParallel, nanos) -> {
+            (isParallel ? parallel : sequential).record(nanos, TimeUnit.NANOSECONDS);
+            candidates.record(n);
+        };
+    }
+
+    private static Timer latency(MeterRegistry registry, String mode) {
+        return Timer.builder("profiles.ranking.latency")
+                .description("Provider ranking query: candidate collection, scoring and top-K")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
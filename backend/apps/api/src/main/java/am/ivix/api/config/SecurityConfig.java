@@ -1,41 +1,78 @@
 package am.ivix.api.config;
 
-import am.ivix.api.security.JwtAuthFilter;
-import am.ivix.api.security.JwtService;
-import am.ivix.api.security.KeyProvider;
 import am.ivix.api.security.DbUserDetailsService;
-import am.ivix.users.repo.UserRepository;
+import am.ivix.api.security.hashing.BCryptCostCalibrator;
+import am.ivix.api.security.hashing.BoundedPasswordEncoder;
+import am.ivix.api.security.hashing.TargetCostBCryptPasswordEncoder;
+import am.ivix.users.app.UserLookupCache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-
-import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import org.springframework.security.config.http.SessionCreationPolicy;
-
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Пароли и AuthenticationManager.
+ *
+ * Цепочка фильтров (JWT, лимит логина, доступы) — одна, в {@link am.ivix.api.security.SecurityConfig}.
+ */
+@Slf4j
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * bcrypt — ~250 мс CPU на вызов, поэтому считаем его на отдельном ограниченном пуле,
+     * а не на потоках Tomcat. Очередь переполнена → 429 + Retry-After.
+     *
+     * security.password.hashing.threads = 0 → половина ядер (минимум 1).
+     *
+     * Cost:
+     *  - cost = 0 (по умолчанию) — калибруется на старте под target-latency, в [min-cost, max-cost]
+     *  - cost > 0 — фиксированный
+     *
+     * Хеш хранится как "{bcrypt}$2a$NN$..." — алгоритм и cost видны в самой строке.
+     * Старые хеши без префикса проверяются как bcrypt. Если алгоритм или cost не совпадают
+     * с целевыми, AuthService.login перехеширует пароль после успешного входа (upgradeEncoding).
+     * Массовой миграции не нужно: хеши переезжают по мере логинов.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.cost:0}") int fixedCost,
+            @Value("${security.password.hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password.hashing.min-cost:10}") int minCost,
+            @Value("${security.password.hashing.max-cost:14}") int maxCost
+    ) {
+        int cost = fixedCost > 0 ? fixedCost : BCryptCostCalibrator.calibrate(targetLatency, minCost, maxCost);
+        log.info("Password hashing: bcrypt cost {} ({})", cost, fixedCost > 0 ? "fixed" : "calibrated for " + targetLatency);
+
+        TargetCostBCryptPasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // хеши, записанные до префиксов: "$2a$12$..."
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
-    public DbUserDetailsService uds(UserRepository users) {
+    public DbUserDetailsService uds(UserLookupCache users) {
         return new DbUserDetailsService(users);
     }
 
@@ -47,34 +84,5 @@ public class SecurityConfig {
         p.setPasswordEncoder(encoder);
         return new ProviderManager(p);
     }
-
-    @Bean
-    public KeyProvider keyProvider(
-            @Value("${security.jwt.key.public-classpath}") String pub,
-            @Value("${security.jwt.key.private-classpath}") String priv
-    ) {
-        return new KeyProvider(pub, priv);
-    }
-
-    @Bean
-    public SecurityFilterChain chain(HttpSecurity http,
-                                     JwtAuthFilter jwtAuthFilter) throws Exception {
-
-        http
-            .csrf(csrf -> csrf.disable())
-            .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authorizeHttpRequests(auth -> auth
-                .requestMatchers(
-                        "/api/auth/register",
-                        "/api/auth/login",
-                        "/api/auth/refresh",
-                        "/actuator/health"
-                ).permitAll()
-                .anyRequest().authenticated()
-            )
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
-
-        return http.build();
-    }
 }
 
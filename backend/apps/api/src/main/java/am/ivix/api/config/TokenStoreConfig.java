@@ -0,0 +1,141 @@
+package am.ivix.api.config;
+
+import am.ivix.securitycore.store.BatchingTokenJtiStore;
+import am.ivix.securitycore.store.CachingUserRevocationStore;
+import am.ivix.securitycore.store.NearCacheTokenJtiStore;
+import am.ivix.securitycore.store.RedisRefreshFamilyStore;
+import am.ivix.securitycore.store.RedisRefreshGrantStore;
+import am.ivix.securitycore.store.RedisRevocationBus;
+import am.ivix.securitycore.store.RedisTokenJtiStore;
+import am.ivix.securitycore.store.RedisUserRevocationStore;
+import am.ivix.securitycore.store.RefreshFamilyStore;
+import am.ivix.securitycore.store.RefreshGrantStore;
+import am.ivix.securitycore.store.RevocationBus;
+import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+/**
+ * Хранилище jti: Redis (security-core) + режим проверки blacklist access-токенов
+ * (security.jwt.revocation.mode):
+ *
+ * - near-cache (по умолчанию) — фильтр проверяет отзыв без похода в Redis;
+ *   отзыв расходится по нодам через pub/sub (канал jwt:access:revoked),
+ *   пропущенные сообщения догоняются сверкой раз в resync-interval
+ * - batching — конкурентные проверки склеиваются в один MGET
+ *   (окно batch-max-wait, не больше batch-max-size jti); для окружений без pub/sub
+ * - direct — EXISTS на каждый запрос, как раньше
+ *
+ * "Выйти везде" — не через blacklist, а эпохой отзыва на пользователя (userRevocationStore).
+ * Refresh-токены — семействами (сессиями) в одном hash на пользователя (refreshFamilyStore);
+ * непрозрачные refresh (security.jwt.refresh-format=opaque) — хеш → грант (refreshGrantStore).
+ */
+@Configuration
+public class TokenStoreConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public RevocationBus revocationBus(StringRedisTemplate redis, RedisMessageListenerContainer container) {
+        return new RedisRevocationBus(redis, container);
+    }
+
+    /**
+     * close() (остановка фоновых потоков) Spring вызовет сам — inferred destroy method.
+     */
+    @Bean
+    public TokenJtiStore tokenJtiStore(
+            StringRedisTemplate redis,
+            RevocationBus revocationBus,
+            @Value("${security.jwt.revocation.mode:near-cache}") String mode,
+            @Value("${security.jwt.revocation.resync-interval:30s}") Duration resyncInterval,
+            @Value("${security.jwt.revocation.batch-max-size:128}") int batchMaxSize,
+            @Value("${security.jwt.revocation.batch-max-wait:2ms}") Duration batchMaxWait,
+            @Value("${security.jwt.access-ttl-minutes}") int accessTtlMinutes
+    ) {
+        RedisTokenJtiStore store = new RedisTokenJtiStore(redis);
+
+        switch (mode) {
+            case "direct" -> {
+                return store;
+            }
+            case "batching" -> {
+                BatchingTokenJtiStore batching = new BatchingTokenJtiStore(store, batchMaxSize, batchMaxWait, 4_096);
+                batching.start();
+                return batching;
+            }
+            case "near-cache" -> {
+                // ниже
+            }
+            default -> throw new IllegalArgumentException("Unknown security.jwt.revocation.mode: " + mode);
+        }
+
+        Duration accessTtl = Duration.ofMinutes(accessTtlMinutes);
+
+        NearCacheTokenJtiStore nearCache = new NearCacheTokenJtiStore(
+                store,
+                revocationBus,
+                () -> store.scanAccessBlacklist(accessTtl),
+                resyncInterval
+        );
+        nearCache.start();
+        return nearCache;
+    }
+
+    /**
+     * Near-cache загружает blacklist при создании бина, а pub/sub начинает доставлять сообщения
+     * только со стартом RedisMessageListenerContainer (lifecycle контекста, позже). Отзывы,
+     * опубликованные между этими моментами, подтягиваем повторной сверкой сразу после старта.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void resyncRevocationsAfterStart(ApplicationStartedEvent event) {
+        if (event.getApplicationContext().getBean(TokenJtiStore.class) instanceof NearCacheTokenJtiStore nearCache) {
+            nearCache.resync();
+        }
+    }
+
+    /**
+     * Эпоха отзыва на пользователя: Redis + локальный кэш.
+     * Ключ живёт refresh TTL — дольше токенов, выпущенных до эпохи, не бывает.
+     * Новая эпоха расходится по нодам через pub/sub (канал jwt:user:revoked) — та же шина,
+     * что и для jti, но свой канал; потерянное сообщение догоняет TTL кэша.
+     */
+    @Bean
+    public UserRevocationStore userRevocationStore(
+            StringRedisTemplate redis,
+            RedisMessageListenerContainer container,
+            @Value("${security.jwt.revocation.user-epoch-cache-ttl:5s}") Duration cacheTtl,
+            @Value("${security.jwt.refresh-ttl-days}") int refreshTtlDays
+    ) {
+        return new CachingUserRevocationStore(
+                new RedisUserRevocationStore(redis, Duration.ofDays(refreshTtlDays)),
+                cacheTtl,
+                100_000,
+                new RedisRevocationBus(redis, container, "jwt:user:revoked")
+        );
+    }
+
+    @Bean
+    public RefreshFamilyStore refreshFamilyStore(StringRedisTemplate redis) {
+        return new RedisRefreshFamilyStore(redis);
+    }
+
+    @Bean
+    public RefreshGrantStore refreshGrantStore(StringRedisTemplate redis) {
+        return new RedisRefreshGrantStore(redis);
+    }
+}
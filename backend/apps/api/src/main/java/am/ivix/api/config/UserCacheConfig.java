@@ -0,0 +1,42 @@
+package am.ivix.api.config;
+
+import am.ivix.api.security.RedisUserCache;
+import am.ivix.users.app.RemoteUserCache;
+import am.ivix.users.app.UserLookupCache;
+import am.ivix.users.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Кэш пользователей для логина, /me и UserDetailsService (security.users.cache):
+ *
+ * - l1-ttl / l1-max-entries — локальный кэш ноды
+ * - l2-enabled — общий кэш в Redis (по умолчанию выключен: в нём лежат хеши паролей)
+ * - l2-ttl — сколько живёт запись в Redis; записи пользователя сбрасываются при любой записи в него
+ */
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    public RemoteUserCache remoteUserCache(
+            StringRedisTemplate redis,
+            @Value("${security.users.cache.l2-enabled:false}") boolean l2Enabled,
+            @Value("${security.users.cache.l2-ttl:10m}") Duration l2Ttl
+    ) {
+        return l2Enabled ? new RedisUserCache(redis, l2Ttl) : RemoteUserCache.disabled();
+    }
+
+    @Bean
+    public UserLookupCache userLookupCache(
+            UserRepository userRepository,
+            RemoteUserCache remoteUserCache,
+            @Value("${security.users.cache.l1-ttl:30s}") Duration l1Ttl,
+            @Value("${security.users.cache.l1-max-entries:10000}") int l1MaxEntries
+    ) {
+        return new UserLookupCache(userRepository, remoteUserCache, l1Ttl, l1MaxEntries);
+    }
+}
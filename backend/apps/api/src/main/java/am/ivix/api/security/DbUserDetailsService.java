@@ -1,7 +1,7 @@
 package am.ivix.api.security;
 
-import am.ivix.users.repo.UserRepository;
-import am.ivix.users.domain.User;
+import am.ivix.users.app.UserLookupCache;
+import am.ivix.users.domain.UserSnapshot;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -10,33 +10,33 @@ import java.util.UUID;
 
 public class DbUserDetailsService implements UserDetailsService {
 
-    private final UserRepository users;
+    private final UserLookupCache users;
 
-    public DbUserDetailsService(UserRepository users) {
+    public DbUserDetailsService(UserLookupCache users) {
         this.users = users;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // username может быть email — используется при логине
-        User u = users.findByEmailIgnoreCase(username).orElseThrow(
+        UserSnapshot u = users.findByEmail(username).orElseThrow(
                 () -> new UsernameNotFoundException("User not found")
         );
         return toDetails(u);
     }
 
     public UserDetails loadUserById(UUID id) throws UsernameNotFoundException {
-        User u = users.findById(id).orElseThrow(
+        UserSnapshot u = users.findById(id).orElseThrow(
                 () -> new UsernameNotFoundException("User not found")
         );
         return toDetails(u);
     }
 
-    private UserDetails toDetails(User u) {
+    private UserDetails toDetails(UserSnapshot u) {
         // Роли/привилегии можешь достроить позже; пока — USER
         return new org.springframework.security.core.userdetails.User(
-                u.getEmail(),
-                u.getPasswordHash(),
+                u.email(),
+                u.passwordHash(),
                 List.of(new SimpleGrantedAuthority("ROLE_USER"))
         );
     }
@@ -1,131 +1,118 @@
 package am.ivix.api.security;
 
+import am.ivix.api.auth.dto.SessionResponse;
 import am.ivix.api.auth.dto.TokenPairResponse;
 import am.ivix.api.auth.dto.UserProfileResponse;
-import am.ivix.securitycore.jwt.JwtTokenCreator;
-import am.ivix.securitycore.jwt.JwtTokenValidator;
-import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.jwt.JwtTokenManager;
+import am.ivix.securitycore.store.UserRevocationStore;
 import am.ivix.users.app.AuthService;
-import am.ivix.users.domain.User;
+import am.ivix.users.domain.UserSnapshot;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Регистрация / вход и операции с токенами поверх {@link JwtTokenManager}:
+ * семейства refresh, reuse detection и формат refresh (jwt / opaque) — там, здесь только HTTP-модель.
+ */
 @Service
 public class JwtAuthService {
 
     private final AuthService authService;
-    private final JwtTokenCreator tokenCreator;
-    private final JwtTokenValidator tokenValidator;
-    private final TokenJtiStore tokenJtiStore;
+    private final JwtTokenManager tokenManager;
+    private final UserRevocationStore userRevocationStore;
 
     public JwtAuthService(AuthService authService,
-                          JwtTokenCreator tokenCreator,
-                          JwtTokenValidator tokenValidator,
-                          TokenJtiStore tokenJtiStore) {
+                          JwtTokenManager tokenManager,
+                          UserRevocationStore userRevocationStore) {
         this.authService = authService;
-        this.tokenCreator = tokenCreator;
-        this.tokenValidator = tokenValidator;
-        this.tokenJtiStore = tokenJtiStore;
-    }
-
-    /**
-     * Вспомогательный метод: выпускает пару токенов и записывает refresh в whitelist.
-     */
-    private TokenPairResponse issueTokenPair(User user) {
-        var access = tokenCreator.createAccessToken(
-                user.getId(),
-                user.getEmail(),
-                user.getRoles()
-        );
-
-        var refresh = tokenCreator.createRefreshToken(
-                user.getId(),
-                user.getEmail(),
-                user.getRoles()
-        );
-
-        // refresh — stateful, работаем через whitelist
-        tokenJtiStore.whitelistRefresh(refresh.jti(), refresh.expiresAt());
-
-        return new TokenPairResponse(
-                access.token(),
-                refresh.token(),
-                access.expiresAt(),
-                refresh.expiresAt(),
-                "Bearer"
-        );
+        this.tokenManager = tokenManager;
+        this.userRevocationStore = userRevocationStore;
     }
 
     /** REGISTER --------------------------------------------------------------- */
     public TokenPairResponse register(String email, String password) {
-        User user = authService.register(email, password);
+        UserSnapshot user = UserSnapshot.of(authService.register(email, password));
         return issueTokenPair(user);
     }
 
     /** LOGIN ------------------------------------------------------------------ */
     public TokenPairResponse login(String email, String password) {
-        User user = authService.login(email, password);
+        UserSnapshot user = authService.login(email, password);
         return issueTokenPair(user);
     }
 
     /** REFRESH ---------------------------------------------------------------- */
     public TokenPairResponse refresh(String refreshToken) {
-        var result = tokenValidator.validate(refreshToken, JwtTokenValidator.TokenKind.REFRESH);
-
-        if (!result.ok) {
-            throw new RuntimeException("Invalid refresh token: " + result.error);
-        }
+        return toResponse(tokenManager.rotateRefresh(refreshToken));
+    }
 
-        var claims = result.claims;
+    /** LOGOUT ----------------------------------------------------------------- */
+    public void logout(String refreshToken) {
+        // idempotent: протухший / битый / уже отозванный refresh — молча выходим
+        tokenManager.logout(null, refreshToken);
+    }
 
-        String oldJti = claims.getJWTID();
-        if (!tokenJtiStore.isRefreshWhitelisted(oldJti)) {
-            throw new RuntimeException("Refresh token is not whitelisted or already used");
-        }
+    /** LOGOUT ALL ------------------------------------------------------------- */
+    /**
+     * Отзывает все access и refresh пользователя, выпущенные до этого момента:
+     * одна запись эпохи, без перечисления jti.
+     */
+    public void logoutAll(String userId) {
+        userRevocationStore.revokeAllBefore(userId, Instant.now());
+        tokenManager.revokeAllSessions(UUID.fromString(userId));
+    }
 
-        UUID userId = UUID.fromString(claims.getSubject());
-        String email = (String) claims.getClaim("email");
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) claims.getClaim("roles");
+    /** SESSIONS --------------------------------------------------------------- */
+    /**
+     * Активные сессии пользователя — один HGETALL.
+     */
+    public List<SessionResponse> sessions(String userId) {
+        return tokenManager.sessions(UUID.fromString(userId)).stream()
+                .map(s -> new SessionResponse(s.familyId(), s.createdAt(), s.lastUsedAt(), s.expiresAt()))
+                .toList();
+    }
 
-        // rotate: старый refresh больше не валиден
-        tokenJtiStore.removeRefresh(oldJti);
+    /**
+     * Закрыть одну сессию: её refresh больше не обменяется,
+     * выданный access доживает свой короткий TTL.
+     */
+    public void revokeSession(String userId, String familyId) {
+        tokenManager.revokeSession(UUID.fromString(userId), familyId);
+    }
 
-        var access = tokenCreator.createAccessToken(userId, email, roles);
-        var refresh = tokenCreator.createRefreshToken(userId, email, roles);
+    /** ME --------------------------------------------------------------------- */
+    public UserProfileResponse me(String userIdOrEmail) {
+        // principal из access-токена — userId (sub); email — для старых вызовов
+        UUID userId = parseUuid(userIdOrEmail);
+        UserSnapshot user = userId != null
+                ? authService.findById(userId)
+                : authService.findByEmail(userIdOrEmail);
+        return new UserProfileResponse(user.id(), user.email(), user.roles());
+    }
 
-        tokenJtiStore.whitelistRefresh(refresh.jti(), refresh.expiresAt());
+    private TokenPairResponse issueTokenPair(UserSnapshot user) {
+        return toResponse(tokenManager.issueTokens(user.id(), user.email(), user.roles()));
+    }
 
+    private static TokenPairResponse toResponse(JwtTokenManager.TokensPair pair) {
         return new TokenPairResponse(
-                access.token(),
-                refresh.token(),
-                access.expiresAt(),
-                refresh.expiresAt(),
+                pair.accessToken(),
+                pair.refreshToken(),
+                pair.accessExpiresAt(),
+                pair.refreshExpiresAt(),
                 "Bearer"
         );
     }
 
-    /** LOGOUT ----------------------------------------------------------------- */
-    public void logout(String refreshToken) {
-        var result = tokenValidator.validate(refreshToken, JwtTokenValidator.TokenKind.REFRESH);
-
-        if (!result.ok) {
-            // idempotent logout — молча выходим
-            return;
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-
-        String jti = result.claims.getJWTID();
-        tokenJtiStore.removeRefresh(jti);
-    }
-
-    /** ME --------------------------------------------------------------------- */
-    public UserProfileResponse me(String userIdOrEmail) {
-        // Сейчас используем email как ключ (как и в твоём AuthService).
-        // Если решим перейти на UUID — добавим findById в AuthService.
-        User user = authService.findByEmail(userIdOrEmail);
-        return new UserProfileResponse(user.getId(), user.getEmail(), user.getRoles());
     }
 }
 
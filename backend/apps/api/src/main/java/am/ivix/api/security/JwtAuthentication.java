@@ -0,0 +1,71 @@
+package am.ivix.api.security;
+
+import am.ivix.securitycore.jwt.AccessTokenClaims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authentication по проверенному access-токену.
+ *
+ * В отличие от UsernamePasswordAuthenticationToken не копирует authorities
+ * (AbstractAuthenticationToken оборачивает их в новый список на каждый запрос):
+ * здесь — общий неизменяемый список из {@link am.ivix.api.security.roles.AuthorityRegistry}.
+ *
+ * principal — userId (sub), как и раньше: @AuthenticationPrincipal String userId, getName().
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private final AccessTokenClaims claims;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtAuthentication(AccessTokenClaims claims, List<GrantedAuthority> authorities) {
+        this.claims = claims;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /** Токен не храним — только проверенные claims. */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public AccessTokenClaims getDetails() {
+        return claims;
+    }
+
+    @Override
+    public String getPrincipal() {
+        return claims.subject();
+    }
+
+    @Override
+    public String getName() {
+        return claims.subject();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            return;
+        }
+        throw new IllegalArgumentException("JwtAuthentication is always authenticated; drop it from the context instead");
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication[principal=" + claims.subject() + ", authorities=" + authorities + "]";
+    }
+}
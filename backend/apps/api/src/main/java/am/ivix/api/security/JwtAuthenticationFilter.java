@@ -1,48 +1,58 @@
 package am.ivix.api.security;
 
-import am.ivix.api.security.roles.JwtRoleMapper;
-import am.ivix.securitycore.jwt.JwtTokenValidator;
-import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
+import am.ivix.api.security.roles.AuthorityRegistry;
+import am.ivix.securitycore.jwt.AccessTokenClaims;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
 import am.ivix.securitycore.store.TokenJtiStore;
-import com.nimbusds.jwt.JWTClaimsSet;
+import am.ivix.securitycore.store.UserRevocationStore;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 /**
  * Production-level JWT authentication filter.
  *
  * Responsibilities:
  *  - safely extract JWT from Authorization header
- *  - validate signature, issuer, audience, exp, nbf, typ
- *  - check access token blacklist (JTI)
- *  - map roles → Spring authorities
- *  - set Authentication into SecurityContext
+ *  - validate signature, issuer, audience, exp, nbf, typ (AccessTokenVerifier)
+ *  - check access token blacklist (JTI) and per-user revocation epoch
+ *  - map roles → Spring authorities (AuthorityRegistry)
+ *  - set Authentication into SecurityContext, claims — в атрибуты запроса
+ *
+ * Отзыв проверить нельзя (Redis недоступен) — fail-closed: запрос идёт без аутентификации, в лог WARN.
  *
  * This filter NEVER throws exceptions — silent fail is best practice
  * for stateless JWT authentication chains.
  */
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenValidator validator;
-    private final JwtRoleMapper roleMapper;
-    private final TokenJtiStore tokenJtiStore;
+    /** Проверенные {@link AccessTokenClaims} текущего запроса. */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".claims";
+
+    /** userId (sub) проверенного токена — для @RequestAttribute("userId"). */
+    public static final String USER_ID_ATTRIBUTE = "userId";
 
-    public JwtAuthenticationFilter(JwtTokenValidator validator,
-                                   JwtRoleMapper roleMapper,
-                                   TokenJtiStore tokenJtiStore) {
-        this.validator = validator;
-        this.roleMapper = roleMapper;
+    private final AccessTokenVerifier verifier;
+    private final AuthorityRegistry authorityRegistry;
+    private final TokenJtiStore tokenJtiStore;
+    private final UserRevocationStore userRevocationStore;
+
+    public JwtAuthenticationFilter(AccessTokenVerifier verifier,
+                                   AuthorityRegistry authorityRegistry,
+                                   TokenJtiStore tokenJtiStore,
+                                   UserRevocationStore userRevocationStore) {
+        this.verifier = verifier;
+        this.authorityRegistry = authorityRegistry;
         this.tokenJtiStore = tokenJtiStore;
+        this.userRevocationStore = userRevocationStore;
     }
 
     @Override
@@ -59,65 +69,79 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.substring(7).trim();
-        if (token.isEmpty()) {
-            filterChain.doFilter(request, response);
-            return;
+        // токен — срез заголовка (как substring(7).trim(), но без копии строки)
+        int from = 7;
+        int to = authHeader.length();
+        while (from < to && authHeader.charAt(from) <= ' ') {
+            from++;
         }
-
-        // Validate access token
-        JwtTokenValidator.ValidationResult result =
-                validator.validate(token, TokenKind.ACCESS);
-
-        if (!result.ok) {
+        while (to > from && authHeader.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        JWTClaimsSet claims = result.claims;
+        // Уже проверен на этом запросе — второй раз подпись не считаем
+        AccessTokenClaims claims = request.getAttribute(CLAIMS_ATTRIBUTE) instanceof AccessTokenClaims known
+                ? known
+                : null;
 
-        String jti = claims.getJWTID();
-        if (jti == null) {
-            filterChain.doFilter(request, response);
-            return;
-        }
+        if (claims == null) {
+            // Validate access token (sub, jti и roles гарантированы верификатором)
+            AccessTokenVerifier.Result result = verifier.verify(authHeader, from, to);
 
-        // BLACKLIST CHECK (REVOKED ACCESS CONTROL)
-        if (tokenJtiStore.isAccessBlacklisted(jti)) {
-            filterChain.doFilter(request, response);
-            return;
+            if (!result.ok()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            claims = result.claims();
         }
 
         // Extract user data
-        String userId = claims.getSubject();
-        String email = (String) claims.getClaim("email");
+        String userId = claims.subject();
 
-        Object rolesObj = claims.getClaim("roles");
-        if (!(rolesObj instanceof List<?> rawList)) {
+        if (isRevoked(claims, userId)) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) rawList;
-
-        var authorities = roleMapper.mapToAuthorities(roles);
-
-        // Create Authentication
-        var authentication = new UsernamePasswordAuthenticationToken(
-                userId,    // principal (userId)
-                null,      // no credentials
-                authorities
-        );
+        var authorities = claims.compact()
+                ? authorityRegistry.forMask(claims.roleMask())
+                : authorityRegistry.forRoles(claims.roles());
 
-        authentication.setDetails(
-                new WebAuthenticationDetailsSource().buildDetails(request)
-        );
+        // Create Authentication (principal — userId, без копии authorities)
+        var authentication = new JwtAuthentication(claims, authorities);
 
         // Apply into Security Context
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
+        // Для всего, что дальше по запросу: контроллеры, аудит, логирование
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        request.setAttribute(USER_ID_ATTRIBUTE, userId);
+
         filterChain.doFilter(request, response);
     }
-}
 
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * Blacklist jti + эпоха пользователя; ошибка хранилища — как отозван (fail-closed).
+     */
+    private boolean isRevoked(AccessTokenClaims claims, String userId) {
+        try {
+            // BLACKLIST CHECK (REVOKED ACCESS CONTROL)
+            if (tokenJtiStore.isAccessBlacklisted(claims.jti())) {
+                return true;
+            }
+            // USER REVOCATION EPOCH (logout everywhere; served from local cache)
+            return userRevocationStore.isRevoked(userId, claims.issuedAt());
+        } catch (RuntimeException e) {
+            log.warn("Token revocation check failed, request left unauthenticated: {}", e.getMessage());
+            return true;
+        }
+    }
+}
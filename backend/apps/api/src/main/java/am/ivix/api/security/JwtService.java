@@ -1,5 +1,6 @@
 package am.ivix.api.security;
 
+import am.ivix.securitycore.keys.KeyProvider;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
@@ -0,0 +1,168 @@
+package am.ivix.api.security;
+
+import am.ivix.securitycore.ratelimit.LoginRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Лимит попыток на /api/auth/login и /api/auth/register — до контроллера,
+ * т.е. до поиска пользователя в БД и bcrypt.
+ *
+ * Responsibilities:
+ *  - read the (small) JSON body once, take "email", replay the body downstream
+ *  - ask LoginRateLimiter (IP + normalized email, one Redis call; known blocks — from memory)
+ *  - over limit → 429 + Retry-After right here, the request goes no further
+ *  - login answered 401 (InvalidCredentialsException) → record a failure for the email:
+ *    the email window counts only failed password checks
+ *
+ * IP — request.getRemoteAddr(): за прокси его выставляет server.forward-headers-strategy,
+ * X-Forwarded-For сами не читаем (его подделывает кто угодно).
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private static final Set<String> PATHS = Set.of(LOGIN_PATH, "/api/auth/register");
+
+    /** Тело логина — email + пароль; больше этого не разбираем (контроллер сам отклонит). */
+    private static final int MAX_BODY_BYTES = 4 * 1024;
+
+    private static final byte[] REJECTED_BODY = ("{\"status\":429,\"error\":\"Too Many Requests\","
+            + "\"code\":\"LOGIN_RATE_LIMITED\",\"message\":\"Too many attempts, retry later\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final LoginRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        String email = body.length <= MAX_BODY_BYTES ? extractEmail(body) : null;
+
+        LoginRateLimiter.Decision decision = limiter.tryAcquire(request.getRemoteAddr(), email);
+        if (!decision.allowed()) {
+            long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(REJECTED_BODY.length);
+            response.getOutputStream().write(REJECTED_BODY);
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+
+        if (email != null
+                && LOGIN_PATH.equals(request.getServletPath())
+                && response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+            limiter.recordFailure(email);
+        }
+    }
+
+    private String extractEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException e) {
+            // не JSON — лимит только по IP, ошибку разбора вернёт контроллер
+            return null;
+        }
+    }
+
+    /**
+     * Запрос с уже прочитанным телом: контроллер читает его заново из памяти.
+     * Хвост сверх MAX_BODY_BYTES не дочитывается — такой запрос всё равно не валиден.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Async reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package am.ivix.api.security;
+
+import am.ivix.users.app.RemoteUserCache;
+import am.ivix.users.domain.UserSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * L2 кэша пользователей в Redis: общий для нод, переживает рестарт ноды.
+ *
+ * Ключи (значение одно и то же под обоими):
+ * - users:cache:id:{userId}
+ * - users:cache:email:{email в нижнем регистре}
+ *
+ * Значение: "userId|roles через запятую|passwordHash|email" (email последним — в нём может быть '|').
+ *
+ * Внимание: в Redis попадает хеш пароля. Включать только если Redis закрыт так же, как БД.
+ * Redis недоступен → промах, идём в БД; не удалось удалить — запись доживает до ttl.
+ */
+@Slf4j
+public final class RedisUserCache implements RemoteUserCache {
+
+    private static final String ID_PREFIX = "users:cache:id:";
+    private static final String EMAIL_PREFIX = "users:cache:email:";
+
+    private final StringRedisTemplate redis;
+    private final Duration ttl;
+
+    public RedisUserCache(StringRedisTemplate redis, Duration ttl) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+        this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+    }
+
+    @Override
+    public UserSnapshot getById(UUID id) {
+        return get(ID_PREFIX + id);
+    }
+
+    @Override
+    public UserSnapshot getByEmail(String normalizedEmail) {
+        return get(EMAIL_PREFIX + normalizedEmail);
+    }
+
+    @Override
+    public void put(UserSnapshot user) {
+        String value = user.id() + "|" + String.join(",", user.roles()) + "|" + user.passwordHash() + "|" + user.email();
+        try {
+            redis.opsForValue().set(ID_PREFIX + user.id(), value, ttl);
+            redis.opsForValue().set(EMAIL_PREFIX + user.email().toLowerCase(Locale.ROOT), value, ttl);
+        } catch (RuntimeException e) {
+            log.warn("User cache write failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(UUID id, String normalizedEmail) {
+        List<String> keys = new ArrayList<>(2);
+        if (id != null) {
+            keys.add(ID_PREFIX + id);
+        }
+        if (normalizedEmail != null) {
+            keys.add(EMAIL_PREFIX + normalizedEmail);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        // запись в БД уже прошла: 500 клиенту её не отменит, устаревшая копия проживёт не дольше ttl
+        try {
+            redis.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("User cache evict failed for {}, stale entry kept up to {}: {}", keys, ttl, e.getMessage());
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private UserSnapshot get(String key) {
+        String value;
+        try {
+            value = redis.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            log.warn("User cache read failed: {}", e.getMessage());
+            return null;
+        }
+        if (value == null) {
+            return null;
+        }
+
+        String[] parts = value.split("\\|", 4);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            List<String> roles = parts[1].isEmpty() ? List.of() : Arrays.asList(parts[1].split(","));
+            return new UserSnapshot(UUID.fromString(parts[0]), parts[3], parts[2], roles);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
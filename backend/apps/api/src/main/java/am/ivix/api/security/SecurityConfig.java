@@ -1,13 +1,14 @@
 package am.ivix.api.security;
 
-import am.ivix.api.security.roles.JwtRoleMapper;
-import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.api.security.roles.AuthorityRegistry;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.ratelimit.LoginRateLimiter;
 import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -18,19 +19,31 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
 
+/**
+ * Единственная SecurityFilterChain приложения.
+ *
+ * Access-токен проверяется ровно один раз на запрос — в {@link JwtAuthenticationFilter};
+ * результат лежит в атрибутах запроса, остальные берут его оттуда.
+ * Фильтры создаются здесь через new, а не бинами: иначе Spring Boot
+ * зарегистрировал бы их ещё и как обычные servlet-фильтры.
+ */
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final JwtTokenValidator tokenValidator;
-    private final JwtRoleMapper roleMapper;
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final AuthorityRegistry authorityRegistry;
     private final TokenJtiStore tokenJtiStore; // ✅ добавили store для фильтра
+    private final UserRevocationStore userRevocationStore;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
         JwtAuthenticationFilter jwtFilter =
-                new JwtAuthenticationFilter(tokenValidator, roleMapper, tokenJtiStore);
+                new JwtAuthenticationFilter(accessTokenVerifier, authorityRegistry, tokenJtiStore, userRevocationStore);
+        LoginRateLimitFilter rateLimitFilter = new LoginRateLimitFilter(loginRateLimiter, objectMapper);
 
         http
                 // REST API => без сессий, без CSRF-форм
@@ -42,29 +55,26 @@ public class SecurityConfig {
 
                 // ✅ Доступы
                 .authorizeHttpRequests(auth -> auth
+                        // "выйти везде" — только с валидным access-токеном
+                        .requestMatchers("/api/auth/logout-all", "/api/auth/sessions/**").authenticated()
                         // ОТКРЫТЫЕ эндпоинты авторизации
                         .requestMatchers("/api/auth/**").permitAll()
+                        // публичные ключи для локальной проверки токенов
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         // Остальное — только с валидным JWT
                         .anyRequest().authenticated()
                 )
 
+                // ✅ Лимит попыток логина — первым: отказ не доходит ни до БД, ни до bcrypt
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+
                 // ✅ Наш JWT-фильтр перед стандартным UsernamePasswordAuthenticationFilter
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
-    /**
-     * AuthenticationManager нужен, если где-то будем явно
-     * аутентифицировать через Spring Security.
-     */
-    @Bean
-    public AuthenticationManager authenticationManager(
-            AuthenticationConfiguration configuration
-    ) throws Exception {
-        return configuration.getAuthenticationManager();
-    }
-
     /**
      * ✅ CORS-конфигурация по best practices для SPA/мобилки.
      *
@@ -0,0 +1,57 @@
+package am.ivix.api.security.hashing;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Подбирает cost bcrypt под железо: самый большой cost, при котором одна проверка
+ * укладывается в целевую задержку.
+ *
+ * - Замер — на minCost (медиана из нескольких прогонов после прогрева JIT)
+ * - Каждый +1 к cost удваивает работу, поэтому дальше экстраполируем, а не меряем
+ *   (замер на cost 14 — это секунды старта)
+ * - Результат всегда в [minCost, maxCost]: медленная машина не опускает защиту ниже minCost
+ */
+public final class BCryptCostCalibrator {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minCost, int maxCost) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("bcrypt cost bounds must satisfy 4 <= minCost <= maxCost <= 31");
+        }
+        if (targetLatency.isNegative() || targetLatency.isZero()) {
+            throw new IllegalArgumentException("targetLatency must be positive");
+        }
+
+        String password = "calibration-password";
+        String salt = BCrypt.gensalt(minCost);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            BCrypt.hashpw(password, BCrypt.gensalt(4));
+        }
+
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(password, salt);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long measured = Math.max(1, samples[MEASURED_ROUNDS / 2]);
+
+        int cost = minCost;
+        long estimate = measured;
+        long target = targetLatency.toNanos();
+        while (cost < maxCost && estimate * 2 <= target) {
+            estimate *= 2;
+            cost++;
+        }
+        return cost;
+    }
+}
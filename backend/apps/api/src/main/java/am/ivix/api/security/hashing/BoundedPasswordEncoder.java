@@ -0,0 +1,165 @@
+package am.ivix.api.security.hashing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder, который считает bcrypt на отдельном ограниченном пуле.
+ *
+ * - Хешированием одновременно заняты не больше threads ядер — всплеск логинов
+ *   не съедает CPU у остальных эндпоинтов (профили, каталог)
+ * - Очередь ограничена: переполнена → {@link PasswordHashingRejectedException} сразу (429 + Retry-After),
+ *   а не минуты ожидания на потоке Tomcat
+ * - Retry-After — оценка, за сколько пул разберёт текущую очередь
+ *
+ * Метрики (Micrometer):
+ *  - auth.password.queue.depth   — задач в очереди
+ *  - auth.password.active        — задач в работе
+ *  - auth.password.wait          — время в очереди до начала хеширования
+ *  - auth.password.work          — само хеширование / проверка (тег op = encode | matches)
+ *  - auth.password.rejected      — отказы из-за переполнения
+ */
+public final class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    /** Начальная оценка одного bcrypt (≈ target-latency калибровки), пока нет замеров. */
+    private static final long INITIAL_WORK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final int threads;
+
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /** Скользящее среднее времени хеширования — для Retry-After. */
+    private volatile long avgWorkNanos = INITIAL_WORK_NANOS;
+
+    /**
+     * @param delegate      настоящий encoder (bcrypt)
+     * @param threads       сколько хешей считаем параллельно
+     * @param queueCapacity сколько запросов может ждать; сверх — отказ
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        Objects.requireNonNull(registry, "registry must not be null");
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.threads = threads;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.password.queue.depth", pool, p -> p.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder("auth.password.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks in progress")
+                .register(registry);
+        this.waitTimer = Timer.builder("auth.password.wait")
+                .description("Time a password hashing task spent queued")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.encodeTimer = Timer.builder("auth.password.work").tag("op", "encode").register(registry);
+        this.matchesTimer = Timer.builder("auth.password.work").tag("op", "matches").register(registry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashing requests rejected because the queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Апгрейд хеша — решение delegate, CPU не тратит.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private <T> T submit(Callable<T> task, Timer workTimer) {
+        long enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = pool.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    long work = System.nanoTime() - startedAt;
+                    workTimer.record(work, TimeUnit.NANOSECONDS);
+                    avgWorkNanos = (avgWorkNanos * 7 + work) / 8;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException(retryAfterSeconds());
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * За сколько пул разберёт очередь + то, что уже в работе; не меньше секунды.
+     */
+    private long retryAfterSeconds() {
+        long backlog = pool.getQueue().size() + pool.getActiveCount();
+        long nanos = backlog * avgWorkNanos / threads;
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
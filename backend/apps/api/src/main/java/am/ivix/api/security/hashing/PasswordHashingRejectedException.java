@@ -0,0 +1,19 @@
+package am.ivix.api.security.hashing;
+
+/**
+ * Пул хеширования паролей переполнен — запрос отклонён сразу, без ожидания.
+ * Отдаётся клиенту как 429 с Retry-After.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Too many login / register attempts in progress, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package am.ivix.api.security.hashing;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * bcrypt с целевым cost, который просит перехеширования при ЛЮБОМ расхождении cost.
+ *
+ * Штатный BCryptPasswordEncoder.upgradeEncoding() срабатывает только когда сохранённый
+ * cost ниже целевого; нам нужно и обратное — после перекалибровки на более медленное
+ * железо (или сознательного снижения cost ради пропускной способности логина)
+ * старые дорогие хеши тоже переезжают на целевой cost.
+ */
+public final class TargetCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int cost;
+
+    public TargetCostBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = storedCost(encodedPassword);
+        // не bcrypt / битый хеш — решать не нам, matches() его всё равно не пропустит
+        return stored > 0 && stored != cost;
+    }
+
+    /**
+     * "$2a$12$..." → 12; -1, если формат не тот.
+     */
+    private static int storedCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char ones = encodedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
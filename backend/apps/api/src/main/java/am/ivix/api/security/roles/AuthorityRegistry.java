@@ -0,0 +1,56 @@
+package am.ivix.api.security.roles;
+
+import am.ivix.securitycore.jwt.RoleBitmask;
+import am.ivix.securitycore.jwt.RoleSetRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Роли из access-токена → неизменяемый список Spring authorities, собранный заранее.
+ *
+ * Один и тот же набор ролей (списком или маской компактного профиля) всегда даёт
+ * один и тот же экземпляр списка: на запрос ни строк, ни SimpleGrantedAuthority.
+ *
+ * Роли в токене — "USER" или уже "ROLE_USER" (так они хранятся в users.roles);
+ * в authority префикс ROLE_ ровно один.
+ */
+@Component
+public class AuthorityRegistry {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /** Разных наборов ролей — единицы; это потолок на случай мусорных токенов. */
+    private static final int MAX_ROLE_SETS = 1_024;
+
+    private final RoleSetRegistry<List<GrantedAuthority>> registry;
+
+    public AuthorityRegistry(RoleBitmask roleBitmask) {
+        this.registry = new RoleSetRegistry<>(roleBitmask, AuthorityRegistry::toAuthorities, MAX_ROLE_SETS);
+    }
+
+    public List<GrantedAuthority> forRoles(List<String> roles) {
+        return registry.forRoles(roles);
+    }
+
+    public List<GrantedAuthority> forMask(long roleMask) {
+        return registry.forMask(roleMask);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            String name = role.toUpperCase(Locale.ROOT);
+            authorities.add(new SimpleGrantedAuthority(name.startsWith(ROLE_PREFIX) ? name : ROLE_PREFIX + name));
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -4,6 +4,7 @@ package am.ivix.api.web;
 import am.ivix.api.security.JwtService;
 import am.ivix.users.app.AuthService;
 import am.ivix.users.domain.User;
+import am.ivix.users.domain.UserSnapshot;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -40,9 +41,9 @@ public class AuthController {
         String password = body.get("password");
 
         authManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
-        User user = authService.findByEmail(email); // добавь в AuthService вспомогательный метод findByEmail
+        UserSnapshot user = authService.findByEmail(email); // добавь в AuthService вспомогательный метод findByEmail
 
-        var tokens = jwtService.issueTokens(user.getId(), user.getEmail(), List.of("ROLE_USER"));
+        var tokens = jwtService.issueTokens(user.id(), user.email(), List.of("ROLE_USER"));
         return ResponseEntity.ok(tokens);
     }
 
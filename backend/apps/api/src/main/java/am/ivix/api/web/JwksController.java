@@ -0,0 +1,77 @@
+package am.ivix.api.web;
+
+import am.ivix.securitycore.jwt.JwkSetExporter;
+import am.ivix.securitycore.keys.KeyProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Публичные ключи для локальной проверки наших JWT (gateway, другие сервисы).
+ *
+ * JSON и ETag считаются один раз на версию ключей (hot reload пересчитывает их при первом запросе);
+ * на If-None-Match Spring сам отвечает 304.
+ */
+@RestController
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private record Published(long keyVersion, String body, String etag) {}
+
+    private final KeyProvider keyProvider;
+    private final CacheControl cacheControl;
+    private volatile Published published;
+
+    public JwksController(
+            KeyProvider keyProvider,
+            @Value("${security.jwt.jwks.max-age:15m}") Duration maxAge
+    ) {
+        this.keyProvider = keyProvider;
+        this.published = publish(keyProvider.getKeyVersion());
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(maxAge)
+                .staleIfError(Duration.ofDays(1));
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        Published p = published;
+        long version = keyProvider.getKeyVersion();
+        if (p.keyVersion() != version) {
+            p = publish(version);
+            published = p;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(JWK_SET)
+                .cacheControl(cacheControl)
+                .eTag(p.etag())
+                .body(p.body());
+    }
+
+    private Published publish(long version) {
+        String body = JwkSetExporter.toPublicJson(keyProvider);
+        return new Published(version, body, etagOf(body));
+    }
+
+    private static String etagOf(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(json.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
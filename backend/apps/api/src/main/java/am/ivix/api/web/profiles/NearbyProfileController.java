@@ -0,0 +1,71 @@
+package am.ivix.api.web.profiles;
+
+import am.ivix.profiles.app.nearby.NearbyPage;
+import am.ivix.profiles.app.nearby.NearbyProfile;
+import am.ivix.profiles.app.nearby.NearbyProfileService;
+import am.ivix.profiles.app.ranking.ProviderRankingService;
+import am.ivix.profiles.app.ranking.RankedProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * GET /api/profiles/nearby?lat=40.18&lon=44.51&radiusKm=5&specializationId=...&cursor=...&limit=20
+ *
+ * Ближайшие первыми; следующая страница — с nextCursor из ответа.
+ *
+ * GET /api/profiles/nearest?lat=40.18&lon=44.51&specializationId=...&k=10&radiusKm=50
+ *
+ * Топ-K одним списком из индекса в памяти — для "кто ближе всех" без пагинации.
+ *
+ * GET /api/profiles/ranked?lat=40.18&lon=44.51&specializationId=...&k=20&radiusKm=10
+ *
+ * Топ-K по score: близость + рейтинг / отзывы / заказы + уровень и верификация в специализации.
+ */
+@RestController
+@RequestMapping("/api/profiles")
+@RequiredArgsConstructor
+public class NearbyProfileController {
+
+    private final NearbyProfileService service;
+    private final ProviderRankingService rankingService;
+
+    @GetMapping("/nearby")
+    public NearbyPage nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) UUID specializationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return service.findNearby(lat, lon, radiusKm, specializationId, cursor, limit);
+    }
+
+    @GetMapping("/nearest")
+    public List<NearbyProfile> nearest(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) UUID specializationId,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "50") double radiusKm
+    ) {
+        return service.nearest(lat, lon, radiusKm, specializationId, k);
+    }
+
+    @GetMapping("/ranked")
+    public List<RankedProfile> ranked(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) UUID specializationId,
+            @RequestParam(defaultValue = "20") int k,
+            @RequestParam(defaultValue = "10") double radiusKm
+    ) {
+        return rankingService.rank(lat, lon, radiusKm, specializationId, k);
+    }
+}
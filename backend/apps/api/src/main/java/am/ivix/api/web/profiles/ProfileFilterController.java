@@ -0,0 +1,45 @@
+package am.ivix.api.web.profiles;
+
+import am.ivix.profiles.app.snapshot.ProviderFilter;
+import am.ivix.profiles.app.snapshot.ProviderSnapshot;
+import am.ivix.profiles.app.snapshot.ProviderSnapshotRefresher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * GET /api/profiles/filter?city=Yerevan&type=PERSON&minRating=4.5&minReviews=10&specializationId=...&limit=100
+ *
+ * Фильтр по колоночному снимку в памяти: сколько подошло + user_id первых limit.
+ * Данные отстают от БД не больше чем на profiles.snapshot.refresh-interval.
+ */
+@RestController
+@RequestMapping("/api/profiles")
+@RequiredArgsConstructor
+public class ProfileFilterController {
+
+    private static final int MAX_LIMIT = 1_000;
+
+    private final ProviderSnapshotRefresher snapshots;
+
+    @GetMapping("/filter")
+    public ProviderSnapshot.Selection filter(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer minReviews,
+            @RequestParam(required = false) UUID specializationId,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be in [0, " + MAX_LIMIT + "]");
+        }
+        ProviderFilter filter = new ProviderFilter(country, city, type, minRating, minReviews, specializationId);
+        return snapshots.snapshot().select(filter, limit);
+    }
+}
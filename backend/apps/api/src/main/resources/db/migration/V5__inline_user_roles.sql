@@ -0,0 +1,25 @@
+-- РОЛИ ПОЛЬЗОВАТЕЛЯ — прямо в users (text[]), без отдельной таблицы:
+-- загрузка пользователя для авторизации — одна строка по PK / email, без join'а и второго SELECT
+ALTER TABLE users
+    ADD COLUMN roles TEXT[] NOT NULL DEFAULT ARRAY['ROLE_USER']::TEXT[];
+
+-- перенос из user_roles (таблица element-collection), если её успели создать
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM information_schema.tables
+        WHERE table_schema = current_schema() AND table_name = 'user_roles'
+    ) THEN
+        UPDATE users u
+        SET roles = r.roles
+        FROM (
+            SELECT user_id, array_agg(DISTINCT role ORDER BY role) AS roles
+            FROM user_roles
+            WHERE role IS NOT NULL
+            GROUP BY user_id
+        ) r
+        WHERE r.user_id = u.id;
+
+        DROP TABLE user_roles;
+    END IF;
+END $$;
@@ -0,0 +1,13 @@
+-- ПОИСК ИСПОЛНИТЕЛЕЙ РЯДОМ (/api/profiles/nearby)
+-- earth_box(ll_to_earth(...), r) @> ll_to_earth(lat, lon) — префильтр по GiST-индексу,
+-- точное расстояние earth_distance считается только для кандидатов внутри куба
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+CREATE INDEX IF NOT EXISTS idx_profiles_ll_to_earth
+    ON profiles USING gist (ll_to_earth(lat, lon))
+    WHERE lat IS NOT NULL AND lon IS NOT NULL;
+
+-- фильтр по специализации: PK (profile_id, specialization_id) для него не подходит
+CREATE INDEX IF NOT EXISTS idx_profile_specializations_specialization
+    ON profile_specializations (specialization_id, profile_id);
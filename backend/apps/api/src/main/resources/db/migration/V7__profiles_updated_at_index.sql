@@ -0,0 +1,4 @@
+-- ДЕЛЬТА ДЛЯ СНИМКА ИСПОЛНИТЕЛЕЙ
+-- снимок раз в refresh-interval перечитывает только profiles с updated_at после последнего обновления
+CREATE INDEX IF NOT EXISTS idx_profiles_updated_at
+    ON profiles (updated_at);
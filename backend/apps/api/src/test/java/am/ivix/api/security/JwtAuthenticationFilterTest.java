@@ -0,0 +1,135 @@
+package am.ivix.api.security;
+
+import am.ivix.api.security.roles.AuthorityRegistry;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.RoleBitmask;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import am.ivix.securitycore.keys.HmacKeyProvider;
+import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Подпись access-токена проверяется ровно один раз на запрос — в том числе когда фильтр
+ * проходит по запросу второй раз и берёт claims из CLAIMS_ATTRIBUTE.
+ *
+ * Кеш верификатора выключен: иначе повторный запрос с тем же токеном не считал бы подпись вовсе.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String ISSUER = "ivix";
+    private static final String AUDIENCE = "ivix-clients";
+    private static final UUID USER_ID = UUID.fromString("6f1c2a9e-3b1d-4f7a-9c0e-2d5b8a7e4c13");
+
+    /** Эндпоинт только для аутентифицированных: без JwtAuthentication — 401. */
+    @RestController
+    static class MeController {
+
+        @GetMapping("/api/me")
+        ResponseEntity<String> me(@RequestAttribute(name = JwtAuthenticationFilter.USER_ID_ATTRIBUTE, required = false) String userId) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (!(auth instanceof JwtAuthentication) || userId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            return ResponseEntity.ok(auth.getName());
+        }
+    }
+
+    private AccessTokenVerifier verifier;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        HmacKeyProvider keys = new HmacKeyProvider("test-secret-0123456789-abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+        RoleBitmask roleBitmask = new RoleBitmask(List.of("USER", "PROVIDER", "ADMIN"));
+
+        verifier = new AccessTokenVerifier(keys, ISSUER, AUDIENCE, VerifiedTokenCache.disabled(), roleBitmask);
+        filter = new JwtAuthenticationFilter(verifier, new AuthorityRegistry(roleBitmask),
+                mock(TokenJtiStore.class), mock(UserRevocationStore.class));
+
+        token = new JwtTokenCreator(keys, ISSUER, AUDIENCE, 15, 30)
+                .createAccessToken(USER_ID, "user@ivix.am", List.of("USER"))
+                .token();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiesSignatureOncePerRequest() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new MeController())
+                .addFilters(filter)
+                .build();
+
+        for (int i = 1; i <= 3; i++) {
+            long before = verifier.signatureVerifications();
+
+            mvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(USER_ID.toString()));
+
+            assertThat(verifier.signatureVerifications() - before).as("request %d", i).isEqualTo(1);
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void secondFilterPassReusesVerifiedClaims() throws Exception {
+        // второй экземпляр с другим именем: OncePerRequestFilter его не пропустит,
+        // и он увидит CLAIMS_ATTRIBUTE, выставленный первым
+        JwtAuthenticationFilter secondPass = new JwtAuthenticationFilter(verifier,
+                new AuthorityRegistry(new RoleBitmask(List.of("USER", "PROVIDER", "ADMIN"))),
+                mock(TokenJtiStore.class), mock(UserRevocationStore.class));
+        secondPass.setBeanName("jwtAuthenticationFilterSecondPass");
+
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new MeController())
+                .addFilters(filter, secondPass)
+                .build();
+
+        long before = verifier.signatureVerifications();
+
+        mvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(USER_ID.toString()));
+
+        assertThat(verifier.signatureVerifications() - before).isEqualTo(1);
+    }
+
+    @Test
+    void requestWithoutTokenIsNotAuthenticated() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new MeController())
+                .addFilters(filter)
+                .build();
+
+        mvc.perform(get("/api/me"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(verifier.signatureVerifications()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package am.ivix.benchmarks.profiles;
+
+import am.ivix.profiles.app.snapshot.ProviderRow;
+import am.ivix.profiles.app.snapshot.ProviderSnapshot;
+import am.ivix.profiles.domain.Profile;
+import am.ivix.profiles.domain.ProfileSpecialization;
+import am.ivix.profiles.domain.ProfileSpecializationId;
+import am.ivix.profiles.domain.Specialization;
+import am.ivix.profiles.domain.VerificationStatus;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Память: колоночный снимок исполнителей против тех же профилей сущностями (JOL, весь граф объектов).
+ *
+ *   java -Djdk.attach.allowAttachSelf -cp libs/benchmarks/target/benchmarks.jar \
+ *        am.ivix.benchmarks.profiles.ProviderSnapshotFootprint 200000
+ *
+ * Сущности собираются так, как их отдал бы Hibernate: каждая строка, число и дата — свой объект;
+ * в среднем 1.33 ProfileSpecialization на профиль. Persistence context (EntityEntry, копия
+ * состояния для dirty checking) не считается — с ним сущности ещё тяжелее.
+ */
+public final class ProviderSnapshotFootprint {
+
+    private static final String[] CITIES = {"Ереван", "Гюмри", "Ванадзор", "Капан", "Абовян"};
+    private static final String[] DISTRICTS = {"Кентрон", "Арабкир", "Малатия-Себастия", "Нор Норк"};
+    private static final String[] NAMES = {"Арам Петросян", "Анна Саргсян", "Давид Акопян", "Мариам Оганесян"};
+
+    private ProviderSnapshotFootprint() {}
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        Random random = new Random(1);
+        Specialization[] specializations = new Specialization[10];
+        for (int i = 0; i < specializations.length; i++) {
+            specializations[i] = new Specialization();
+            set(specializations[i], "id", UUID.randomUUID());
+        }
+
+        List<Object> entities = new ArrayList<>(rows * 2);
+        ProviderSnapshot.Builder builder = ProviderSnapshot.empty().toBuilder();
+        for (int i = 0; i < rows; i++) {
+            UUID userId = UUID.randomUUID();
+            double lat = 40 + random.nextDouble();
+            double lon = 44 + random.nextDouble();
+            double rating = random.nextDouble() * 5;
+            int reviews = random.nextInt(400);
+            int orders = random.nextInt(400);
+            String type = i % 5 == 0 ? "COMPANY" : "PERSON";
+
+            Profile profile = new Profile(userId);
+            profile.setType(copy(type));
+            profile.setDisplayName(copy(NAMES[i % NAMES.length]));
+            profile.setFullName(copy(NAMES[i % NAMES.length]));
+            profile.setCountry(copy("AM"));
+            profile.setCity(copy(CITIES[i % CITIES.length]));
+            profile.setDistrict(copy(DISTRICTS[i % DISTRICTS.length]));
+            profile.setLat(lat);
+            profile.setLon(lon);
+            set(profile, "ratingAvg", rating);
+            set(profile, "reviewsCount", reviews);
+            set(profile, "ordersDoneCount", orders);
+            set(profile, "createdAt", timestamp(random));
+            set(profile, "updatedAt", timestamp(random));
+            entities.add(profile);
+
+            Set<UUID> specializationIds = new HashSet<>();
+            for (int j = i % 3 == 0 ? 2 : 1; j > 0; j--) {
+                Specialization specialization = specializations[random.nextInt(specializations.length)];
+                specializationIds.add(specialization.getId());
+                entities.add(ProfileSpecialization.builder()
+                        .id(new ProfileSpecializationId(userId, specialization.getId()))
+                        .profile(profile)
+                        .specialization(specialization)
+                        .level(1 + random.nextInt(5))
+                        .verificationStatus(VerificationStatus.values()[random.nextInt(3)])
+                        .ratingAvg(random.nextDouble() * 5)
+                        .reviewsCount(random.nextInt(400))
+                        .build());
+            }
+
+            builder.put(new ProviderRow(userId, type, "AM", CITIES[i % CITIES.length], lat, lon,
+                    rating, reviews, orders, System.currentTimeMillis(), specializationIds));
+        }
+        ProviderSnapshot snapshot = builder.build();
+
+        long entityBytes = GraphLayout.parseInstance(entities).totalSize();
+        long snapshotBytes = GraphLayout.parseInstance(snapshot).totalSize();
+
+        System.out.println(GraphLayout.parseInstance(entities).toFootprint());
+        System.out.printf("rows: %d%n", rows);
+        System.out.printf("entities: %,d bytes (%.0f per row)%n", entityBytes, (double) entityBytes / rows);
+        System.out.printf("snapshot: %,d bytes (%.0f per row), footprint() = %,d%n",
+                snapshotBytes, (double) snapshotBytes / rows, snapshot.footprint().columnarBytes());
+        System.out.printf("ratio: %.1fx%n", (double) entityBytes / snapshotBytes);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /** Своя копия, как строка из JDBC, а не общий литерал. */
+    private static String copy(String s) {
+        return new String(s.toCharArray());
+    }
+
+    private static OffsetDateTime timestamp(Random random) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(1_700_000_000_000L + random.nextInt()), ZoneOffset.UTC);
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field f = target.getClass().getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
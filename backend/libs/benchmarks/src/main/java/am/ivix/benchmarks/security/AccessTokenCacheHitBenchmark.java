@@ -0,0 +1,81 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccessTokenVerifier.verify на попадании в кеш — путь каждого запроса с уже виденным токеном.
+ *
+ *   java -jar libs/benchmarks/target/benchmarks.jar AccessTokenCacheHitBenchmark -prof gc
+ *
+ * Смотреть gc.alloc.rate.norm: ~0 байт на операцию в обоих вариантах — ключ кеша считается
+ * в буферах потока, из кеша отдаётся тот же Result.
+ * token — токен отдельной строкой, header — срез "Bearer ..." из заголовка, как в фильтре.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessTokenCacheHitBenchmark {
+
+    @Param({"standard", "compact"})
+    public String profile;
+
+    private AccessTokenVerifier verifier;
+    private String token;
+    private String header;
+
+    @Setup
+    public void setUp() {
+        InMemoryKeyProvider keys = InMemoryKeyProvider.rsa();
+        verifier = new AccessTokenVerifier(keys, Fixtures.ISSUER, Fixtures.AUDIENCE,
+                VerifiedTokenCache.defaults(), Fixtures.ROLE_BITMASK);
+
+        JwtTokenCreator creator = switch (profile) {
+            case "standard" -> Fixtures.creator(keys);
+            case "compact" -> Fixtures.compactCreator(keys);
+            default -> throw new IllegalArgumentException("Unknown profile: " + profile);
+        };
+        token = creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES).token();
+        header = "Bearer " + token;
+
+        // прогреваем кеш: дальше подпись не считается
+        if (!verifier.verify(token).ok()) {
+            throw new IllegalStateException("Token must be valid");
+        }
+        if (verifier.verify(header, 7, header.length()) != verifier.verify(token)) {
+            throw new IllegalStateException("Cache hit must return the cached Result");
+        }
+        if (verifier.signatureVerifications() != 1) {
+            throw new IllegalStateException("Expected exactly one signature verification");
+        }
+    }
+
+    @Benchmark
+    public AccessTokenVerifier.Result token() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public AccessTokenVerifier.Result header() {
+        return verifier.verify(header, 7, header.length());
+    }
+}
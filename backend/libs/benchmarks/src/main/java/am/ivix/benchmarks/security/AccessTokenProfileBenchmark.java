@@ -0,0 +1,85 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
+import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обычный и компактный профиль access-токена: размер и стоимость разбора.
+ *
+ *   java -jar libs/benchmarks/target/benchmarks.jar AccessTokenProfileBenchmark -prof gc
+ *
+ * Размеры токена (всего / payload) печатаются в setup. Кеш проверенных токенов выключен,
+ * чтобы мерить именно декодирование + разбор + подпись на каждый запрос.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessTokenProfileBenchmark {
+
+    @Param({"standard", "compact"})
+    public String profile;
+
+    private JwtTokenValidator nimbus;
+    private AccessTokenVerifier fast;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        InMemoryKeyProvider keys = InMemoryKeyProvider.rsa();
+
+        JwtTokenCreator creator = "compact".equals(profile)
+                ? Fixtures.compactCreator(keys)
+                : Fixtures.creator(keys);
+        token = creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES).token();
+
+        nimbus = new JwtTokenValidator(keys, Fixtures.ISSUER, Fixtures.AUDIENCE, VerifiedTokenCache.<JWTClaimsSet>disabled());
+        fast = new AccessTokenVerifier(keys, Fixtures.ISSUER, Fixtures.AUDIENCE,
+                VerifiedTokenCache.<AccessTokenVerifier.Result>disabled(), Fixtures.ROLE_BITMASK);
+
+        AccessTokenVerifier.Result result = fast.verify(token);
+        if (!result.ok() || !result.claims().roles().equals(Fixtures.ROLES)) {
+            throw new IllegalStateException("Unexpected verification result: " + result.status());
+        }
+        if (!nimbus.validate(token, TokenKind.ACCESS).ok) {
+            throw new IllegalStateException("Nimbus rejected " + profile + " token");
+        }
+
+        int dot1 = token.indexOf('.');
+        int dot2 = token.indexOf('.', dot1 + 1);
+        System.out.printf("%n%s: token=%d chars, payload=%d chars (base64url)%n",
+                profile, token.length(), dot2 - dot1 - 1);
+    }
+
+    @Benchmark
+    public AccessTokenVerifier.Result fast() {
+        return fast.verify(token);
+    }
+
+    @Benchmark
+    public ValidationResult nimbus() {
+        return nimbus.validate(token, TokenKind.ACCESS);
+    }
+}
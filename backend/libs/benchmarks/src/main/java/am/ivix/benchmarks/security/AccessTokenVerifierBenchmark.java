@@ -0,0 +1,99 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.AccessTokenVerifier;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
+import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Быстрый путь (AccessTokenVerifier) против Nimbus-пути (JwtTokenValidator) на access-токене.
+ *
+ * Пропускная способность и аллокации на запрос:
+ *
+ *   java -jar libs/benchmarks/target/benchmarks.jar AccessTokenVerifierBenchmark -prof gc
+ *
+ * Смотреть gc.alloc.rate.norm (байт на операцию).
+ * cached=false — честная проверка подписи каждый раз; при cached=true разница
+ * сводится к разбору и к объектам результата.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessTokenVerifierBenchmark {
+
+    public enum Scenario { VALID, EXPIRED, WRONG_SIGNATURE }
+
+    @Param
+    public Scenario scenario;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private JwtTokenValidator nimbus;
+    private AccessTokenVerifier fast;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        InMemoryKeyProvider keys = InMemoryKeyProvider.rsa();
+
+        VerifiedTokenCache<JWTClaimsSet> nimbusCache = cached
+                ? VerifiedTokenCache.defaults()
+                : VerifiedTokenCache.disabled();
+        VerifiedTokenCache<AccessTokenVerifier.Result> fastCache = cached
+                ? VerifiedTokenCache.defaults()
+                : VerifiedTokenCache.disabled();
+
+        nimbus = new JwtTokenValidator(keys, Fixtures.ISSUER, Fixtures.AUDIENCE, nimbusCache);
+        fast = new AccessTokenVerifier(keys, Fixtures.ISSUER, Fixtures.AUDIENCE, fastCache);
+
+        token = switch (scenario) {
+            case VALID -> Fixtures.creator(keys)
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+            case EXPIRED -> Fixtures.expiredCreator(keys)
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+            case WRONG_SIGNATURE -> Fixtures.creator(InMemoryKeyProvider.rsa())
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+        };
+
+        // оба пути должны приходить к одному решению
+        boolean nimbusOk = nimbus.validate(token, TokenKind.ACCESS).ok;
+        boolean fastOk = fast.verify(token).ok();
+        if (nimbusOk != fastOk) {
+            throw new IllegalStateException("Validators disagree on " + scenario);
+        }
+    }
+
+    @Benchmark
+    public ValidationResult nimbus() {
+        return nimbus.validate(token, TokenKind.ACCESS);
+    }
+
+    @Benchmark
+    public AccessTokenVerifier.Result fast() {
+        return fast.verify(token);
+    }
+}
@@ -0,0 +1,92 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.RedisFixtures;
+import am.ivix.securitycore.store.BatchingTokenJtiStore;
+import am.ivix.securitycore.store.RedisTokenJtiStore;
+import am.ivix.securitycore.store.TokenJtiStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * isAccessBlacklisted под нагрузкой многих потоков (как Tomcat-пул) против живого Redis.
+ *
+ *  - direct   — EXISTS на каждый вызов
+ *  - batching — BatchingTokenJtiStore, один MGET на пачку
+ *
+ * После прогона в выводе — средний размер пачки (lookups / batches),
+ * т.е. во сколько раз меньше команд ушло в Redis.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlacklistBatchingBenchmark {
+
+    @Param({"direct", "batching"})
+    public String mode;
+
+    /** Окно добора пачки, мкс (только для batching). */
+    @Param({"0", "500"})
+    public int maxWaitMicros;
+
+    private LettuceConnectionFactory factory;
+    private TokenJtiStore store;
+
+    @Setup
+    public void setUp() {
+        factory = RedisFixtures.connectionFactory();
+        RedisTokenJtiStore redis = new RedisTokenJtiStore(new StringRedisTemplate(factory));
+
+        if ("batching".equals(mode)) {
+            BatchingTokenJtiStore batching =
+                    new BatchingTokenJtiStore(redis, 128, Duration.ofNanos(maxWaitMicros * 1_000L), 4_096);
+            batching.start();
+            store = batching;
+        } else {
+            store = redis;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (store instanceof BatchingTokenJtiStore batching) {
+            BatchingTokenJtiStore.Stats stats = batching.stats();
+            System.out.printf("%nbatches=%d lookups=%d avg batch=%.1f direct=%d%n",
+                    stats.batches(), stats.lookups(),
+                    stats.batches() == 0 ? 0.0 : (double) stats.lookups() / stats.batches(),
+                    stats.direct());
+            batching.close();
+        }
+        factory.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class Token {
+        final String jti = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean isAccessBlacklisted(Token token) {
+        return store.isAccessBlacklisted(token.jti);
+    }
+}
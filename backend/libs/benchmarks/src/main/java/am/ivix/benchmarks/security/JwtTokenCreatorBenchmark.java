@@ -0,0 +1,54 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.JwtTokenCreator.IssuedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость выпуска токенов: на каждый login/refresh подписываем два JWT.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenCreatorBenchmark {
+
+    private JwtTokenCreator creator;
+
+    @Setup
+    public void setUp() {
+        creator = Fixtures.creator(InMemoryKeyProvider.rsa());
+    }
+
+    @Benchmark
+    public IssuedToken createAccessToken() {
+        return creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES);
+    }
+
+    @Benchmark
+    public IssuedToken createRefreshToken() {
+        return creator.createRefreshToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public IssuedToken createAccessTokenContended() {
+        return creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES);
+    }
+}
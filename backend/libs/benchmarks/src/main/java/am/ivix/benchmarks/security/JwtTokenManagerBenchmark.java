@@ -0,0 +1,93 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.benchmarks.security.support.InMemoryRefreshGrantStore;
+import am.ivix.benchmarks.security.support.InMemoryTokenJtiStore;
+import am.ivix.securitycore.jwt.JwtTokenManager;
+import am.ivix.securitycore.jwt.JwtTokenManager.TokensPair;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл login (issueTokens) и refresh (rotateRefresh) поверх in-memory TokenJtiStore.
+ *
+ * Refresh-токен одноразовый, поэтому каждый поток держит свою цепочку:
+ * результат rotateRefresh становится входом следующего вызова.
+ *
+ * refreshFormat=opaque — refresh непрозрачный: одна RSA-подпись на операцию вместо двух,
+ * а rotateRefresh не разбирает и не проверяет JWT.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenManagerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        @Param({"jwt", "opaque"})
+        public String refreshFormat;
+
+        JwtTokenManager manager;
+
+        @Setup
+        public void setUp() {
+            InMemoryKeyProvider keys = InMemoryKeyProvider.rsa();
+            manager = new JwtTokenManager(
+                    Fixtures.creator(keys),
+                    new JwtTokenValidator(keys, Fixtures.ISSUER, Fixtures.AUDIENCE),
+                    new InMemoryTokenJtiStore(),
+                    null,
+                    "opaque".equals(refreshFormat) ? new InMemoryRefreshGrantStore() : null
+            );
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        String refreshToken;
+
+        @Setup
+        public void setUp(Shared shared) {
+            refreshToken = shared.manager
+                    .issueTokens(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .refreshToken();
+        }
+    }
+
+    @Benchmark
+    public TokensPair issueTokens(Shared shared) {
+        return shared.manager.issueTokens(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES);
+    }
+
+    @Benchmark
+    public TokensPair rotateRefresh(Shared shared, Session session) {
+        TokensPair pair = shared.manager.rotateRefresh(session.refreshToken);
+        session.refreshToken = pair.refreshToken();
+        return pair;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TokensPair rotateRefreshContended(Shared shared, Session session) {
+        TokensPair pair = shared.manager.rotateRefresh(session.refreshToken);
+        session.refreshToken = pair.refreshToken();
+        return pair;
+    }
+}
@@ -0,0 +1,88 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
+import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка access-токена — выполняется на каждом аутентифицированном запросе.
+ *
+ * Сценарии:
+ *  - VALID           — нормальный токен
+ *  - EXPIRED         — подпись верна, exp в прошлом
+ *  - WRONG_SIGNATURE — токен подписан чужим ключом
+ *  - MALFORMED       — мусор вместо JWT
+ *
+ * cached=false — каждая проверка идёт через RSA, cached=true — через VerifiedTokenCache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenValidatorBenchmark {
+
+    public enum Scenario { VALID, EXPIRED, WRONG_SIGNATURE, MALFORMED }
+
+    @Param
+    public Scenario scenario;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private JwtTokenValidator validator;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        InMemoryKeyProvider keys = InMemoryKeyProvider.rsa();
+
+        VerifiedTokenCache<JWTClaimsSet> cache = cached
+                ? VerifiedTokenCache.defaults()
+                : VerifiedTokenCache.disabled();
+        validator = new JwtTokenValidator(keys, Fixtures.ISSUER, Fixtures.AUDIENCE, cache);
+
+        token = switch (scenario) {
+            case VALID -> Fixtures.creator(keys)
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+            case EXPIRED -> Fixtures.expiredCreator(keys)
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+            case WRONG_SIGNATURE -> Fixtures.creator(InMemoryKeyProvider.rsa())
+                    .createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES)
+                    .token();
+            case MALFORMED -> "eyJhbGciOiJSUzI1NiJ9.not-a-payload.garbage";
+        };
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return validator.validate(token, TokenKind.ACCESS);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ValidationResult validateContended() {
+        return validator.validate(token, TokenKind.ACCESS);
+    }
+}
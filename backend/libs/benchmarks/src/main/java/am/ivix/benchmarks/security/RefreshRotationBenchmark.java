@@ -0,0 +1,111 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.RedisFixtures;
+import am.ivix.securitycore.store.RedisTokenJtiStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ротация refresh jti против живого Redis (см. {@link RedisFixtures}).
+ *
+ *  - sequence — как было: EXISTS + DEL + SET, три round trip'а и гонка между ними
+ *  - atomic   — TokenJtiStore.rotateRefresh: один EVALSHA
+ *
+ * Каждый поток ведёт свою цепочку jti: новый jti становится старым на следующем вызове.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshRotationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        LettuceConnectionFactory factory;
+        RedisTokenJtiStore store;
+
+        @Setup
+        public void setUp() {
+            factory = RedisFixtures.connectionFactory();
+            store = new RedisTokenJtiStore(new StringRedisTemplate(factory));
+        }
+
+        @TearDown
+        public void tearDown() {
+            factory.destroy();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chain {
+        String jti;
+        Instant expiresAt;
+
+        @Setup(Level.Iteration)
+        public void setUp(Shared shared) {
+            expiresAt = Instant.now().plusSeconds(600);
+            jti = UUID.randomUUID().toString();
+            shared.store.whitelistRefresh(jti, expiresAt);
+        }
+    }
+
+    @Benchmark
+    public boolean sequence(Shared shared, Chain chain) {
+        return rotateSequence(shared, chain);
+    }
+
+    @Benchmark
+    public boolean atomic(Shared shared, Chain chain) {
+        return rotateAtomic(shared, chain);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean sequenceContended(Shared shared, Chain chain) {
+        return rotateSequence(shared, chain);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean atomicContended(Shared shared, Chain chain) {
+        return rotateAtomic(shared, chain);
+    }
+
+    private static boolean rotateSequence(Shared shared, Chain chain) {
+        String next = UUID.randomUUID().toString();
+        if (!shared.store.isRefreshWhitelisted(chain.jti)) {
+            throw new IllegalStateException("chain broken");
+        }
+        shared.store.removeRefresh(chain.jti);
+        shared.store.whitelistRefresh(next, chain.expiresAt);
+        chain.jti = next;
+        return true;
+    }
+
+    private static boolean rotateAtomic(Shared shared, Chain chain) {
+        String next = UUID.randomUUID().toString();
+        if (!shared.store.rotateRefresh(chain.jti, next, chain.expiresAt)) {
+            throw new IllegalStateException("chain broken");
+        }
+        chain.jti = next;
+        return true;
+    }
+}
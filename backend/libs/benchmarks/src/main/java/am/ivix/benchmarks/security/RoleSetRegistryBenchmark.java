@@ -0,0 +1,104 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.securitycore.jwt.RoleSetRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Роли токена → authorities на каждый запрос фильтра: сборка заново против RoleSetRegistry.
+ *
+ *   java -jar libs/benchmarks/target/benchmarks.jar RoleSetRegistryBenchmark -prof gc
+ *
+ * Смотреть gc.alloc.rate.norm: для registry (и по списку, и по маске) — ~0 байт на операцию.
+ *
+ * Spring Security в модуле бенчмарков нет, поэтому authority здесь — record с именем,
+ * как SimpleGrantedAuthority; api делает то же самое (AuthorityRegistry).
+ * rolesSource=fresh — равный, но другой экземпляр списка на каждый вызов
+ * (токен проверен мимо кеша); cached — тот же экземпляр, что отдаёт VerifiedTokenCache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoleSetRegistryBenchmark {
+
+    /** Стенд-ин SimpleGrantedAuthority. */
+    public record Authority(String authority) {}
+
+    @Param({"cached", "fresh"})
+    public String rolesSource;
+
+    private RoleSetRegistry<List<Authority>> registry;
+    private List<String> cachedRoles;
+    private String[] roleNames;
+    private long roleMask;
+
+    @Setup
+    public void setUp() {
+        registry = new RoleSetRegistry<>(Fixtures.ROLE_BITMASK, RoleSetRegistryBenchmark::build, 1_024);
+        cachedRoles = List.copyOf(Fixtures.ROLES);
+        roleNames = Fixtures.ROLES.toArray(String[]::new);
+        roleMask = Fixtures.ROLE_BITMASK.encode(Fixtures.ROLES);
+
+        if (registry.forRoles(roles()) != registry.forRoles(roles())
+                || !registry.forMask(roleMask).equals(registry.forRoles(roles()))) {
+            throw new IllegalStateException("Registry must return one shared list per role set");
+        }
+    }
+
+    /** Как было в JwtRoleMapper: stream, toUpperCase, "ROLE_" + r, новый объект на роль. */
+    @Benchmark
+    public List<Authority> perRequest() {
+        return roles().stream()
+                .map(String::toUpperCase)
+                .map(r -> "ROLE_" + r)
+                .map(Authority::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Authority> internedByRoles() {
+        return registry.forRoles(roles());
+    }
+
+    @Benchmark
+    public List<Authority> internedByMask() {
+        return registry.forMask(roleMask);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private List<String> roles() {
+        // fresh: аллокация самого списка ролей — это цена разбора токена, не маппинга;
+        // она одинакова для perRequest и internedByRoles
+        return "fresh".equals(rolesSource) ? List.of(roleNames) : cachedRoles;
+    }
+
+    private static List<Authority> build(List<String> roles) {
+        List<Authority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(new Authority("ROLE_" + role.toUpperCase(Locale.ROOT)));
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,67 @@
+package am.ivix.benchmarks.security;
+
+import am.ivix.benchmarks.security.support.Fixtures;
+import am.ivix.benchmarks.security.support.InMemoryKeyProvider;
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.JwtTokenCreator.IssuedToken;
+import am.ivix.securitycore.jwt.JwtTokenValidator;
+import am.ivix.securitycore.jwt.JwtTokenValidator.TokenKind;
+import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
+import am.ivix.securitycore.jwt.VerifiedTokenCache;
+import am.ivix.securitycore.keys.KeyProvider;
+import am.ivix.securitycore.keys.SigningAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость подписи и проверки access-токена по алгоритмам.
+ *
+ * Проверка идёт без VerifiedTokenCache — меряем именно криптографию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigningAlgorithmBenchmark {
+
+    @Param
+    public SigningAlgorithm algorithm;
+
+    private JwtTokenCreator creator;
+    private JwtTokenValidator validator;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        KeyProvider keys = InMemoryKeyProvider.of(algorithm);
+
+        creator = Fixtures.creator(keys);
+        validator = new JwtTokenValidator(
+                keys, Fixtures.ISSUER, Fixtures.AUDIENCE, VerifiedTokenCache.disabled()
+        );
+        token = creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES).token();
+    }
+
+    @Benchmark
+    public IssuedToken sign() {
+        return creator.createAccessToken(Fixtures.USER_ID, Fixtures.EMAIL, Fixtures.ROLES);
+    }
+
+    @Benchmark
+    public ValidationResult verify() {
+        return validator.validate(token, TokenKind.ACCESS);
+    }
+}
@@ -0,0 +1,48 @@
+package am.ivix.benchmarks.security.support;
+
+import am.ivix.securitycore.jwt.JwtTokenCreator;
+import am.ivix.securitycore.jwt.RoleBitmask;
+import am.ivix.securitycore.keys.KeyProvider;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Общие константы и фабрики для бенчмарков security-core.
+ */
+public final class Fixtures {
+
+    public static final String ISSUER = "ivix";
+    public static final String AUDIENCE = "ivix-clients";
+    public static final int ACCESS_TTL_MINUTES = 15;
+    public static final int REFRESH_TTL_DAYS = 30;
+
+    public static final UUID USER_ID = UUID.fromString("6f1c2a9e-3b1d-4f7a-9c0e-2d5b8a7e4c13");
+    public static final String EMAIL = "bench.user@ivix.am";
+    public static final List<String> ROLES = List.of("USER", "PROVIDER");
+
+    /** Порядок как у UserRole (бенчмарки не зависят от core-users). */
+    public static final RoleBitmask ROLE_BITMASK =
+            RoleBitmask.of("USER", "PROVIDER", "MERCHANT", "MODERATOR", "ADMIN");
+
+    private Fixtures() {
+    }
+
+    public static JwtTokenCreator creator(KeyProvider keys) {
+        return new JwtTokenCreator(keys, ISSUER, AUDIENCE, ACCESS_TTL_MINUTES, REFRESH_TTL_DAYS);
+    }
+
+    /**
+     * Creator компактного профиля access-токена (роли маской, без email).
+     */
+    public static JwtTokenCreator compactCreator(KeyProvider keys) {
+        return new JwtTokenCreator(keys, ISSUER, AUDIENCE, ACCESS_TTL_MINUTES, REFRESH_TTL_DAYS, ROLE_BITMASK);
+    }
+
+    /**
+     * Creator с отрицательным TTL — выпускает уже протухшие токены.
+     */
+    public static JwtTokenCreator expiredCreator(KeyProvider keys) {
+        return new JwtTokenCreator(keys, ISSUER, AUDIENCE, -5, REFRESH_TTL_DAYS);
+    }
+}
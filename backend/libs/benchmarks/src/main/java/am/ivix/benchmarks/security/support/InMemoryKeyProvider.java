@@ -0,0 +1,82 @@
+package am.ivix.benchmarks.security.support;
+
+import am.ivix.securitycore.keys.HmacKeyProvider;
+import am.ivix.securitycore.keys.KeyProvider;
+import am.ivix.securitycore.keys.SigningAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * KeyProvider для бенчмарков: ключи генерируются в памяти, без файлов.
+ */
+public final class InMemoryKeyProvider implements KeyProvider {
+
+    private final SigningAlgorithm algorithm;
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    private InMemoryKeyProvider(SigningAlgorithm algorithm, KeyPair keyPair) {
+        this.algorithm = algorithm;
+        this.publicKey = keyPair.getPublic();
+        this.privateKey = keyPair.getPrivate();
+    }
+
+    /**
+     * RSA-2048 — как в проде.
+     */
+    public static InMemoryKeyProvider rsa() {
+        return (InMemoryKeyProvider) of(SigningAlgorithm.RS256);
+    }
+
+    /**
+     * Свежие ключи под алгоритм: RSA-2048, EC P-256, Ed25519 или 256-битный HMAC-секрет.
+     */
+    public static KeyProvider of(SigningAlgorithm algorithm) {
+        try {
+            return switch (algorithm) {
+                case RS256 -> {
+                    KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+                    gen.initialize(2048);
+                    yield new InMemoryKeyProvider(algorithm, gen.generateKeyPair());
+                }
+                case ES256 -> {
+                    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+                    gen.initialize(new ECGenParameterSpec("secp256r1"));
+                    yield new InMemoryKeyProvider(algorithm, gen.generateKeyPair());
+                }
+                case EdDSA -> new InMemoryKeyProvider(
+                        algorithm,
+                        KeyPairGenerator.getInstance("Ed25519").generateKeyPair()
+                );
+                case HS256 -> {
+                    byte[] secret = new byte[32];
+                    new SecureRandom().nextBytes(secret);
+                    yield new HmacKeyProvider(secret);
+                }
+            };
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " keys", e);
+        }
+    }
+
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    @Override
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+}
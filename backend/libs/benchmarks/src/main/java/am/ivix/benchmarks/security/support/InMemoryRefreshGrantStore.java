@@ -0,0 +1,40 @@
+package am.ivix.benchmarks.security.support;
+
+import am.ivix.securitycore.store.RefreshGrantStore;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory RefreshGrantStore для бенчмарков: хеш → грант, израсходованные не хранятся.
+ */
+public final class InMemoryRefreshGrantStore implements RefreshGrantStore {
+
+    private final ConcurrentHashMap<String, Grant> grants = new ConcurrentHashMap<>();
+
+    @Override
+    public void store(String tokenHash, Grant grant) {
+        grants.put(tokenHash, grant);
+    }
+
+    @Override
+    public Redemption rotate(String oldHash, String newHash, Instant newExpiresAt) {
+        Grant old = grants.remove(oldHash);
+        if (old == null) {
+            return new Redemption(Outcome.UNKNOWN, null);
+        }
+        Grant next = new Grant(old.userId(), old.familyId(), old.email(), old.roles(), newExpiresAt);
+        grants.put(newHash, next);
+        return new Redemption(Outcome.ROTATED, next);
+    }
+
+    @Override
+    public Grant find(String tokenHash) {
+        return grants.get(tokenHash);
+    }
+
+    @Override
+    public void remove(String tokenHash) {
+        grants.remove(tokenHash);
+    }
+}
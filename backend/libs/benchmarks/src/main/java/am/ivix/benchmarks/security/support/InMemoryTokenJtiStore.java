@@ -0,0 +1,52 @@
+package am.ivix.benchmarks.security.support;
+
+import am.ivix.securitycore.store.TokenJtiStore;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory замена Redis для бенчмарков.
+ *
+ * Меряем сам security-core, а не сеть: все операции — O(1) по ConcurrentHashMap,
+ * expiresAt хранится, но не вычищается.
+ */
+public final class InMemoryTokenJtiStore implements TokenJtiStore {
+
+    private final ConcurrentHashMap<String, Instant> accessBlacklist = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Instant> refreshWhitelist = new ConcurrentHashMap<>();
+
+    @Override
+    public void blacklistAccess(String jti, Instant expiresAt) {
+        accessBlacklist.put(jti, expiresAt);
+    }
+
+    @Override
+    public boolean isAccessBlacklisted(String jti) {
+        return accessBlacklist.containsKey(jti);
+    }
+
+    @Override
+    public void whitelistRefresh(String jti, Instant expiresAt) {
+        refreshWhitelist.put(jti, expiresAt);
+    }
+
+    @Override
+    public boolean isRefreshWhitelisted(String jti) {
+        return refreshWhitelist.containsKey(jti);
+    }
+
+    @Override
+    public void removeRefresh(String jti) {
+        refreshWhitelist.remove(jti);
+    }
+
+    @Override
+    public boolean rotateRefresh(String oldJti, String newJti, Instant newExpiresAt) {
+        if (refreshWhitelist.remove(oldJti) == null) {
+            return false;
+        }
+        refreshWhitelist.put(newJti, newExpiresAt);
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package am.ivix.benchmarks.security.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Подключение к живому Redis для бенчмарков, где важен именно round trip.
+ *
+ * Адрес: -Dredis.host / -Dredis.port (по умолчанию localhost:6380, как в application.yml).
+ * Пример:
+ *   java -Dredis.port=6379 -jar libs/benchmarks/target/benchmarks.jar RefreshRotation
+ */
+public final class RedisFixtures {
+
+    private RedisFixtures() {
+    }
+
+    public static LettuceConnectionFactory connectionFactory() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6380)
+        );
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(config);
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+}
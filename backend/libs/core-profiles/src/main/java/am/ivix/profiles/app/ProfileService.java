@@ -1,5 +1,6 @@
 package am.ivix.profiles.app;
 
+import am.ivix.profiles.app.nearby.NearbyIndexMaintainer;
 import am.ivix.profiles.domain.Profile;
 import am.ivix.profiles.repo.ProfileRepository;
 import org.springframework.stereotype.Service;
@@ -11,9 +12,11 @@ import java.util.UUID;
 public class ProfileService {
 
     private final ProfileRepository profiles;
+    private final NearbyIndexMaintainer nearbyIndex;
 
-    public ProfileService(ProfileRepository profiles) {
+    public ProfileService(ProfileRepository profiles, NearbyIndexMaintainer nearbyIndex) {
         this.profiles = profiles;
+        this.nearbyIndex = nearbyIndex;
     }
 
     public Profile getProfile(UUID userId) {
@@ -35,7 +38,9 @@ public class ProfileService {
         profile.setCompanyName("COMPANY".equals(type) ? displayName : null);
         profile.setDisplayName(displayName);
 
-        return profiles.save(profile);
+        Profile saved = profiles.save(profile);
+        nearbyIndex.refresh(userId);
+        return saved;
     }
 }
 
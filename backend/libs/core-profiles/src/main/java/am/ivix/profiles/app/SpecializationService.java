@@ -1,5 +1,6 @@
 package am.ivix.profiles.app;
 
+import am.ivix.profiles.app.nearby.NearbyIndexMaintainer;
 import am.ivix.profiles.domain.*;
 import am.ivix.profiles.repo.ProfileRepository;
 import am.ivix.profiles.repo.ProfileSpecializationRepository;
@@ -17,6 +18,7 @@ public class SpecializationService {
     private final ProfileRepository profileRepository;
     private final SpecializationRepository specializationRepository;
     private final ProfileSpecializationRepository profileSpecializationRepository;
+    private final NearbyIndexMaintainer nearbyIndex;
 
     @Transactional
     public ProfileSpecialization addSpecializationToProfile(
@@ -44,7 +46,10 @@ public class SpecializationService {
                 .reviewsCount(0)
                 .build();
 
-        return profileSpecializationRepository.save(ps);
+        ProfileSpecialization saved = profileSpecializationRepository.save(ps);
+        profile.touch();
+        nearbyIndex.refresh(profileId);
+        return saved;
     }
 }
 
@@ -0,0 +1,162 @@
+package am.ivix.profiles.app.nearby;
+
+import am.ivix.profiles.repo.NearbyProfileRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Держит {@link ProviderGridIndex} в согласии с БД.
+ *
+ * - start(): полная загрузка, дальше пересборка раз в rebuildInterval — так до ноды доходят
+ *   изменения, сделанные другими нодами
+ * - refresh(userId): точечно перечитать профиль после записи в него на этой ноде;
+ *   внутри транзакции — после коммита, чтобы не увидеть незакоммиченное и не держать откаченное
+ * - Ошибки загрузки не пробрасываются: индекс остаётся прежним до следующей попытки
+ *
+ * Гонка пересборки и точечной записи: каждый refresh получает номер до чтения из БД.
+ * Пересборка запоминает номер перед своим чтением и после replaceAll заново применяет
+ * записи с номером больше — их коммит её чтение могло не увидеть. Из двух записей
+ * одного профиля применяется та, что начала читать позже.
+ */
+public final class NearbyIndexMaintainer implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(NearbyIndexMaintainer.class.getName());
+
+    private final NearbyProfileRepository repository;
+    private final ProviderGridIndex index;
+    private final long rebuildMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    /** Точечная запись: номер (до чтения из БД) и результат; provider null — профиль убран. */
+    private record Write(long sequence, ProviderGridIndex.Provider provider) {}
+
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    /** Применение к индексу: replaceAll + повтор записей и точечные записи не перемежаются. */
+    private final Object applyLock = new Object();
+
+    /** Последняя запись на профиль с прошлой пересборки; под applyLock. */
+    private final Map<UUID, Write> recentWrites = new HashMap<>();
+
+    /**
+     * @param rebuildInterval как часто перечитывать все профили; это же — задержка изменений с других нод
+     */
+    public NearbyIndexMaintainer(NearbyProfileRepository repository, ProviderGridIndex index, Duration rebuildInterval) {
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.index = Objects.requireNonNull(index, "index must not be null");
+        Objects.requireNonNull(rebuildInterval, "rebuildInterval must not be null");
+        if (rebuildInterval.isNegative() || rebuildInterval.isZero()) {
+            throw new IllegalArgumentException("rebuildInterval must be positive");
+        }
+        this.rebuildMillis = rebuildInterval.toMillis();
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        rebuild();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "profiles-nearby-index-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, rebuildMillis, rebuildMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    public void rebuild() {
+        try {
+            long started = System.nanoTime();
+            long readFrom = writeSequence.get();
+            var providers = repository.loadIndexEntries();
+            int reapplied = 0;
+            synchronized (applyLock) {
+                index.replaceAll(providers);
+                for (Map.Entry<UUID, Write> e : recentWrites.entrySet()) {
+                    if (e.getValue().sequence() > readFrom) {
+                        apply(e.getKey(), e.getValue());
+                        reapplied++;
+                    }
+                }
+                // что записано до начала чтения, пересборка уже увидела
+                recentWrites.values().removeIf(w -> w.sequence() <= readFrom);
+            }
+            log.log(Level.DEBUG, "Nearby index rebuilt: {0} profiles in {1} ms, {2} concurrent writes re-applied",
+                    providers.size(), (System.nanoTime() - started) / 1_000_000, reapplied);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Nearby index rebuild failed, keeping previous index", e);
+        }
+    }
+
+    /**
+     * Перечитать один профиль: после коммита текущей транзакции или сразу, если её нет.
+     */
+    public void refresh(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(userId);
+                }
+            });
+        } else {
+            reload(userId);
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void reload(UUID userId) {
+        try {
+            long sequence = writeSequence.incrementAndGet();
+            ProviderGridIndex.Provider provider = repository.loadIndexEntry(userId).orElse(null);
+            synchronized (applyLock) {
+                Write newer = recentWrites.get(userId);
+                if (newer != null && newer.sequence() > sequence) {
+                    // более поздний refresh этого профиля уже применён
+                    return;
+                }
+                Write write = new Write(sequence, provider);
+                recentWrites.put(userId, write);
+                apply(userId, write);
+            }
+        } catch (RuntimeException e) {
+            // догонит периодическая пересборка
+            log.log(Level.WARNING, "Nearby index refresh failed for " + userId, e);
+        }
+    }
+
+    private void apply(UUID userId, Write write) {
+        if (write.provider() != null) {
+            index.upsert(write.provider());
+        } else {
+            index.remove(userId);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package am.ivix.profiles.app.nearby;
+
+import java.util.List;
+
+/**
+ * Страница выдачи "рядом".
+ *
+ * @param nextCursor непрозрачный курсор следующей страницы; null — это последняя
+ */
+public record NearbyPage(List<NearbyProfile> items, String nextCursor) {}
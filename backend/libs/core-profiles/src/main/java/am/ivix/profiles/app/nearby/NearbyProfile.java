@@ -0,0 +1,18 @@
+package am.ivix.profiles.app.nearby;
+
+import java.util.UUID;
+
+/**
+ * Профиль в выдаче "рядом": только то, что нужно карточке в списке, + расстояние до точки поиска.
+ */
+public record NearbyProfile(
+        UUID userId,
+        String displayName,
+        String type,
+        String city,
+        double lat,
+        double lon,
+        double ratingAvg,
+        int reviewsCount,
+        double distanceMeters
+) {}
@@ -0,0 +1,106 @@
+package am.ivix.profiles.app.nearby;
+
+import am.ivix.profiles.repo.NearbyProfileRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Исполнители рядом с точкой: по расстоянию, опционально по специализации, страницами по курсору.
+ *
+ * Курсор — base64url("distance|userId") последней строки страницы. Он привязан к тем же
+ * lat / lon / radius / specializationId: с другими параметрами выдача просто продолжится
+ * с этого расстояния.
+ *
+ * nearest() — топ-K без страниц из {@link ProviderGridIndex} в памяти: без БД, но данные
+ * с других нод доходят с задержкой до пересборки индекса.
+ */
+@Service
+public class NearbyProfileService {
+
+    public static final double MAX_RADIUS_KM = 100;
+    public static final int MAX_LIMIT = 100;
+
+    private final NearbyProfileRepository repository;
+    private final ProviderGridIndex index;
+
+    public NearbyProfileService(NearbyProfileRepository repository, ProviderGridIndex index) {
+        this.repository = repository;
+        this.index = index;
+    }
+
+    public NearbyPage findNearby(double lat, double lon, double radiusKm,
+                                 UUID specializationId, String cursor, int limit) {
+        validatePoint(lat, lon, radiusKm);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be in [1, " + MAX_LIMIT + "]");
+        }
+
+        Double afterDistance = null;
+        UUID afterUserId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterDistance = Double.parseDouble(parts[0]);
+            afterUserId = UUID.fromString(parts[1]);
+        }
+
+        // на одну строку больше — так видно, есть ли следующая страница, без COUNT
+        List<NearbyProfile> rows = repository.findNearby(
+                lat, lon, radiusKm * 1000, specializationId, afterDistance, afterUserId, limit + 1);
+
+        if (rows.size() <= limit) {
+            return new NearbyPage(rows, null);
+        }
+        List<NearbyProfile> page = rows.subList(0, limit);
+        NearbyProfile last = page.get(limit - 1);
+        return new NearbyPage(List.copyOf(page), encodeCursor(last));
+    }
+
+    /**
+     * K ближайших в радиусе, ближайшие первыми.
+     */
+    public List<NearbyProfile> nearest(double lat, double lon, double radiusKm, UUID specializationId, int k) {
+        validatePoint(lat, lon, radiusKm);
+        if (k < 1 || k > MAX_LIMIT) {
+            throw new IllegalArgumentException("k must be in [1, " + MAX_LIMIT + "]");
+        }
+        return index.nearest(lat, lon, specializationId, k, radiusKm * 1000);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static void validatePoint(double lat, double lon, double radiusKm) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("lat must be in [-90, 90], lon in [-180, 180]");
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm must be in (0, " + (int) MAX_RADIUS_KM + "]");
+        }
+    }
+
+    private static String encodeCursor(NearbyProfile last) {
+        // Double.toString — без потери точности: сравнение в SQL с тем же значением
+        String raw = Double.toString(last.distanceMeters()) + "|" + last.userId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Double.parseDouble(parts[0]);
+            UUID.fromString(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package am.ivix.profiles.app.nearby;
+
+import am.ivix.profiles.domain.VerificationStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Признаки профиля для ранжирования, нормированные в [0, 1] один раз — при загрузке в индекс.
+ *
+ * Вектор длины {@link #SIZE}; слот {@link #DISTANCE} зависит от запроса и здесь всегда 0.
+ * Для каждой специализации профиля — свой вектор (общие признаки + признаки специализации),
+ * без специализации в запросе — общий, слоты специализации 0.
+ *
+ * Счётчики (отзывы, заказы) — по логарифму с потолком: разница 0 → 10 важнее, чем 500 → 510.
+ */
+public final class ProviderFeatures {
+
+    public static final int DISTANCE = 0;
+    public static final int RATING = 1;
+    public static final int REVIEWS = 2;
+    public static final int ORDERS = 3;
+    public static final int LEVEL = 4;
+    public static final int VERIFIED = 5;
+    public static final int SPEC_RATING = 6;
+    public static final int SIZE = 7;
+
+    private static final double MAX_RATING = 5;
+    private static final int MAX_LEVEL = 5;
+    private static final double COUNT_CAP_LOG = Math.log1p(1_000);
+
+    public static final ProviderFeatures EMPTY = new ProviderFeatures(new double[SIZE], Map.of());
+
+    /** Специализация профиля как она лежит в profile_specializations. */
+    public record Specialization(UUID specializationId, int level, VerificationStatus verificationStatus, double ratingAvg) {}
+
+    private final double[] base;
+    private final Map<UUID, double[]> bySpecialization;
+
+    private ProviderFeatures(double[] base, Map<UUID, double[]> bySpecialization) {
+        this.base = base;
+        this.bySpecialization = bySpecialization;
+    }
+
+    public static ProviderFeatures of(double ratingAvg, int reviewsCount, int ordersDoneCount,
+                                      List<Specialization> specializations) {
+        double[] base = new double[SIZE];
+        base[RATING] = clamp(ratingAvg / MAX_RATING);
+        base[REVIEWS] = countFeature(reviewsCount);
+        base[ORDERS] = countFeature(ordersDoneCount);
+
+        Map<UUID, double[]> bySpecialization = new HashMap<>(specializations.size() * 4 / 3 + 1);
+        for (Specialization s : specializations) {
+            double[] v = base.clone();
+            v[LEVEL] = clamp((double) s.level() / MAX_LEVEL);
+            v[VERIFIED] = s.verificationStatus() == VerificationStatus.VERIFIED ? 1 : 0;
+            v[SPEC_RATING] = clamp(s.ratingAvg() / MAX_RATING);
+            bySpecialization.put(s.specializationId(), v);
+        }
+        return new ProviderFeatures(base, Map.copyOf(bySpecialization));
+    }
+
+    public boolean has(UUID specializationId) {
+        return bySpecialization.containsKey(specializationId);
+    }
+
+    /**
+     * Вектор для запроса; только для чтения — он общий.
+     *
+     * @param specializationId null — общий вектор; специализации у профиля нет — null
+     */
+    public double[] vector(UUID specializationId) {
+        return specializationId == null ? base : bySpecialization.get(specializationId);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static double countFeature(int count) {
+        return count <= 0 ? 0 : clamp(Math.log1p(count) / COUNT_CAP_LOG);
+    }
+
+    private static double clamp(double v) {
+        return v > 0 ? Math.min(1, v) : 0;
+    }
+}
@@ -0,0 +1,373 @@
+package am.ivix.profiles.app.nearby;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пространственный индекс профилей в памяти: равномерная сетка по lat / lon.
+ *
+ * - Ячейка — квадрат cellSizeKm по широте (по долготе — те же градусы, ближе к полюсам уже)
+ * - nearest(): обход колец ячеек от ячейки точки наружу, K лучших — в куче;
+ *   останавливаемся, как только ближайшая возможная точка следующего кольца дальше K-го найденного
+ * - Чтение без блокировок: ячейки — неизменяемые массивы, запись подменяет массив ячейки целиком
+ * - Записи (upsert / remove / replaceAll) сериализованы; их немного по сравнению с чтениями
+ * - collectWithin(): все профили в радиусе — кандидаты для ранжирования не только по расстоянию
+ *
+ * Расстояние — по большому кругу с радиусом earthdistance (earth() = 6378168 м),
+ * чтобы совпадать с SQL-поиском /api/profiles/nearby.
+ */
+public final class ProviderGridIndex {
+
+    /** earthdistance: earth() */
+    static final double EARTH_RADIUS_METERS = 6_378_168;
+
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    /**
+     * Что лежит в индексе: карточка профиля + признаки для ранжирования (в них же — его специализации).
+     * lat / lon = NaN — координат нет.
+     */
+    public record Provider(
+            UUID userId,
+            String displayName,
+            String type,
+            String city,
+            double lat,
+            double lon,
+            double ratingAvg,
+            int reviewsCount,
+            int ordersDoneCount,
+            ProviderFeatures features
+    ) {
+        public Provider {
+            Objects.requireNonNull(userId, "userId must not be null");
+            features = features == null ? ProviderFeatures.EMPTY : features;
+        }
+    }
+
+    /**
+     * Буфер кандидатов: профиль + расстояние, параллельными массивами, переиспользуется между запросами.
+     */
+    public static final class Candidates {
+
+        private Provider[] providers = new Provider[64];
+        private double[] distances = new double[64];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public Provider provider(int i) {
+            return providers[i];
+        }
+
+        public double distance(int i) {
+            return distances[i];
+        }
+
+        public void clear() {
+            Arrays.fill(providers, 0, size, null);
+            size = 0;
+        }
+
+        void add(Provider p, double distance) {
+            if (size == providers.length) {
+                providers = Arrays.copyOf(providers, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            providers[size] = p;
+            distances[size] = distance;
+            size++;
+        }
+    }
+
+    private static final Provider[] EMPTY = new Provider[0];
+
+    private record Hit(Provider provider, double distance) {}
+
+    /** Сетка целиком: её подменяет replaceAll. */
+    private record Grid(ConcurrentHashMap<Long, Provider[]> cells, ConcurrentHashMap<UUID, Provider> byId) {}
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+
+    private volatile Grid grid = new Grid(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    /**
+     * @param cellSizeKm сторона ячейки; порядок типичного радиуса поиска (1–5 км)
+     */
+    public ProviderGridIndex(double cellSizeKm) {
+        if (!(cellSizeKm > 0)) {
+            throw new IllegalArgumentException("cellSizeKm must be positive");
+        }
+        this.cellDegrees = cellSizeKm * 1000 / METERS_PER_DEGREE;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    // ------------------------------
+    //  Writes
+    // ------------------------------
+
+    /**
+     * Добавить или заменить профиль. Без координат (NaN) — профиль убирается из индекса.
+     */
+    public synchronized void upsert(Provider provider) {
+        Grid g = grid;
+        Provider old = g.byId().get(provider.userId());
+        if (old != null) {
+            removeFromCell(g, old);
+        }
+        if (!hasCoordinates(provider.lat(), provider.lon())) {
+            g.byId().remove(provider.userId());
+            return;
+        }
+        g.byId().put(provider.userId(), provider);
+        g.cells().compute(cellKey(provider.lat(), provider.lon()), (k, cell) -> {
+            Provider[] src = cell == null ? EMPTY : cell;
+            Provider[] next = Arrays.copyOf(src, src.length + 1);
+            next[src.length] = provider;
+            return next;
+        });
+    }
+
+    public synchronized void remove(UUID userId) {
+        Grid g = grid;
+        Provider old = g.byId().remove(userId);
+        if (old != null) {
+            removeFromCell(g, old);
+        }
+    }
+
+    /**
+     * Полная пересборка (старт, периодическая сверка с БД): читатели видят либо старую
+     * сетку, либо новую целиком.
+     */
+    public synchronized void replaceAll(Collection<Provider> providers) {
+        ConcurrentHashMap<UUID, Provider> byId = new ConcurrentHashMap<>(providers.size() * 4 / 3 + 1);
+        ConcurrentHashMap<Long, List<Provider>> building = new ConcurrentHashMap<>();
+        for (Provider p : providers) {
+            if (!hasCoordinates(p.lat(), p.lon())) {
+                continue;
+            }
+            byId.put(p.userId(), p);
+            building.computeIfAbsent(cellKey(p.lat(), p.lon()), k -> new ArrayList<>()).add(p);
+        }
+
+        ConcurrentHashMap<Long, Provider[]> cells = new ConcurrentHashMap<>(building.size() * 4 / 3 + 1);
+        building.forEach((key, list) -> cells.put(key, list.toArray(EMPTY)));
+        grid = new Grid(cells, byId);
+    }
+
+    public int size() {
+        return grid.byId().size();
+    }
+
+    // ------------------------------
+    //  Reads
+    // ------------------------------
+
+    /**
+     * K ближайших профилей к точке, ближайшие первыми.
+     *
+     * @param specializationId null — любые профили
+     * @param maxRadiusMeters  дальше не ищем
+     */
+    public List<NearbyProfile> nearest(double lat, double lon, UUID specializationId, int k, double maxRadiusMeters) {
+        if (k < 1 || !hasCoordinates(lat, lon)) {
+            return List.of();
+        }
+        Grid g = grid;
+
+        // худший из найденных — на вершине
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::distance).reversed());
+
+        int ci = latIndex(lat);
+        int cj = lonIndex(lon);
+        double cellHeight = cellDegrees * METERS_PER_DEGREE;
+
+        int latSpan = latSpan(maxRadiusMeters);
+        double maxAbsLat = maxAbsLat(lat, maxRadiusMeters);
+        int lonSpan = lonSpan(maxAbsLat, maxRadiusMeters);
+
+        for (int r = 0; r <= Math.max(latSpan, lonSpan); r++) {
+            // любая точка кольца r — минимум через r - 1 целых ячеек от точки запроса
+            if (r > 0 && best.size() == k) {
+                double farLat = Math.min(maxAbsLat, Math.abs(lat) + (r + 1) * cellDegrees);
+                double cellWidth = cellHeight * Math.cos(Math.toRadians(farLat));
+                double ringMin = (r - 1) * Math.min(cellHeight, cellWidth);
+                if (ringMin > best.peek().distance()) {
+                    break;
+                }
+            }
+
+            int rowSpan = Math.min(r, latSpan);
+            int colSpan = Math.min(r, lonSpan);
+            for (int i = ci - rowSpan; i <= ci + rowSpan; i++) {
+                if (i < 0 || i >= latCells) {
+                    continue;
+                }
+                if (Math.abs(i - ci) == r) {
+                    // верхняя / нижняя сторона кольца — целиком
+                    for (int j = cj - colSpan; j <= cj + colSpan; j++) {
+                        scanCell(g, i, Math.floorMod(j, lonCells), lat, lon, specializationId, k, maxRadiusMeters, best);
+                    }
+                } else if (r <= lonSpan) {
+                    // боковые стороны — две крайние ячейки строки
+                    scanCell(g, i, Math.floorMod(cj - r, lonCells), lat, lon, specializationId, k, maxRadiusMeters, best);
+                    scanCell(g, i, Math.floorMod(cj + r, lonCells), lat, lon, specializationId, k, maxRadiusMeters, best);
+                }
+            }
+        }
+
+        Hit[] hits = best.toArray(new Hit[0]);
+        Arrays.sort(hits, Comparator.comparingDouble(Hit::distance).thenComparing(h -> h.provider().userId()));
+        List<NearbyProfile> result = new ArrayList<>(hits.length);
+        for (Hit h : hits) {
+            Provider p = h.provider();
+            result.add(new NearbyProfile(p.userId(), p.displayName(), p.type(), p.city(),
+                    p.lat(), p.lon(), p.ratingAvg(), p.reviewsCount(), h.distance()));
+        }
+        return result;
+    }
+
+    /**
+     * Все профили в радиусе (с фильтром по специализации) — в буфер, без порядка.
+     */
+    public void collectWithin(double lat, double lon, UUID specializationId, double maxRadiusMeters, Candidates out) {
+        if (!hasCoordinates(lat, lon)) {
+            return;
+        }
+        Grid g = grid;
+        int ci = latIndex(lat);
+        int cj = lonIndex(lon);
+        int latSpan = latSpan(maxRadiusMeters);
+        int lonSpan = lonSpan(maxAbsLat(lat, maxRadiusMeters), maxRadiusMeters);
+
+        for (int i = Math.max(0, ci - latSpan); i <= Math.min(latCells - 1, ci + latSpan); i++) {
+            for (int j = cj - lonSpan; j <= cj + lonSpan; j++) {
+                Provider[] cell = g.cells().get(cellKey(i, Math.floorMod(j, lonCells)));
+                if (cell == null) {
+                    continue;
+                }
+                for (Provider p : cell) {
+                    if (specializationId != null && !p.features().has(specializationId)) {
+                        continue;
+                    }
+                    double d = distanceMeters(lat, lon, p.lat(), p.lon());
+                    if (d <= maxRadiusMeters) {
+                        out.add(p, d);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Расстояние по большому кругу (haversine), метры.
+     */
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static void scanCell(Grid g, int i, int j,
+                                 double lat, double lon, UUID specializationId,
+                                 int k, double maxRadiusMeters, PriorityQueue<Hit> best) {
+        Provider[] cell = g.cells().get(cellKey(i, j));
+        if (cell == null) {
+            return;
+        }
+        for (Provider p : cell) {
+            if (specializationId != null && !p.features().has(specializationId)) {
+                continue;
+            }
+            double d = distanceMeters(lat, lon, p.lat(), p.lon());
+            if (d > maxRadiusMeters) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Hit(p, d));
+            } else if (d < best.peek().distance()) {
+                best.poll();
+                best.add(new Hit(p, d));
+            }
+        }
+    }
+
+    private void removeFromCell(Grid g, Provider old) {
+        g.cells().computeIfPresent(cellKey(old.lat(), old.lon()), (k, cell) -> {
+            int at = -1;
+            for (int i = 0; i < cell.length; i++) {
+                if (cell[i].userId().equals(old.userId())) {
+                    at = i;
+                    break;
+                }
+            }
+            if (at < 0) {
+                return cell;
+            }
+            if (cell.length == 1) {
+                return null;
+            }
+            Provider[] next = new Provider[cell.length - 1];
+            System.arraycopy(cell, 0, next, 0, at);
+            System.arraycopy(cell, at + 1, next, at, cell.length - at - 1);
+            return next;
+        });
+    }
+
+    private long cellKey(double lat, double lon) {
+        return cellKey(latIndex(lat), lonIndex(lon));
+    }
+
+    private static long cellKey(int i, int j) {
+        return ((long) i << 32) | (j & 0xFFFFFFFFL);
+    }
+
+    // сколько ячеек в каждую сторону покрывает круг maxRadius (как earth_box в SQL)
+
+    private int latSpan(double maxRadiusMeters) {
+        return (int) Math.ceil(maxRadiusMeters / (cellDegrees * METERS_PER_DEGREE));
+    }
+
+    private static double maxAbsLat(double lat, double maxRadiusMeters) {
+        return Math.min(90, Math.abs(lat) + maxRadiusMeters / METERS_PER_DEGREE);
+    }
+
+    private int lonSpan(double maxAbsLat, double maxRadiusMeters) {
+        double narrowest = cellDegrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(maxAbsLat));
+        // столбец не должен попасть в обход дважды при переходе через ±180
+        int maxLonSpan = (lonCells - 1) / 2;
+        return narrowest <= 0 ? maxLonSpan : (int) Math.min(maxLonSpan, Math.ceil(maxRadiusMeters / narrowest));
+    }
+
+    private int latIndex(double lat) {
+        return Math.min(latCells - 1, (int) Math.floor((lat + 90) / cellDegrees));
+    }
+
+    private int lonIndex(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / cellDegrees), lonCells);
+    }
+
+    private static boolean hasCoordinates(double lat, double lon) {
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+}
@@ -0,0 +1,160 @@
+package am.ivix.profiles.app.ranking;
+
+import am.ivix.profiles.app.nearby.NearbyProfile;
+import am.ivix.profiles.app.nearby.ProviderFeatures;
+import am.ivix.profiles.app.nearby.ProviderGridIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Ранжирование исполнителей в радиусе: близость + рейтинг, отзывы, заказы профиля
+ * + уровень, верификация и рейтинг в запрошенной специализации.
+ *
+ * - Кандидаты — из {@link ProviderGridIndex} (в памяти, без БД), признаки уже посчитаны при загрузке
+ * - score = Σ weight * feature, K лучших — в min-куче: O(n log K), весь набор не сортируется
+ * - От parallelThreshold кандидатов оценка идёт частями на своём пуле, у каждой части своя куча
+ * - Каждый запрос — в {@link RankingMetrics}: время, число кандидатов, параллельно или нет
+ */
+public final class ProviderRankingService implements AutoCloseable {
+
+    public static final double MAX_RADIUS_KM = 100;
+    public static final int MAX_K = 100;
+
+    /** Меньше — накладные расходы пула дороже самой оценки. */
+    private static final int MIN_CHUNK = 4_096;
+
+    private final ProviderGridIndex index;
+    private final double[] weights;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final RankingMetrics metrics;
+
+    /** Буфер кандидатов на поток запроса — без аллокаций на запрос. */
+    private final ThreadLocal<ProviderGridIndex.Candidates> buffers =
+            ThreadLocal.withInitial(ProviderGridIndex.Candidates::new);
+
+    /**
+     * @param parallelThreshold с какого числа кандидатов оценивать параллельно (не меньше MIN_CHUNK)
+     * @param parallelism       потоков пула оценки
+     */
+    public ProviderRankingService(ProviderGridIndex index, RankingWeights weights,
+                                  int parallelThreshold, int parallelism, RankingMetrics metrics) {
+        this.index = Objects.requireNonNull(index, "index must not be null");
+        this.weights = Objects.requireNonNull(weights, "weights must not be null").toVector();
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        if (parallelThreshold < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("parallelThreshold and parallelism must be positive");
+        }
+        this.parallelThreshold = Math.max(parallelThreshold, MIN_CHUNK);
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            var t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("profiles-ranking-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /**
+     * K лучших по score в радиусе, лучшие первыми.
+     *
+     * @param specializationId null — без фильтра; тогда признаки специализации не участвуют
+     */
+    public List<RankedProfile> rank(double lat, double lon, double radiusKm, UUID specializationId, int k) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("lat must be in [-90, 90], lon in [-180, 180]");
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm must be in (0, " + (int) MAX_RADIUS_KM + "]");
+        }
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be in [1, " + MAX_K + "]");
+        }
+
+        long started = System.nanoTime();
+        double radiusMeters = radiusKm * 1000;
+        ProviderGridIndex.Candidates candidates = buffers.get();
+        try {
+            index.collectWithin(lat, lon, specializationId, radiusMeters, candidates);
+            int n = candidates.size();
+            boolean parallel = n >= parallelThreshold;
+
+            TopK top = parallel
+                    ? scoreParallel(candidates, specializationId, radiusMeters, k)
+                    : score(candidates, specializationId, radiusMeters, k, 0, n);
+
+            List<RankedProfile> result = new ArrayList<>(top.size());
+            for (int pos : top.sortedPositions()) {
+                int i = top.item(pos);
+                ProviderGridIndex.Provider p = candidates.provider(i);
+                result.add(new RankedProfile(new NearbyProfile(p.userId(), p.displayName(), p.type(), p.city(),
+                        p.lat(), p.lon(), p.ratingAvg(), p.reviewsCount(), candidates.distance(i)), top.score(pos)));
+            }
+
+            metrics.record(n, parallel, System.nanoTime() - started);
+            return result;
+        } finally {
+            candidates.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private TopK score(ProviderGridIndex.Candidates candidates, UUID specializationId,
+                       double radiusMeters, int k, int from, int to) {
+        double[] w = weights;
+        TopK top = new TopK(k);
+        for (int i = from; i < to; i++) {
+            double[] f = candidates.provider(i).features().vector(specializationId);
+            double s = w[ProviderFeatures.DISTANCE] * (1 - candidates.distance(i) / radiusMeters);
+            for (int j = ProviderFeatures.DISTANCE + 1; j < ProviderFeatures.SIZE; j++) {
+                s += w[j] * f[j];
+            }
+            top.offer(i, s);
+        }
+        return top;
+    }
+
+    private TopK scoreParallel(ProviderGridIndex.Candidates candidates, UUID specializationId,
+                               double radiusMeters, int k) {
+        int n = candidates.size();
+        int chunks = Math.min(pool.getParallelism(), Math.max(1, n / MIN_CHUNK));
+        int chunkSize = (n + chunks - 1) / chunks;
+
+        List<Callable<TopK>> tasks = new ArrayList<>(chunks);
+        for (int from = 0; from < n; from += chunkSize) {
+            int start = from;
+            int end = Math.min(n, from + chunkSize);
+            tasks.add(() -> score(candidates, specializationId, radiusMeters, k, start, end));
+        }
+
+        TopK top = new TopK(k);
+        try {
+            for (Future<TopK> part : pool.invokeAll(tasks)) {
+                top.merge(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ranking providers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Ranking failed", e.getCause());
+        }
+        return top;
+    }
+}
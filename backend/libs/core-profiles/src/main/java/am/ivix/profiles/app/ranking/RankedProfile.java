@@ -0,0 +1,8 @@
+package am.ivix.profiles.app.ranking;
+
+import am.ivix.profiles.app.nearby.NearbyProfile;
+
+/**
+ * Профиль в выдаче ранжирования: карточка (с расстоянием) + итоговый score.
+ */
+public record RankedProfile(NearbyProfile profile, double score) {}
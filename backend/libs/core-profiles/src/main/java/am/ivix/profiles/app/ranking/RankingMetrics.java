@@ -0,0 +1,18 @@
+package am.ivix.profiles.app.ranking;
+
+/**
+ * Куда {@link ProviderRankingService} отдаёт замеры одного запроса (в api — Micrometer).
+ */
+public interface RankingMetrics {
+
+    /**
+     * @param candidates сколько профилей оценено
+     * @param parallel   оценка шла по частям на пуле
+     * @param nanos      запрос целиком: сбор кандидатов + оценка + сортировка топа
+     */
+    void record(int candidates, boolean parallel, long nanos);
+
+    static RankingMetrics noop() {
+        return (candidates, parallel, nanos) -> {};
+    }
+}
@@ -0,0 +1,43 @@
+package am.ivix.profiles.app.ranking;
+
+import am.ivix.profiles.app.nearby.ProviderFeatures;
+
+/**
+ * Веса признаков в score = Σ weight * feature; признаки в [0, 1], веса — любые неотрицательные.
+ *
+ * distance — близость: 1 у точки запроса, 0 на границе радиуса.
+ */
+public record RankingWeights(
+        double distance,
+        double rating,
+        double reviews,
+        double orders,
+        double level,
+        double verified,
+        double specializationRating
+) {
+    public RankingWeights {
+        for (double w : new double[]{distance, rating, reviews, orders, level, verified, specializationRating}) {
+            if (!(w >= 0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException("ranking weights must be finite and non-negative");
+            }
+        }
+    }
+
+    public static RankingWeights defaults() {
+        return new RankingWeights(0.35, 0.2, 0.1, 0.1, 0.1, 0.1, 0.05);
+    }
+
+    /** В порядке слотов {@link ProviderFeatures}. */
+    double[] toVector() {
+        double[] w = new double[ProviderFeatures.SIZE];
+        w[ProviderFeatures.DISTANCE] = distance;
+        w[ProviderFeatures.RATING] = rating;
+        w[ProviderFeatures.REVIEWS] = reviews;
+        w[ProviderFeatures.ORDERS] = orders;
+        w[ProviderFeatures.LEVEL] = level;
+        w[ProviderFeatures.VERIFIED] = verified;
+        w[ProviderFeatures.SPEC_RATING] = specializationRating;
+        return w;
+    }
+}
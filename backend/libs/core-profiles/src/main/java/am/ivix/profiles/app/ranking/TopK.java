@@ -0,0 +1,108 @@
+package am.ivix.profiles.app.ranking;
+
+import java.util.Arrays;
+
+/**
+ * K лучших по score: min-куча на примитивных массивах, в вершине — худший из взятых.
+ *
+ * Хранит индексы кандидатов, а не сами объекты: на оценку ни одной аллокации.
+ * Не потокобезопасна: при параллельной оценке — своя куча на часть, потом merge.
+ */
+final class TopK {
+
+    private final int k;
+    private final int[] items;
+    private final double[] scores;
+    private int size;
+
+    TopK(int k) {
+        this.k = k;
+        this.items = new int[k];
+        this.scores = new double[k];
+    }
+
+    void offer(int item, double score) {
+        if (size < k) {
+            items[size] = item;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            items[0] = item;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    void merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.items[i], other.scores[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Позиции в куче, лучшие первыми; по ним — {@link #item} / {@link #score}.
+     */
+    int[] sortedPositions() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    int item(int position) {
+        return items[position];
+    }
+
+    double score(int position) {
+        return scores[position];
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
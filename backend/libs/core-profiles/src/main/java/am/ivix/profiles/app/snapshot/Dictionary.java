@@ -0,0 +1,76 @@
+package am.ivix.profiles.app.snapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Словарь значение → код для колонок снимка. Коды только добавляются: у значения код не меняется
+ * между инкрементальными обновлениями, так что колонки старого снимка можно копировать как есть.
+ */
+final class Dictionary<T> {
+
+    /** Значения нет (null) или его нет в словаре. */
+    static final int NONE = -1;
+
+    private final UnaryOperator<T> normalize;
+    private final Map<T, Integer> codes;
+    private final List<T> values;
+
+    Dictionary(UnaryOperator<T> normalize) {
+        this(normalize, new HashMap<>(), new ArrayList<>());
+    }
+
+    private Dictionary(UnaryOperator<T> normalize, Map<T, Integer> codes, List<T> values) {
+        this.normalize = normalize;
+        this.codes = codes;
+        this.values = values;
+    }
+
+    int encode(T value) {
+        if (value == null) {
+            return NONE;
+        }
+        T key = normalize.apply(value);
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        values.add(value);
+        codes.put(key, values.size() - 1);
+        return values.size() - 1;
+    }
+
+    int lookup(T value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(normalize.apply(value));
+        return code == null ? NONE : code;
+    }
+
+    T value(int code) {
+        return code == NONE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    Dictionary<T> copy() {
+        return new Dictionary<>(normalize, new HashMap<>(codes), new ArrayList<>(values));
+    }
+
+    /**
+     * Грубо: запись HashMap + Integer + ссылка в списке; сами значения — как строки / UUID.
+     */
+    long estimatedBytes() {
+        long bytes = 0;
+        for (T v : values) {
+            bytes += 64 + (v instanceof String s ? 40L + 2L * s.length() : 32);
+        }
+        return bytes;
+    }
+}
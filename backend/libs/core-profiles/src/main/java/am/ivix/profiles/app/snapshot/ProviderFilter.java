@@ -0,0 +1,15 @@
+package am.ivix.profiles.app.snapshot;
+
+import java.util.UUID;
+
+/**
+ * Фильтр по снимку; null — условие не задано. Город / страна / тип — без учёта регистра.
+ */
+public record ProviderFilter(
+        String country,
+        String city,
+        String type,
+        Double minRating,
+        Integer minReviews,
+        UUID specializationId
+) {}
@@ -0,0 +1,29 @@
+package am.ivix.profiles.app.snapshot;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Одна строка для записи в снимок (загрузка / дельта). В самом снимке строк-объектов нет.
+ *
+ * lat / lon = NaN — координат нет.
+ */
+public record ProviderRow(
+        UUID userId,
+        String type,
+        String country,
+        String city,
+        double lat,
+        double lon,
+        double ratingAvg,
+        int reviewsCount,
+        int ordersDoneCount,
+        long updatedAtMillis,
+        Set<UUID> specializationIds
+) {
+    public ProviderRow {
+        Objects.requireNonNull(userId, "userId must not be null");
+        specializationIds = specializationIds == null ? Set.of() : Set.copyOf(specializationIds);
+    }
+}
@@ -0,0 +1,162 @@
+package am.ivix.profiles.app.snapshot;
+
+import am.ivix.profiles.repo.ProfileRepository;
+
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Держит актуальный {@link ProviderSnapshot}: полная загрузка на старте и раз в fullRebuildInterval,
+ * между ними — дельта по profiles.updated_at раз в refreshInterval.
+ *
+ * - Водяной знак — часы БД на момент начала прошлого чтения; следующая дельта — updated_at после
+ *   него минус OVERLAP: updated_at ставит приложение (свои часы) и до коммита, строка может стать
+ *   видимой позже, чем более свежая
+ * - Строки из перекрытия, которые в снимке уже с тем же updated_at, отбрасываются;
+ *   ничего нового — снимок не пересобирается
+ * - Удаления дельта не видит — их подбирает полная пересборка
+ * - Ошибки не пробрасываются: читатели остаются на прежнем снимке до следующей попытки
+ */
+public final class ProviderSnapshotRefresher implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(ProviderSnapshotRefresher.class.getName());
+
+    private static final long OVERLAP_MILLIS = 5_000;
+
+    private final ProfileRepository profiles;
+    private final long refreshMillis;
+    private final long fullRebuildMillis;
+
+    private volatile ProviderSnapshot snapshot = ProviderSnapshot.empty();
+
+    /** Часы БД перед последним успешным чтением (epoch ms); пишет только поток обновления. */
+    private volatile long watermarkMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public ProviderSnapshotRefresher(ProfileRepository profiles, Duration refreshInterval, Duration fullRebuildInterval) {
+        this.profiles = Objects.requireNonNull(profiles, "profiles must not be null");
+        Objects.requireNonNull(refreshInterval, "refreshInterval must not be null");
+        Objects.requireNonNull(fullRebuildInterval, "fullRebuildInterval must not be null");
+        if (refreshInterval.isNegative() || refreshInterval.isZero()
+                || fullRebuildInterval.isNegative() || fullRebuildInterval.isZero()) {
+            throw new IllegalArgumentException("refreshInterval and fullRebuildInterval must be positive");
+        }
+        this.refreshMillis = refreshInterval.toMillis();
+        this.fullRebuildMillis = fullRebuildInterval.toMillis();
+    }
+
+    public ProviderSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        rebuild();
+        // один поток: дельта и полная пересборка не пересекаются
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "profiles-snapshot-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::rebuild, fullRebuildMillis, fullRebuildMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    public synchronized void rebuild() {
+        try {
+            long readStartedAt = profiles.databaseNowMillis();
+            ProviderSnapshot.Builder builder = ProviderSnapshot.empty().toBuilder();
+            for (ProfileRepository.ProviderAttributes a : profiles.findAllProviderAttributes()) {
+                builder.put(toRow(a));
+            }
+            ProviderSnapshot next = builder.build();
+            snapshot = next;
+            watermarkMillis = readStartedAt;
+
+            ProviderSnapshot.Footprint f = next.footprint();
+            log.log(Level.INFO, "Provider snapshot rebuilt: {0} rows, {1} KB", f.rows(), f.columnarBytes() / 1024);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Provider snapshot rebuild failed, keeping previous snapshot", e);
+        }
+    }
+
+    public synchronized void refresh() {
+        try {
+            long readStartedAt = profiles.databaseNowMillis();
+            OffsetDateTime since = Instant.ofEpochMilli(Math.max(0, watermarkMillis - OVERLAP_MILLIS)).atOffset(ZoneOffset.UTC);
+            List<ProfileRepository.ProviderAttributes> read = profiles.findProviderAttributesUpdatedAfter(since);
+
+            ProviderSnapshot current = snapshot;
+            ProviderSnapshot.Builder builder = current.toBuilder();
+            int changed = 0;
+            for (ProfileRepository.ProviderAttributes a : read) {
+                ProviderRow row = toRow(a);
+                if (current.updatedAtMillis(row.userId()) != row.updatedAtMillis()) {
+                    builder.put(row);
+                    changed++;
+                }
+            }
+            if (changed > 0) {
+                snapshot = builder.build();
+                log.log(Level.DEBUG, "Provider snapshot refreshed: {0} changed rows", changed);
+            }
+            watermarkMillis = readStartedAt;
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Provider snapshot refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static ProviderRow toRow(ProfileRepository.ProviderAttributes a) {
+        return new ProviderRow(
+                a.getUserId(),
+                a.getType(),
+                a.getCountry(),
+                a.getCity(),
+                a.getLat() == null ? Double.NaN : a.getLat(),
+                a.getLon() == null ? Double.NaN : a.getLon(),
+                a.getRatingAvg() == null ? 0 : a.getRatingAvg(),
+                a.getReviewsCount() == null ? 0 : a.getReviewsCount(),
+                a.getOrdersDoneCount() == null ? 0 : a.getOrdersDoneCount(),
+                a.getUpdatedAt() == null ? 0 : a.getUpdatedAt().toInstant().toEpochMilli(),
+                specializationIds(a.getSpecializationIds())
+        );
+    }
+
+    private static Set<UUID> specializationIds(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (String id : csv.split(",")) {
+            ids.add(UUID.fromString(id));
+        }
+        return ids;
+    }
+}
@@ -86,6 +86,11 @@ public class Profile {
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
 
+    // Изменилось связанное (специализации): двигаем updated_at — по нему снимок подтягивает дельту
+    public void touch() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+
     @PreUpdate
     public void onUpdate() {
         this.updatedAt = OffsetDateTime.now();
@@ -0,0 +1,199 @@
+package am.ivix.profiles.repo;
+
+import am.ivix.profiles.app.nearby.NearbyProfile;
+import am.ivix.profiles.app.nearby.ProviderFeatures;
+import am.ivix.profiles.app.nearby.ProviderGridIndex;
+import am.ivix.profiles.domain.VerificationStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Поиск профилей в радиусе — нативный SQL на earthdistance / cube.
+ *
+ * - earth_box(центр, r) @> ll_to_earth(lat, lon) — идёт по GiST-индексу idx_profiles_ll_to_earth
+ *   (выражение в запросе должно совпадать с индексным дословно)
+ * - куб шире круга: точный отсев — earth_distance <= r, уже только по кандидатам
+ * - порядок (distance, user_id) однозначный — на нём держится курсор (keyset pagination):
+ *   следующая страница — строго после последней пары, без OFFSET
+ * - loadIndexEntries / loadIndexEntry — выгрузка для {@link ProviderGridIndex}: профиль + все его специализации,
+ *   сразу в виде признаков для ранжирования
+ */
+@Repository
+public class NearbyProfileRepository {
+
+    private static final String SELECT = """
+            SELECT c.*
+            FROM (
+                SELECT p.user_id, p.display_name, p.type, p.city, p.lat, p.lon,
+                       p.rating_avg, p.reviews_count,
+                       earth_distance(ll_to_earth(:lat, :lon), ll_to_earth(p.lat, p.lon)) AS distance_m
+                FROM profiles p
+                %s
+                WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+                  AND earth_box(ll_to_earth(:lat, :lon), :radius) @> ll_to_earth(p.lat, p.lon)
+            ) c
+            WHERE c.distance_m <= :radius
+              %s
+            ORDER BY c.distance_m, c.user_id
+            LIMIT :limit
+            """;
+
+    private static final String JOIN_SPECIALIZATION = """
+            JOIN profile_specializations ps
+                  ON ps.profile_id = p.user_id AND ps.specialization_id = :specializationId
+            """;
+
+    private static final String AFTER_CURSOR =
+            "AND (c.distance_m, c.user_id) > (:afterDistance, :afterUserId)";
+
+    private static final RowMapper<NearbyProfile> ROW_MAPPER = (rs, i) -> new NearbyProfile(
+            rs.getObject("user_id", UUID.class),
+            rs.getString("display_name"),
+            rs.getString("type"),
+            rs.getString("city"),
+            rs.getDouble("lat"),
+            rs.getDouble("lon"),
+            rs.getDouble("rating_avg"),
+            rs.getInt("reviews_count"),
+            rs.getDouble("distance_m")
+    );
+
+    /** Специализации профиля — параллельными массивами в одном порядке (ORDER BY в каждом array_agg). */
+    private static final String SELECT_INDEX_ENTRIES = """
+            SELECT p.user_id, p.display_name, p.type, p.city, p.lat, p.lon,
+                   p.rating_avg, p.reviews_count, p.orders_done_count,
+                   array_agg(ps.specialization_id ORDER BY ps.specialization_id)
+                       FILTER (WHERE ps.specialization_id IS NOT NULL) AS spec_ids,
+                   array_agg(ps.level ORDER BY ps.specialization_id)
+                       FILTER (WHERE ps.specialization_id IS NOT NULL) AS spec_levels,
+                   array_agg(ps.verification_status ORDER BY ps.specialization_id)
+                       FILTER (WHERE ps.specialization_id IS NOT NULL) AS spec_statuses,
+                   array_agg(COALESCE(ps.rating_avg, 0) ORDER BY ps.specialization_id)
+                       FILTER (WHERE ps.specialization_id IS NOT NULL) AS spec_ratings
+            FROM profiles p
+            LEFT JOIN profile_specializations ps ON ps.profile_id = p.user_id
+            WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+              %s
+            GROUP BY p.user_id
+            """;
+
+    private static final RowMapper<ProviderGridIndex.Provider> INDEX_ROW_MAPPER = (rs, i) -> {
+        double ratingAvg = rs.getDouble("rating_avg");
+        int reviewsCount = rs.getInt("reviews_count");
+        int ordersDoneCount = rs.getInt("orders_done_count");
+        return new ProviderGridIndex.Provider(
+                rs.getObject("user_id", UUID.class),
+                rs.getString("display_name"),
+                rs.getString("type"),
+                rs.getString("city"),
+                rs.getDouble("lat"),
+                rs.getDouble("lon"),
+                ratingAvg,
+                reviewsCount,
+                ordersDoneCount,
+                ProviderFeatures.of(ratingAvg, reviewsCount, ordersDoneCount, specializations(rs))
+        );
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public NearbyProfileRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @param specializationId null — без фильтра по специализации
+     * @param afterDistance    курсор: расстояние последней строки прошлой страницы (null — первая страница)
+     * @param afterUserId      курсор: user_id последней строки прошлой страницы
+     */
+    public List<NearbyProfile> findNearby(double lat, double lon, double radiusMeters,
+                                          UUID specializationId,
+                                          Double afterDistance, UUID afterUserId,
+                                          int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", lat)
+                .addValue("lon", lon)
+                .addValue("radius", radiusMeters)
+                .addValue("limit", limit);
+
+        String join = "";
+        if (specializationId != null) {
+            join = JOIN_SPECIALIZATION;
+            params.addValue("specializationId", specializationId);
+        }
+
+        String after = "";
+        if (afterDistance != null && afterUserId != null) {
+            after = AFTER_CURSOR;
+            params.addValue("afterDistance", afterDistance);
+            params.addValue("afterUserId", afterUserId);
+        }
+
+        return jdbc.query(SELECT.formatted(join, after), params, ROW_MAPPER);
+    }
+
+    /**
+     * Все профили с координатами — полная пересборка индекса.
+     */
+    public List<ProviderGridIndex.Provider> loadIndexEntries() {
+        return jdbc.query(SELECT_INDEX_ENTRIES.formatted(""), new MapSqlParameterSource(), INDEX_ROW_MAPPER);
+    }
+
+    /**
+     * Один профиль для точечного обновления индекса; пусто — профиля нет или нет координат.
+     */
+    public Optional<ProviderGridIndex.Provider> loadIndexEntry(UUID userId) {
+        List<ProviderGridIndex.Provider> rows = jdbc.query(
+                SELECT_INDEX_ENTRIES.formatted("AND p.user_id = :userId"),
+                new MapSqlParameterSource("userId", userId),
+                INDEX_ROW_MAPPER);
+        return rows.stream().findFirst();
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static List<ProviderFeatures.Specialization> specializations(ResultSet rs) throws SQLException {
+        Object[] ids = array(rs, "spec_ids");
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Object[] levels = array(rs, "spec_levels");
+        Object[] statuses = array(rs, "spec_statuses");
+        Object[] ratings = array(rs, "spec_ratings");
+
+        List<ProviderFeatures.Specialization> result = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            result.add(new ProviderFeatures.Specialization(
+                    (UUID) ids[i],
+                    ((Number) levels[i]).intValue(),
+                    VerificationStatus.valueOf((String) statuses[i]),
+                    ((Number) ratings[i]).doubleValue()
+            ));
+        }
+        return result;
+    }
+
+    private static Object[] array(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        if (array == null) {
+            return new Object[0];
+        }
+        try {
+            return (Object[]) array.getArray();
+        } finally {
+            array.free();
+        }
+    }
+}
@@ -2,7 +2,11 @@ package am.ivix.profiles.repo;
 
 import am.ivix.profiles.domain.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,5 +14,50 @@ public interface ProfileRepository extends JpaRepository<Profile, UUID> {
 
     // Найти профиль по userId (он же PK)
     Optional<Profile> findByUserId(UUID userId);
-}
 
+    /**
+     * Атрибуты для колоночного снимка — плоской проекцией, без сущностей и persistence context.
+     * Специализации — строкой "uuid,uuid,...".
+     */
+    interface ProviderAttributes {
+        UUID getUserId();
+        String getType();
+        String getCountry();
+        String getCity();
+        Double getLat();
+        Double getLon();
+        Double getRatingAvg();
+        Integer getReviewsCount();
+        Integer getOrdersDoneCount();
+        OffsetDateTime getUpdatedAt();
+        String getSpecializationIds();
+    }
+
+    // Часы БД (epoch ms) — водяной знак дельты снимка
+    @Query(value = "SELECT CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT)", nativeQuery = true)
+    long databaseNowMillis();
+
+    @Query(value = """
+            SELECT p.user_id AS userId, p.type AS type, p.country AS country, p.city AS city,
+                   p.lat AS lat, p.lon AS lon, p.rating_avg AS ratingAvg,
+                   p.reviews_count AS reviewsCount, p.orders_done_count AS ordersDoneCount,
+                   p.updated_at AS updatedAt,
+                   (SELECT string_agg(ps.specialization_id::text, ',')
+                    FROM profile_specializations ps WHERE ps.profile_id = p.user_id) AS specializationIds
+            FROM profiles p
+            """, nativeQuery = true)
+    List<ProviderAttributes> findAllProviderAttributes();
+
+    // Дельта для снимка: idx_profiles_updated_at
+    @Query(value = """
+            SELECT p.user_id AS userId, p.type AS type, p.country AS country, p.city AS city,
+                   p.lat AS lat, p.lon AS lon, p.rating_avg AS ratingAvg,
+                   p.reviews_count AS reviewsCount, p.orders_done_count AS ordersDoneCount,
+                   p.updated_at AS updatedAt,
+                   (SELECT string_agg(ps.specialization_id::text, ',')
+                    FROM profile_specializations ps WHERE ps.profile_id = p.user_id) AS specializationIds
+            FROM profiles p
+            WHERE p.updated_at > :since
+            """, nativeQuery = true)
+    List<ProviderAttributes> findProviderAttributesUpdatedAfter(@Param("since") OffsetDateTime since);
+}
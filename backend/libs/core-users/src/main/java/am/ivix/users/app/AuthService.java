@@ -1,22 +1,28 @@
 package am.ivix.users.app;
 
+import am.ivix.users.app.exception.InvalidCredentialsException;
 import am.ivix.users.domain.User;
+import am.ivix.users.domain.UserSnapshot;
 import am.ivix.users.repo.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userCache;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserLookupCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
     }
 
     public User register(String email, String rawPassword) {
@@ -32,23 +38,53 @@ public class AuthService {
                 List.of("ROLE_USER")    // дефолтная роль
         );
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved);
+        return saved;
     }
 
-    public User login(String email, String rawPassword) {
-        return userRepository.findByEmailIgnoreCase(email)
-                .filter(u -> passwordEncoder.matches(rawPassword, u.getPasswordHash()))
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+    /**
+     * Один поиск пользователя на логин (через кэш) + проверка пароля.
+     */
+    public UserSnapshot login(String email, String rawPassword) {
+        UserSnapshot user = userCache.findByEmail(email)
+                .filter(u -> passwordEncoder.matches(rawPassword, u.passwordHash()))
+                .orElseThrow(InvalidCredentialsException::new);
+
+        rehashIfNeeded(user, rawPassword);
+        return user;
+    }
+
+    /**
+     * Хеш записан другим алгоритмом или cost, чем целевой, — перехешируем, пока пароль
+     * в руках (только после успешной проверки). Best effort: не удалось (пул хеширования
+     * занят, БД) — вход всё равно успешен, попробуем на следующем логине; в лог — WARN,
+     * чтобы перехеширование, которое не проходит никогда, было видно.
+     */
+    private void rehashIfNeeded(UserSnapshot user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.passwordHash())) {
+            return;
+        }
+        try {
+            String hash = passwordEncoder.encode(rawPassword);
+            userRepository.findById(user.id()).ifPresent(entity -> {
+                entity.setPasswordHash(hash);
+                userRepository.save(entity);
+            });
+            userCache.invalidate(user.id(), user.email());
+        } catch (RuntimeException e) {
+            // оставляем старый хеш
+            log.warn("Password rehash failed for user {}, keeping the old hash: {}", user.id(), e.toString());
+        }
     }
 
-    public User findByEmail(String email) {
-        return userRepository.findByEmailIgnoreCase(email)
+    public UserSnapshot findByEmail(String email) {
+        return userCache.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public User findById(UUID id) {
-        return userRepository.findById(id)
+    public UserSnapshot findById(UUID id) {
+        return userCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
-
@@ -0,0 +1,50 @@
+package am.ivix.users.app;
+
+import am.ivix.users.domain.UserSnapshot;
+
+import java.util.UUID;
+
+/**
+ * Второй уровень кэша пользователей — общий для всех нод (Redis).
+ *
+ * Ключ email — уже нормализованный (нижний регистр). Ошибки хранилища реализация
+ * глотает сама: промах L2 — это просто поход в БД.
+ */
+public interface RemoteUserCache {
+
+    UserSnapshot getById(UUID id);
+
+    UserSnapshot getByEmail(String normalizedEmail);
+
+    void put(UserSnapshot user);
+
+    /**
+     * Best effort: зовётся после записи в БД, поэтому не бросает — не удалось, запись доживает до TTL L2.
+     */
+    void evict(UUID id, String normalizedEmail);
+
+    /**
+     * Без L2: только локальный кэш и БД.
+     */
+    static RemoteUserCache disabled() {
+        return new RemoteUserCache() {
+            @Override
+            public UserSnapshot getById(UUID id) {
+                return null;
+            }
+
+            @Override
+            public UserSnapshot getByEmail(String normalizedEmail) {
+                return null;
+            }
+
+            @Override
+            public void put(UserSnapshot user) {
+            }
+
+            @Override
+            public void evict(UUID id, String normalizedEmail) {
+            }
+        };
+    }
+}
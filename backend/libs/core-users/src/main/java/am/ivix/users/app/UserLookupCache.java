@@ -0,0 +1,157 @@
+package am.ivix.users.app;
+
+import am.ivix.users.domain.User;
+import am.ivix.users.domain.UserSnapshot;
+import am.ivix.users.repo.UserRepository;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through кэш пользователей по id и по email: L1 в памяти ноды → L2 (Redis, опционально) → БД.
+ *
+ * - Один поиск по email / id = максимум один SELECT (с join'ом ролей), дальше — из памяти
+ * - Кэшируются только найденные пользователи; "нет такого email" всегда идёт в БД
+ * - Любая запись пользователя (регистрация, смена хеша, ролей) обязана вызвать {@link #invalidate}:
+ *   локально и в L2 сразу, L1 других нод — не позже чем через l1Ttl
+ * - Размер L1 ограничен maxEntries: при переполнении выкидываем протухшее, а если не помогло — всё
+ */
+public final class UserLookupCache {
+
+    private record Entry(UserSnapshot user, long loadedAtNanos) {}
+
+    private final UserRepository userRepository;
+    private final RemoteUserCache remote;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    /**
+     * @param remote     L2; {@link RemoteUserCache#disabled()} — без него
+     * @param l1Ttl      сколько нода верит своей копии — задержка изменений с других нод
+     * @param maxEntries сколько пользователей держим в памяти
+     */
+    public UserLookupCache(UserRepository userRepository, RemoteUserCache remote, Duration l1Ttl, int maxEntries) {
+        this.userRepository = Objects.requireNonNull(userRepository, "userRepository must not be null");
+        this.remote = Objects.requireNonNull(remote, "remote must not be null");
+        Objects.requireNonNull(l1Ttl, "l1Ttl must not be null");
+        if (l1Ttl.isNegative() || maxEntries < 1) {
+            throw new IllegalArgumentException("l1Ttl must not be negative, maxEntries must be positive");
+        }
+        this.ttlNanos = l1Ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<UserSnapshot> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String key = normalize(email);
+        long now = System.nanoTime();
+
+        Entry entry = byEmail.get(key);
+        if (entry != null && now - entry.loadedAtNanos() < ttlNanos) {
+            return Optional.of(entry.user());
+        }
+
+        UserSnapshot user = remote.getByEmail(key);
+        if (user == null) {
+            user = userRepository.findByEmailIgnoreCase(email).map(UserSnapshot::of).orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            remote.put(user);
+        }
+        remember(user, now);
+        return Optional.of(user);
+    }
+
+    public Optional<UserSnapshot> findById(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+
+        Entry entry = byId.get(id);
+        if (entry != null && now - entry.loadedAtNanos() < ttlNanos) {
+            return Optional.of(entry.user());
+        }
+
+        UserSnapshot user = remote.getById(id);
+        if (user == null) {
+            user = userRepository.findById(id).map(UserSnapshot::of).orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            remote.put(user);
+        }
+        remember(user, now);
+        return Optional.of(user);
+    }
+
+    /**
+     * Пользователь изменился (или появился) — выбросить все его копии.
+     */
+    public void invalidate(User user) {
+        invalidate(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Сначала L2, потом L1: иначе чтение между шагами заново положило бы в L1 старую копию из L2
+     * (и она прожила бы ещё l1Ttl).
+     */
+    public void invalidate(UUID id, String email) {
+        String key = email == null ? null : normalize(email);
+        remote.evict(id, key);
+
+        if (id != null) {
+            Entry old = byId.remove(id);
+            if (old != null) {
+                // email мог смениться — старый ключ тоже
+                byEmail.remove(normalize(old.user().email()));
+            }
+        }
+        if (key != null) {
+            byEmail.remove(key);
+        }
+    }
+
+    /**
+     * Сколько пользователей сейчас в L1.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void remember(UserSnapshot user, long now) {
+        if (byId.size() >= maxEntries || byEmail.size() >= maxEntries) {
+            evict(now);
+        }
+        Entry entry = new Entry(user, now);
+        byId.put(user.id(), entry);
+        byEmail.put(normalize(user.email()), entry);
+    }
+
+    private void evict(long now) {
+        byId.values().removeIf(e -> now - e.loadedAtNanos() >= ttlNanos);
+        byEmail.values().removeIf(e -> now - e.loadedAtNanos() >= ttlNanos);
+        if (byId.size() >= maxEntries || byEmail.size() >= maxEntries) {
+            byId.clear();
+            byEmail.clear();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -11,9 +11,11 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserLookupCache userCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserLookupCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     public User getById(UUID id) {
@@ -32,6 +34,8 @@ public class UserService {
 
     public User createUser(String email, String passwordHash, List<String> roles) {
         User user = new User(email, passwordHash, roles);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved);
+        return saved;
     }
 }
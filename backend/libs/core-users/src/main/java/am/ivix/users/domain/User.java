@@ -1,6 +1,9 @@
 package am.ivix.users.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,12 +23,12 @@ public class User {
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "user_roles",
-            joinColumns = @JoinColumn(name = "user_id")
-    )
-    @Column(name = "role")
+    /**
+     * Роли — колонка text[] в той же строке: пользователь грузится одним SELECT'ом,
+     * save() обновляет одну колонку, а не переписывает коллекцию.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "roles", nullable = false, columnDefinition = "text[]")
     private List<String> roles = new ArrayList<>();
 
     @Column(nullable = false, updatable = false)
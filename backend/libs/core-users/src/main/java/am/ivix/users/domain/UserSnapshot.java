@@ -0,0 +1,25 @@
+package am.ivix.users.domain;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Неизменяемый снимок пользователя для чтения: то, что нужно логину, выдаче токенов и /me.
+ *
+ * В отличие от {@link User} (JPA-сущность, изменяемая, роли — коллекция Hibernate)
+ * его можно безопасно держать в кэше и отдавать нескольким потокам сразу.
+ */
+public record UserSnapshot(UUID id, String email, String passwordHash, List<String> roles) {
+
+    public UserSnapshot {
+        Objects.requireNonNull(id, "id must not be null");
+        Objects.requireNonNull(email, "email must not be null");
+        Objects.requireNonNull(passwordHash, "passwordHash must not be null");
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getPasswordHash(), user.getRoles());
+    }
+}
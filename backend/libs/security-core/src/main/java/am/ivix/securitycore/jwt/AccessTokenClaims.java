@@ -0,0 +1,34 @@
+package am.ivix.securitycore.jwt;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Плоский набор клеймов access-токена — ровно то, что нужно фильтру аутентификации.
+ *
+ * Времена — epoch seconds (как в самом JWT), без Date / Instant.
+ * notBefore == 0, если nbf в токене нет.
+ *
+ * roleMask >= 0 — токен компактного профиля (роли битовой маской "rl", без email);
+ * roles тогда раскодированы из маски. -1 — обычный профиль, роли списком.
+ */
+public record AccessTokenClaims(
+        String subject,
+        String email,
+        List<String> roles,
+        String jti,
+        long issuedAt,
+        long notBefore,
+        long expiresAt,
+        long roleMask
+) {
+    public AccessTokenClaims {
+        Objects.requireNonNull(subject, "subject must not be null");
+        Objects.requireNonNull(roles, "roles must not be null");
+        Objects.requireNonNull(jti, "jti must not be null");
+    }
+
+    public boolean compact() {
+        return roleMask >= 0;
+    }
+}
@@ -0,0 +1,452 @@
+package am.ivix.securitycore.jwt;
+
+import am.ivix.securitycore.keys.KeyProvider;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Быстрый путь проверки access-токена для фильтра аутентификации.
+ *
+ * В отличие от {@link JwtTokenValidator}:
+ * - не строит SignedJWT и JWTClaimsSet — подпись проверяется по сырым байтам "header.payload"
+ * - заголовок разбирается один раз: известные header-сегменты (обычно один на kid) кешируются
+ * - payload читается сканером {@link CompactClaimsReader} в переиспользуемый буфер,
+ *   наружу — только плоский {@link AccessTokenClaims}
+ * - ошибки — enum {@link Status}, без строк и без исключений
+ * - попадание в кеш ничего не аллоцирует: токен — срезом строки ({@link #verify(String, int, int)}),
+ *   ключ кеша — в буферах потока, в кеше лежит готовый {@link Result}
+ *
+ * Семантика проверок та же: kid/alg, подпись, iss, aud, nbf, exp, typ=access.
+ * Понимает оба профиля access-токена: обычный (roles списком, email) и компактный
+ * (роли маской "rl" — раскодирует {@link RoleBitmask}, если он задан).
+ * Refresh-токены по-прежнему проверяет JwtTokenValidator (они редкие).
+ */
+public final class AccessTokenVerifier {
+
+    public enum Status {
+        VALID,
+        MALFORMED,
+        UNKNOWN_KEY,
+        UNEXPECTED_ALGORITHM,
+        BAD_SIGNATURE,
+        INVALID_ISSUER,
+        INVALID_AUDIENCE,
+        NOT_ACTIVE_YET,
+        EXPIRED,
+        WRONG_TYPE
+    }
+
+    /**
+     * Результат проверки. claims != null только при VALID.
+     */
+    public record Result(Status status, AccessTokenClaims claims) {
+        public boolean ok() {
+            return status == Status.VALID;
+        }
+    }
+
+    /** Заранее созданные результаты-отказы: на отказ ничего не аллоцируем. */
+    private static final Result[] FAILURES = new Result[Status.values().length];
+
+    static {
+        for (Status s : Status.values()) {
+            FAILURES[s.ordinal()] = new Result(s, null);
+        }
+    }
+
+    /** Сколько разных header-сегментов держим на версию ключей. */
+    private static final int MAX_KNOWN_HEADERS = 8;
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Разобранный заголовок + verifier его kid.
+     * status != VALID — заголовок отвергнут (такие не кешируем).
+     */
+    private record KnownHeader(String encoded, JWSHeader header, JWSVerifier verifier, Status status) {}
+
+    private static final KnownHeader[] REJECTED_HEADERS = new KnownHeader[Status.values().length];
+
+    static {
+        for (Status s : Status.values()) {
+            REJECTED_HEADERS[s.ordinal()] = new KnownHeader(null, null, null, s);
+        }
+    }
+
+    /** Verifier'ы и известные заголовки для конкретной версии ключей. */
+    private record Keys(long keyVersion, JwsVerifierRegistry registry, KnownHeader[] headers) {}
+
+    private final KeyProvider keyProvider;
+    private final VerifiedTokenCache<Result> cache;
+    private final RoleBitmask roleBitmask;
+    private final ThreadLocal<CompactClaimsReader> readers;
+
+    /** Сколько раз реально считали подпись (мимо кеша). */
+    private final LongAdder signatureVerifications = new LongAdder();
+
+    /** Пересобирается, когда меняется keyProvider.getKeyVersion() (hot reload). */
+    private volatile Keys keys;
+
+    public AccessTokenVerifier(KeyProvider keyProvider, String issuer, String audience) {
+        this(keyProvider, issuer, audience, VerifiedTokenCache.defaults());
+    }
+
+    /**
+     * @param cache кеш проверенных access-токенов ({@link VerifiedTokenCache#disabled()} — без кеша);
+     *              хранит VALID-результаты целиком, чтобы попадание отдавало тот же экземпляр
+     */
+    public AccessTokenVerifier(
+            KeyProvider keyProvider,
+            String issuer,
+            String audience,
+            VerifiedTokenCache<Result> cache
+    ) {
+        this(keyProvider, issuer, audience, cache, null);
+    }
+
+    /**
+     * @param roleBitmask раскладка битов "rl" компактного профиля; null — маска не раскодируется
+     *                    (roles пустой, фильтр берёт roleMask)
+     */
+    public AccessTokenVerifier(
+            KeyProvider keyProvider,
+            String issuer,
+            String audience,
+            VerifiedTokenCache<Result> cache,
+            RoleBitmask roleBitmask
+    ) {
+        Objects.requireNonNull(keyProvider, "keyProvider must not be null");
+        Objects.requireNonNull(issuer, "issuer must not be null");
+        Objects.requireNonNull(audience, "audience must not be null");
+        Objects.requireNonNull(cache, "cache must not be null");
+
+        this.keyProvider = keyProvider;
+        this.cache = cache;
+        this.roleBitmask = roleBitmask;
+        this.readers = ThreadLocal.withInitial(() -> new CompactClaimsReader(issuer, audience));
+        this.keys = buildKeys(keyProvider.getKeyVersion());
+    }
+
+    /**
+     * Счётчики кеша проверенных токенов (hit/miss, размер).
+     */
+    public VerifiedTokenCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Сколько проверок подписи выполнено с момента создания: на запрос с новым токеном
+     * должно приходиться не больше одной (остальное — из кеша или атрибутов запроса).
+     */
+    public long signatureVerifications() {
+        return signatureVerifications.sum();
+    }
+
+    /**
+     * Проверить компактный access-токен. Не выбрасывает исключений.
+     */
+    public Result verify(String token) {
+        return token == null ? fail(Status.MALFORMED) : verify(token, 0, token.length());
+    }
+
+    /**
+     * Проверить токен source[from, to) — например, хвост заголовка Authorization без substring.
+     * Не выбрасывает исключений.
+     */
+    public Result verify(String source, int from, int to) {
+        if (source == null || from < 0 || to > source.length() || from >= to) {
+            return fail(Status.MALFORMED);
+        }
+
+        int dot1 = indexOf(source, '.', from, to);
+        int dot2 = dot1 < 0 ? -1 : indexOf(source, '.', dot1 + 1, to);
+        if (dot1 <= from || dot2 <= dot1 + 1 || dot2 >= to - 1 || indexOf(source, '.', dot2 + 1, to) >= 0) {
+            return fail(Status.MALFORMED);
+        }
+
+        // записи кеша — только этой версии ключей: проверенное старым набором после смены не в счёт
+        Keys k = keys();
+        long keyVersion = k.keyVersion();
+
+        VerifiedTokenCache.Key key = cache.keyOf(source, from, to);
+        Result cached = cache.get(key, keyVersion);
+        if (cached != null) {
+            // подпись и iss/aud/typ уже проверены, время — всегда заново
+            AccessTokenClaims claims = cached.claims();
+            Status time = checkTime(claims.notBefore(), claims.expiresAt());
+            return time == Status.VALID ? cached : fail(time);
+        }
+        String rejected = cache.rejection(key, keyVersion);
+        if (rejected != null) {
+            return fail(Status.valueOf(rejected));
+        }
+
+        Result result = verifyUncached(k, source, from, dot1, dot2, to);
+        if (result.ok()) {
+            cache.put(key, result, Instant.ofEpochSecond(result.claims().expiresAt()), keyVersion);
+        } else if (isNegativeCacheable(result.status())) {
+            cache.reject(key, result.status().name(), keyVersion);
+        }
+        return result;
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * Токен — source[from, to); dot1 / dot2 — индексы точек в source.
+     */
+    private Result verifyUncached(Keys k, String source, int from, int dot1, int dot2, int to) {
+        // 1. Заголовок → verifier (kid + alg)
+        KnownHeader header = findHeader(k, source, from, dot1);
+        boolean fresh = header == null;
+        if (fresh) {
+            header = parseHeader(k, source.substring(from, dot1));
+            if (header.status() != Status.VALID) {
+                return fail(header.status());
+            }
+        }
+
+        // 2. Подпись по сырым байтам "header.payload"
+        int signingLength = dot2 - from;
+        byte[] signingInput = new byte[signingLength];
+        for (int i = 0; i < signingLength; i++) {
+            char c = source.charAt(from + i);
+            if (c > 0x7f) {
+                return fail(Status.MALFORMED);
+            }
+            signingInput[i] = (byte) c;
+        }
+        signatureVerifications.increment();
+        try {
+            Base64URL signature = new Base64URL(source.substring(dot2 + 1, to));
+            if (!header.verifier().verify(header.header(), signingInput, signature)) {
+                return fail(Status.BAD_SIGNATURE);
+            }
+        } catch (JOSEException e) {
+            return fail(Status.BAD_SIGNATURE);
+        }
+
+        // подпись сошлась — такой заголовок можно запомнить (мусорные варианты сюда не попадают)
+        if (fresh) {
+            remember(k, header);
+        }
+
+        // 3. Payload → фиксированный набор клеймов
+        CompactClaimsReader reader = readers.get();
+        int encodedLength = dot2 - dot1 - 1;
+        byte[] payload = reader.buffer(encodedLength * 3 / 4 + 3);
+        int payloadLength = decodeBase64Url(signingInput, dot1 + 1 - from, signingLength, payload);
+        if (payloadLength < 0 || !reader.read(payloadLength)) {
+            return fail(Status.MALFORMED);
+        }
+
+        // 4. Поля — в том же порядке, что и в JwtTokenValidator
+        if (!reader.issuerMatches) {
+            return fail(Status.INVALID_ISSUER);
+        }
+        if (!reader.audienceMatches) {
+            return fail(Status.INVALID_AUDIENCE);
+        }
+        boolean compact = !reader.rolesPresent && reader.roleMask >= 0;
+        if (!reader.expPresent || reader.subject == null || reader.jti == null
+                || !(reader.rolesPresent || compact)) {
+            return fail(Status.MALFORMED);
+        }
+        Status time = checkTime(reader.notBefore, reader.expiresAt);
+        if (time != Status.VALID) {
+            return fail(time);
+        }
+        if (!reader.accessType) {
+            return fail(Status.WRONG_TYPE);
+        }
+
+        AccessTokenClaims claims = new AccessTokenClaims(
+                reader.subject,
+                reader.email,
+                compact ? decodeRoles(reader.roleMask) : List.copyOf(reader.roles),
+                reader.jti,
+                reader.issuedAt,
+                reader.notBefore,
+                reader.expiresAt,
+                compact ? reader.roleMask : -1
+        );
+        return new Result(Status.VALID, claims);
+    }
+
+    private List<String> decodeRoles(long mask) {
+        return roleBitmask != null ? roleBitmask.decode(mask) : List.of();
+    }
+
+    private static Status checkTime(long notBefore, long expiresAt) {
+        long nowMillis = System.currentTimeMillis();
+        if (notBefore != 0 && nowMillis < notBefore * 1000) {
+            return Status.NOT_ACTIVE_YET;
+        }
+        if (nowMillis > expiresAt * 1000) {
+            return Status.EXPIRED;
+        }
+        return Status.VALID;
+    }
+
+    /**
+     * Как и в JwtTokenValidator, помним только мусор и протухшие токены —
+     * их клиенты шлют повторно.
+     */
+    private static boolean isNegativeCacheable(Status status) {
+        return switch (status) {
+            case MALFORMED, UNKNOWN_KEY, UNEXPECTED_ALGORITHM, BAD_SIGNATURE, EXPIRED -> true;
+            default -> false;
+        };
+    }
+
+    private static Result fail(Status status) {
+        return FAILURES[status.ordinal()];
+    }
+
+    /**
+     * Ключи для текущей версии. Пока версия та же — одно volatile-чтение.
+     * clear() при смене только освобождает память: старые записи не совпадут по версии.
+     */
+    private Keys keys() {
+        Keys k = keys;
+        long version = keyProvider.getKeyVersion();
+        if (k.keyVersion() != version) {
+            k = buildKeys(version);
+            keys = k;
+            cache.clear();
+        }
+        return k;
+    }
+
+    private Keys buildKeys(long version) {
+        return new Keys(version, new JwsVerifierRegistry(keyProvider.getVerificationKeys()), new KnownHeader[0]);
+    }
+
+    /**
+     * Поиск среди известных заголовков сравнением региона строки — без substring.
+     */
+    private static KnownHeader findHeader(Keys k, String source, int from, int dot1) {
+        int length = dot1 - from;
+        for (KnownHeader h : k.headers()) {
+            String encoded = h.encoded();
+            if (encoded.length() == length && source.regionMatches(from, encoded, 0, length)) {
+                return h;
+            }
+        }
+        return null;
+    }
+
+    /** indexOf в пределах [from, to); -1 — нет. */
+    private static int indexOf(String source, char ch, int from, int to) {
+        int i = source.indexOf(ch, from);
+        return i < to ? i : -1;
+    }
+
+    private static KnownHeader parseHeader(Keys k, String encoded) {
+        JWSHeader header;
+        try {
+            header = JWSHeader.parse(new Base64URL(encoded));
+        } catch (ParseException e) {
+            return REJECTED_HEADERS[Status.MALFORMED.ordinal()];
+        }
+        // b64=false (RFC 7797) мы не выпускаем — подпись считалась бы по другим байтам
+        if (!header.isBase64URLEncodePayload()) {
+            return REJECTED_HEADERS[Status.MALFORMED.ordinal()];
+        }
+
+        JwsVerifierRegistry.Entry entry = k.registry().find(header.getKeyID());
+        if (entry == null) {
+            return REJECTED_HEADERS[Status.UNKNOWN_KEY.ordinal()];
+        }
+        if (!entry.algorithm().equals(header.getAlgorithm())) {
+            return REJECTED_HEADERS[Status.UNEXPECTED_ALGORITHM.ordinal()];
+        }
+        return new KnownHeader(encoded, header, entry.verifier(), Status.VALID);
+    }
+
+    /**
+     * Copy-on-write добавление; гонка двух потоков лишь теряет одну запись (найдём её снова).
+     */
+    private void remember(Keys k, KnownHeader header) {
+        KnownHeader[] current = k.headers();
+        if (current.length >= MAX_KNOWN_HEADERS) {
+            return;
+        }
+        for (KnownHeader h : current) {
+            if (h.encoded().equals(header.encoded())) {
+                return;
+            }
+        }
+        KnownHeader[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = header;
+        if (keys == k) {
+            keys = new Keys(k.keyVersion(), k.registry(), next);
+        }
+    }
+
+    /**
+     * base64url без padding из src[from, to) в dst.
+     *
+     * @return число байт или -1, если вход некорректен
+     */
+    private static int decodeBase64Url(byte[] src, int from, int to, byte[] dst) {
+        if ((to - from) % 4 == 1) {
+            return -1;
+        }
+        int out = 0;
+        int i = from;
+        while (to - i >= 4) {
+            int a = sextet(src[i]);
+            int b = sextet(src[i + 1]);
+            int c = sextet(src[i + 2]);
+            int d = sextet(src[i + 3]);
+            if ((a | b | c | d) < 0) {
+                return -1;
+            }
+            int v = a << 18 | b << 12 | c << 6 | d;
+            dst[out++] = (byte) (v >> 16);
+            dst[out++] = (byte) (v >> 8);
+            dst[out++] = (byte) v;
+            i += 4;
+        }
+        int rem = to - i;
+        if (rem >= 2) {
+            int a = sextet(src[i]);
+            int b = sextet(src[i + 1]);
+            int c = rem == 3 ? sextet(src[i + 2]) : 0;
+            if ((a | b | c) < 0) {
+                return -1;
+            }
+            int v = a << 18 | b << 12 | c << 6;
+            dst[out++] = (byte) (v >> 16);
+            if (rem == 3) {
+                dst[out++] = (byte) (v >> 8);
+            }
+        }
+        return out;
+    }
+
+    /** 6 бит символа base64url или -1, если символ чужой. */
+    private static int sextet(byte b) {
+        return b < 0 ? -1 : BASE64URL[b];
+    }
+}
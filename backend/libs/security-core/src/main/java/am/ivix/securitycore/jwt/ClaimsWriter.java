@@ -0,0 +1,182 @@
+package am.ivix.securitycore.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Пишет JSON клеймов прямо в переиспользуемый byte-буфер и собирает signing input
+ * "base64url(header).base64url(payload)".
+ *
+ * - Раскладка клеймов фиксирована, её задаёт {@link JwtTokenCreator}
+ * - Строки экранируются по RFC 8259, не-ASCII пишется как UTF-8
+ * - Результат читают и Nimbus (JwtTokenValidator), и AccessTokenVerifier
+ *
+ * Не потокобезопасен: один экземпляр на поток.
+ */
+final class ClaimsWriter {
+
+    private static final byte[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buf = new byte[512];
+    private int length;
+
+    ClaimsWriter reset() {
+        length = 0;
+        return this;
+    }
+
+    /** Готовый фрагмент (предвычисленные куски раскладки). */
+    ClaimsWriter raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    ClaimsWriter raw(char c) {
+        ensure(1);
+        buf[length++] = (byte) c;
+        return this;
+    }
+
+    /** "name":"value" */
+    ClaimsWriter string(String name, String value) {
+        name(name);
+        return quoted(value);
+    }
+
+    /** "name":123 */
+    ClaimsWriter number(String name, long value) {
+        name(name);
+        String digits = Long.toString(value);
+        ensure(digits.length());
+        for (int i = 0; i < digits.length(); i++) {
+            buf[length++] = (byte) digits.charAt(i);
+        }
+        return this;
+    }
+
+    /** "name":["a","b"] */
+    ClaimsWriter stringArray(String name, List<String> values) {
+        name(name);
+        raw('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                raw(',');
+            }
+            quoted(values.get(i));
+        }
+        return raw(']');
+    }
+
+    /**
+     * header + '.' + base64url(payload) — массив ровно нужной длины (его целиком подписывает JWSSigner).
+     *
+     * @param encodedHeader уже закодированный заголовок (ASCII)
+     */
+    byte[] signingInput(byte[] encodedHeader) {
+        int encodedLength = (length * 4 + 2) / 3;
+        byte[] out = new byte[encodedHeader.length + 1 + encodedLength];
+        System.arraycopy(encodedHeader, 0, out, 0, encodedHeader.length);
+        out[encodedHeader.length] = '.';
+        encodeBase64Url(buf, length, out, encodedHeader.length + 1);
+        return out;
+    }
+
+    /**
+     * Кусок раскладки, который не меняется между токенами (iss, aud, typ):
+     * пишем один раз в отдельный writer и забираем байты.
+     */
+    static byte[] fragment(String name, String value) {
+        return new ClaimsWriter().string(name, value).raw(',').toByteArray();
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, length);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void name(String name) {
+        quoted(name);
+        raw(':');
+    }
+
+    private ClaimsWriter quoted(String value) {
+        // худший случай: каждый символ → \\uXXXX
+        ensure(value.length() * 6 + 2);
+        buf[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buf[length++] = '\\';
+                buf[length++] = (byte) c;
+            } else if (c < 0x20) {
+                buf[length++] = '\\';
+                buf[length++] = 'u';
+                buf[length++] = '0';
+                buf[length++] = '0';
+                buf[length++] = HEX[c >> 4];
+                buf[length++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                buf[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[length++] = (byte) (0xC0 | (c >> 6));
+                buf[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buf[length++] = (byte) (0xF0 | (cp >> 18));
+                buf[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // одиночный surrogate — как String.getBytes(UTF_8): '?'
+                buf[length++] = '?';
+            } else {
+                buf[length++] = (byte) (0xE0 | (c >> 12));
+                buf[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[length++] = '"';
+        return this;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+        }
+    }
+
+    /** base64url без padding. */
+    private static void encodeBase64Url(byte[] src, int srcLength, byte[] dst, int offset) {
+        int out = offset;
+        int i = 0;
+        while (srcLength - i >= 3) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[out++] = BASE64URL[v >>> 18];
+            dst[out++] = BASE64URL[(v >>> 12) & 0x3F];
+            dst[out++] = BASE64URL[(v >>> 6) & 0x3F];
+            dst[out++] = BASE64URL[v & 0x3F];
+            i += 3;
+        }
+        int rem = srcLength - i;
+        if (rem == 1) {
+            int v = (src[i] & 0xFF) << 16;
+            dst[out++] = BASE64URL[v >>> 18];
+            dst[out] = BASE64URL[(v >>> 12) & 0x3F];
+        } else if (rem == 2) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[out++] = BASE64URL[v >>> 18];
+            dst[out++] = BASE64URL[(v >>> 12) & 0x3F];
+            dst[out] = BASE64URL[(v >>> 6) & 0x3F];
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package am.ivix.securitycore.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Минимальный JSON-сканер payload'а access-токена.
+ *
+ * - Читает только фиксированный набор клеймов, остальные пропускает
+ * - Роли — массивом "roles" или маской "rl" (компактный профиль, см. {@link RoleBitmask})
+ * - iss / aud / typ сравниваются с ожидаемыми значениями прямо по байтам, без String
+ * - Никаких Map и исключений: некорректный JSON → read() == false
+ *
+ * Не потокобезопасен: один экземпляр на поток (ThreadLocal в {@link AccessTokenVerifier}).
+ */
+final class CompactClaimsReader {
+
+    private static final int UNKNOWN = 0;
+    private static final int ISS = 1;
+    private static final int SUB = 2;
+    private static final int AUD = 3;
+    private static final int EXP = 4;
+    private static final int NBF = 5;
+    private static final int IAT = 6;
+    private static final int JTI = 7;
+    private static final int TYP = 8;
+    private static final int EMAIL = 9;
+    private static final int ROLES = 10;
+    private static final int ROLE_MASK = 11;
+
+    private static final byte[] ACCESS = "access".getBytes(StandardCharsets.US_ASCII);
+
+    private final String issuer;
+    private final byte[] issuerBytes;
+    private final String audience;
+    private final byte[] audienceBytes;
+
+    private byte[] buf = new byte[1024];
+    private int pos;
+    private int end;
+
+    /** Последняя прочитанная строка: [strStart, strEnd) без кавычек. */
+    private int strStart;
+    private int strEnd;
+    private boolean strEscaped;
+
+    // --- результат последнего read() ---
+    String subject;
+    String email;
+    String jti;
+    final ArrayList<String> roles = new ArrayList<>(8);
+    boolean rolesPresent;
+    /** "rl" компактного профиля; -1 — нет. */
+    long roleMask;
+    long issuedAt;
+    long notBefore;
+    long expiresAt;
+    boolean expPresent;
+    boolean issuerMatches;
+    boolean audienceMatches;
+    boolean accessType;
+
+    CompactClaimsReader(String issuer, String audience) {
+        this.issuer = issuer;
+        this.issuerBytes = issuer.getBytes(StandardCharsets.UTF_8);
+        this.audience = audience;
+        this.audienceBytes = audience.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Буфер под декодированный payload; растёт по необходимости и переиспользуется.
+     */
+    byte[] buffer(int capacity) {
+        if (buf.length < capacity) {
+            buf = new byte[capacity];
+        }
+        return buf;
+    }
+
+    /**
+     * Разобрать первые length байт буфера.
+     *
+     * @return false, если это не JSON-объект или типы известных клеймов не те
+     */
+    boolean read(int length) {
+        reset();
+        pos = 0;
+        end = length;
+
+        skipWs();
+        if (!consume('{')) {
+            return false;
+        }
+        skipWs();
+        if (peek() == '}') {
+            pos++;
+            return atEnd();
+        }
+
+        while (true) {
+            skipWs();
+            if (!readString()) {
+                return false;
+            }
+            int field = strEscaped ? UNKNOWN : field(strStart, strEnd);
+
+            skipWs();
+            if (!consume(':')) {
+                return false;
+            }
+            skipWs();
+            if (!readValue(field)) {
+                return false;
+            }
+
+            skipWs();
+            int c = next();
+            if (c == ',') {
+                continue;
+            }
+            if (c == '}') {
+                return atEnd();
+            }
+            return false;
+        }
+    }
+
+    // ------------------------------
+    //  Values
+    // ------------------------------
+
+    private boolean readValue(int field) {
+        switch (field) {
+            case ISS -> {
+                if (!readString()) {
+                    return false;
+                }
+                issuerMatches = stringEquals(issuerBytes, issuer);
+            }
+            case TYP -> {
+                if (!readString()) {
+                    return false;
+                }
+                accessType = stringEquals(ACCESS, "access");
+            }
+            case AUD -> {
+                // aud — строка или массив строк
+                if (peek() == '[') {
+                    return readStringArray(AUD);
+                }
+                if (!readString()) {
+                    return false;
+                }
+                audienceMatches = stringEquals(audienceBytes, audience);
+            }
+            case SUB, JTI, EMAIL -> {
+                if (peek() != '"') {
+                    return skipValue();
+                }
+                if (!readString()) {
+                    return false;
+                }
+                String value = decodeString();
+                if (field == SUB) {
+                    subject = value;
+                } else if (field == JTI) {
+                    jti = value;
+                } else {
+                    email = value;
+                }
+            }
+            case ROLES -> {
+                if (peek() != '[') {
+                    return skipValue();
+                }
+                rolesPresent = true;
+                return readStringArray(ROLES);
+            }
+            case EXP, NBF, IAT, ROLE_MASK -> {
+                long value = readLong();
+                if (value == Long.MIN_VALUE) {
+                    return false;
+                }
+                if (field == ROLE_MASK) {
+                    if (value < 0) {
+                        return false;
+                    }
+                    roleMask = value;
+                } else if (field == EXP) {
+                    expiresAt = value;
+                    expPresent = true;
+                } else if (field == NBF) {
+                    notBefore = value;
+                } else {
+                    issuedAt = value;
+                }
+            }
+            default -> {
+                return skipValue();
+            }
+        }
+        return true;
+    }
+
+    private boolean readStringArray(int field) {
+        if (!consume('[')) {
+            return false;
+        }
+        skipWs();
+        if (peek() == ']') {
+            pos++;
+            return true;
+        }
+        while (true) {
+            skipWs();
+            if (!readString()) {
+                return false;
+            }
+            if (field == AUD) {
+                audienceMatches |= stringEquals(audienceBytes, audience);
+            } else {
+                roles.add(decodeString());
+            }
+            skipWs();
+            int c = next();
+            if (c == ',') {
+                continue;
+            }
+            return c == ']';
+        }
+    }
+
+    /**
+     * Целое число (NumericDate). Дробную часть отбрасываем, экспоненту не принимаем.
+     *
+     * @return значение или Long.MIN_VALUE, если это не число
+     */
+    private long readLong() {
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            if (pos - start >= 18) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (buf[pos] - '0');
+            pos++;
+        }
+        if (pos == start) {
+            return Long.MIN_VALUE;
+        }
+        if (peek() == '.') {
+            pos++;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                pos++;
+            }
+        }
+        int c = peek();
+        if (c == 'e' || c == 'E') {
+            return Long.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Строка в кавычках: запоминаем границы, escape-последовательности не раскрываем.
+     */
+    private boolean readString() {
+        if (!consume('"')) {
+            return false;
+        }
+        strStart = pos;
+        strEscaped = false;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                strEnd = pos;
+                pos++;
+                return true;
+            }
+            if (b == '\\') {
+                strEscaped = true;
+                pos += 2;
+            } else {
+                pos++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Любое значение, которое нам не нужно: строка, число, literal, вложенные объекты / массивы.
+     */
+    private boolean skipValue() {
+        int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    if (!readString()) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        pos++;
+                        return true;
+                    }
+                }
+                pos++;
+            }
+            return false;
+        }
+
+        int start = pos;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == ',' || b == '}' || b == ']' || isWs(b)) {
+                break;
+            }
+            pos++;
+        }
+        return pos > start;
+    }
+
+    // ------------------------------
+    //  Strings
+    // ------------------------------
+
+    private boolean stringEquals(byte[] expectedBytes, String expected) {
+        if (strEscaped) {
+            return expected.equals(decodeString());
+        }
+        int len = strEnd - strStart;
+        if (len != expectedBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (buf[strStart + i] != expectedBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decodeString() {
+        if (!strEscaped) {
+            return new String(buf, strStart, strEnd - strStart, StandardCharsets.UTF_8);
+        }
+
+        StringBuilder sb = new StringBuilder(strEnd - strStart);
+        int run = strStart;
+        int i = strStart;
+        while (i < strEnd) {
+            if (buf[i] != '\\') {
+                i++;
+                continue;
+            }
+            sb.append(new String(buf, run, i - run, StandardCharsets.UTF_8));
+            byte e = i + 1 < strEnd ? buf[i + 1] : 0;
+            switch (e) {
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 6 <= strEnd) {
+                        sb.append((char) hex4(i + 2));
+                        i += 4;
+                    }
+                }
+                default -> sb.append((char) e);
+            }
+            i += 2;
+            run = i;
+        }
+        sb.append(new String(buf, run, Math.max(0, strEnd - run), StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    private int hex4(int from) {
+        int value = 0;
+        for (int i = from; i < from + 4; i++) {
+            int d = Character.digit(buf[i], 16);
+            if (d < 0) {
+                return 0xFFFD;
+            }
+            value = (value << 4) | d;
+        }
+        return value;
+    }
+
+    /**
+     * Имя клейма → id поля. Сравниваем по длине и байтам, без String.
+     */
+    private int field(int start, int stop) {
+        int len = stop - start;
+        if (len == 2) {
+            return buf[start] == 'r' && buf[start + 1] == 'l' ? ROLE_MASK : UNKNOWN;
+        }
+        if (len == 3) {
+            byte a = buf[start];
+            byte b = buf[start + 1];
+            byte c = buf[start + 2];
+            if (a == 'i' && b == 's' && c == 's') return ISS;
+            if (a == 's' && b == 'u' && c == 'b') return SUB;
+            if (a == 'a' && b == 'u' && c == 'd') return AUD;
+            if (a == 'e' && b == 'x' && c == 'p') return EXP;
+            if (a == 'n' && b == 'b' && c == 'f') return NBF;
+            if (a == 'i' && b == 'a' && c == 't') return IAT;
+            if (a == 'j' && b == 't' && c == 'i') return JTI;
+            if (a == 't' && b == 'y' && c == 'p') return TYP;
+            return UNKNOWN;
+        }
+        if (len == 5) {
+            if (regionIs(start, "email")) return EMAIL;
+            if (regionIs(start, "roles")) return ROLES;
+        }
+        return UNKNOWN;
+    }
+
+    private boolean regionIs(int start, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buf[start + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ------------------------------
+    //  Cursor
+    // ------------------------------
+
+    private void reset() {
+        subject = null;
+        email = null;
+        jti = null;
+        roles.clear();
+        rolesPresent = false;
+        roleMask = -1;
+        issuedAt = 0;
+        notBefore = 0;
+        expiresAt = 0;
+        expPresent = false;
+        issuerMatches = false;
+        audienceMatches = false;
+        accessType = false;
+    }
+
+    private int peek() {
+        return pos < end ? buf[pos] : -1;
+    }
+
+    private int next() {
+        return pos < end ? buf[pos++] : -1;
+    }
+
+    private boolean consume(char c) {
+        if (pos < end && buf[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWs() {
+        while (pos < end && isWs(buf[pos])) {
+            pos++;
+        }
+    }
+
+    private boolean atEnd() {
+        skipWs();
+        return pos == end;
+    }
+
+    private static boolean isWs(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+}
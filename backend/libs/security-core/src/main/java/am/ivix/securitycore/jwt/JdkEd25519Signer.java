@@ -0,0 +1,56 @@
+package am.ivix.securitycore.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.interfaces.EdECPrivateKey;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) signer на встроенном в JDK провайдере.
+ *
+ * Nimbus-овский Ed25519Signer требует Tink и OctetKeyPair,
+ * а JDK 15+ умеет Ed25519 сам — обычный PKCS#8 ключ из PEM подходит как есть.
+ */
+final class JdkEd25519Signer implements JWSSigner {
+
+    private final EdECPrivateKey privateKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    JdkEd25519Signer(EdECPrivateKey privateKey) {
+        this.privateKey = Objects.requireNonNull(privateKey, "privateKey must not be null");
+    }
+
+    @Override
+    public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm: " + header.getAlgorithm());
+        }
+        try {
+            // Signature не потокобезопасен — берём новый на каждую подпись
+            Signature sig = Signature.getInstance("Ed25519");
+            sig.initSign(privateKey);
+            sig.update(signingInput);
+            return Base64URL.encode(sig.sign());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Ed25519 signing failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.EdDSA);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
@@ -0,0 +1,52 @@
+package am.ivix.securitycore.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.interfaces.EdECPublicKey;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) verifier на встроенном в JDK провайдере. Пара к {@link JdkEd25519Signer}.
+ */
+final class JdkEd25519Verifier implements JWSVerifier {
+
+    private final EdECPublicKey publicKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    JdkEd25519Verifier(EdECPublicKey publicKey) {
+        this.publicKey = Objects.requireNonNull(publicKey, "publicKey must not be null");
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            return false;
+        }
+        try {
+            Signature sig = Signature.getInstance("Ed25519");
+            sig.initVerify(publicKey);
+            sig.update(signingInput);
+            return sig.verify(signature.decode());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Ed25519 verification failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.EdDSA);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
@@ -0,0 +1,81 @@
+package am.ivix.securitycore.jwt;
+
+import am.ivix.securitycore.keys.KeyProvider;
+import am.ivix.securitycore.keys.VerificationKey;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Публичный JWKS (RFC 7517) из ключей KeyProvider'а.
+ *
+ * - Только публичные ключи: HMAC-секреты в JWKS не попадают никогда
+ * - Каждый ключ с kid / alg / use=sig — downstream проверяет токены сам, без вызова к нам
+ */
+public final class JwkSetExporter {
+
+    /** X.509 SubjectPublicKeyInfo для Ed25519: 12 байт префикса + 32 байта ключа. */
+    private static final int ED25519_KEY_BYTES = 32;
+
+    private JwkSetExporter() {
+    }
+
+    /**
+     * JSON вида {"keys":[...]} для /.well-known/jwks.json.
+     */
+    public static String toPublicJson(KeyProvider keyProvider) {
+        return toPublicJson(keyProvider.getVerificationKeys());
+    }
+
+    public static String toPublicJson(List<VerificationKey> keys) {
+        List<JWK> jwks = new ArrayList<>();
+        for (VerificationKey k : keys) {
+            JWK jwk = toJwk(k);
+            if (jwk != null) {
+                jwks.add(jwk);
+            }
+        }
+        return JSONObjectUtils.toJSONString(new JWKSet(jwks).toJSONObject(true));
+    }
+
+    private static JWK toJwk(VerificationKey k) {
+        return switch (k.algorithm()) {
+            case RS256 -> new RSAKey.Builder((RSAPublicKey) k.key())
+                    .keyID(k.keyId())
+                    .algorithm(JwsAlgorithms.jwsAlgorithm(k.algorithm()))
+                    .keyUse(KeyUse.SIGNATURE)
+                    .build();
+            case ES256 -> {
+                ECPublicKey ec = (ECPublicKey) k.key();
+                yield new ECKey.Builder(Curve.forECParameterSpec(ec.getParams()), ec)
+                        .keyID(k.keyId())
+                        .algorithm(JwsAlgorithms.jwsAlgorithm(k.algorithm()))
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build();
+            }
+            case EdDSA -> {
+                byte[] spki = k.key().getEncoded();
+                byte[] x = Arrays.copyOfRange(spki, spki.length - ED25519_KEY_BYTES, spki.length);
+                yield new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                        .keyID(k.keyId())
+                        .algorithm(JwsAlgorithms.jwsAlgorithm(k.algorithm()))
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build();
+            }
+            // симметричный секрет не публикуем
+            case HS256 -> null;
+        };
+    }
+}
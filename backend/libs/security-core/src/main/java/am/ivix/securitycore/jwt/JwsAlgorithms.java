@@ -0,0 +1,91 @@
+package am.ivix.securitycore.jwt;
+
+import am.ivix.securitycore.keys.KeyProvider;
+import am.ivix.securitycore.keys.SigningAlgorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPrivateKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * Сопоставление {@link SigningAlgorithm} → Nimbus signer / verifier.
+ *
+ * Все signer'ы и verifier'ы потокобезопасны — создаём один раз на ключ.
+ */
+final class JwsAlgorithms {
+
+    private JwsAlgorithms() {
+    }
+
+    static JWSAlgorithm jwsAlgorithm(SigningAlgorithm algorithm) {
+        return switch (algorithm) {
+            case RS256 -> JWSAlgorithm.RS256;
+            case ES256 -> JWSAlgorithm.ES256;
+            case EdDSA -> JWSAlgorithm.EdDSA;
+            case HS256 -> JWSAlgorithm.HS256;
+        };
+    }
+
+    /**
+     * Signer для текущего ключа провайдера.
+     */
+    static JWSSigner signer(KeyProvider keyProvider) {
+        SigningAlgorithm algorithm = keyProvider.getAlgorithm();
+        try {
+            if (algorithm == SigningAlgorithm.HS256) {
+                return new MACSigner(keyProvider.getSecretKey());
+            }
+
+            PrivateKey pk = keyProvider.getPrivateKey();
+            return switch (algorithm) {
+                case RS256 -> new RSASSASigner(requireKey(pk, RSAPrivateKey.class, algorithm));
+                case ES256 -> new ECDSASigner(requireKey(pk, ECPrivateKey.class, algorithm));
+                case EdDSA -> new JdkEd25519Signer(requireKey(pk, EdECPrivateKey.class, algorithm));
+                case HS256 -> throw new IllegalStateException("unreachable");
+            };
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Cannot create " + algorithm + " signer", e);
+        }
+    }
+
+    /**
+     * Verifier для публичного ключа (или HMAC-секрета).
+     */
+    static JWSVerifier verifier(SigningAlgorithm algorithm, Key key) {
+        try {
+            return switch (algorithm) {
+                case RS256 -> new RSASSAVerifier(requireKey(key, RSAPublicKey.class, algorithm));
+                case ES256 -> new ECDSAVerifier(requireKey(key, ECPublicKey.class, algorithm));
+                case EdDSA -> new JdkEd25519Verifier(requireKey(key, EdECPublicKey.class, algorithm));
+                case HS256 -> new MACVerifier(requireKey(key, SecretKey.class, algorithm));
+            };
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Cannot create " + algorithm + " verifier", e);
+        }
+    }
+
+    private static <K> K requireKey(Object key, Class<K> type, SigningAlgorithm algorithm) {
+        if (!type.isInstance(key)) {
+            throw new IllegalArgumentException(
+                    "KeyProvider must return " + type.getSimpleName() + " for " + algorithm
+            );
+        }
+        return type.cast(key);
+    }
+}
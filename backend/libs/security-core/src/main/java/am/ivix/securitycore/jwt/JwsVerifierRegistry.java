@@ -0,0 +1,52 @@
+package am.ivix.securitycore.jwt;
+
+import am.ivix.securitycore.keys.VerificationKey;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Предвычисленная карта kid → (alg, verifier).
+ *
+ * Строится один раз из {@link am.ivix.securitycore.keys.KeyProvider#getVerificationKeys()},
+ * поиск на горячем пути — один HashMap.get.
+ */
+final class JwsVerifierRegistry {
+
+    record Entry(JWSAlgorithm algorithm, JWSVerifier verifier) {}
+
+    private final Map<String, Entry> byKeyId;
+
+    /** Для старых токенов без kid — только если ключ ровно один. */
+    private final Entry single;
+
+    JwsVerifierRegistry(List<VerificationKey> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one verification key is required");
+        }
+
+        Map<String, Entry> map = new HashMap<>();
+        for (VerificationKey k : keys) {
+            Entry e = new Entry(
+                    JwsAlgorithms.jwsAlgorithm(k.algorithm()),
+                    JwsAlgorithms.verifier(k.algorithm(), k.key())
+            );
+            if (map.put(k.keyId(), e) != null) {
+                throw new IllegalArgumentException("Duplicate key id: " + k.keyId());
+            }
+        }
+
+        this.byKeyId = Map.copyOf(map);
+        this.single = map.size() == 1 ? map.values().iterator().next() : null;
+    }
+
+    /**
+     * @return verifier для kid или null, если такого ключа нет
+     */
+    Entry find(String keyId) {
+        return keyId == null ? single : byKeyId.get(keyId);
+    }
+}
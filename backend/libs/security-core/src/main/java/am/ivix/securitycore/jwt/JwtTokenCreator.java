@@ -2,18 +2,15 @@ package am.ivix.securitycore.jwt;
 
 import am.ivix.securitycore.keys.KeyProvider;
 import com.nimbusds.jose.JOSEObjectType;
-import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 
-import java.security.PrivateKey;
-import java.security.interfaces.RSAPrivateKey;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -21,8 +18,12 @@ import java.util.UUID;
 /**
  * Отвечает ТОЛЬКО за создание JWT.
  *
- * - Подписывает RS256 с приватным RSA-ключом
+ * - Подписывает алгоритмом KeyProvider'а (RS256 по умолчанию, ES256 / EdDSA / HS256)
  * - Генерирует jti, exp, nbf, iat
+ * - Без JWTClaimsSet / SignedJWT: заголовок кодируется один раз на версию ключей,
+ *   клеймы пишутся фиксированной раскладкой в переиспользуемый буфер (ClaimsWriter)
+ * - Компактный профиль access-токена (опционально, {@link RoleBitmask}):
+ *   роли маской "rl", без email и nbf, jti — 16 случайных байт (22 символа base64url)
  * - Не знает ни про Redis, ни про Spring
  * - Возвращает IssuedToken (token + jti + expiresAt)
  */
@@ -57,16 +58,33 @@ public final class JwtTokenCreator {
         }
     }
 
-    private final RSAPrivateKey privateKey;
+    /** Заголовок (и его base64url) + signer для конкретной версии ключей. */
+    private record Signing(long keyVersion, JWSHeader header, byte[] encodedHeader, JWSSigner signer) {}
+
+    private static final ThreadLocal<ClaimsWriter> WRITERS = ThreadLocal.withInitial(ClaimsWriter::new);
+
+    private static final SecureRandom JTI_RANDOM = new SecureRandom();
+    private static final Base64.Encoder JTI_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyProvider keyProvider;
     private final String issuer;
     private final String audience;
     private final int accessTtlMinutes;
     private final int refreshTtlDays;
-    private final JWSHeader header;
-    private final JWSSigner signer;
+
+    /** null — обычный профиль access-токена. */
+    private final RoleBitmask compactAccessRoles;
+
+    /** Неизменная часть раскладки: {"iss":"…","aud":"…", */
+    private final byte[] claimsPrefix;
+    private final byte[] accessTyp;
+    private final byte[] refreshTyp;
+
+    /** Пересобирается, когда меняется keyProvider.getKeyVersion() (hot reload). */
+    private volatile Signing signing;
 
     /**
-     * @param keyProvider      поставщик ключей (RSA)
+     * @param keyProvider      поставщик ключей и алгоритма подписи
      * @param issuer           iss
      * @param audience         aud
      * @param accessTtlMinutes TTL access-токена в минутах
@@ -78,29 +96,48 @@ public final class JwtTokenCreator {
             String audience,
             int accessTtlMinutes,
             int refreshTtlDays
+    ) {
+        this(keyProvider, issuer, audience, accessTtlMinutes, refreshTtlDays, null);
+    }
+
+    /**
+     * @param compactAccessRoles не null — access-токены выпускаются в компактном профиле
+     *                           (refresh не меняется: ему нужен email)
+     */
+    public JwtTokenCreator(
+            KeyProvider keyProvider,
+            String issuer,
+            String audience,
+            int accessTtlMinutes,
+            int refreshTtlDays,
+            RoleBitmask compactAccessRoles
     ) {
         Objects.requireNonNull(keyProvider, "keyProvider must not be null");
         Objects.requireNonNull(issuer, "issuer must not be null");
         Objects.requireNonNull(audience, "audience must not be null");
 
-        PrivateKey pk = keyProvider.getPrivateKey();
-        if (!(pk instanceof RSAPrivateKey rsaPrivateKey)) {
-            throw new IllegalArgumentException("KeyProvider must return RSAPrivateKey for JWT signing");
-        }
-
-        this.privateKey = rsaPrivateKey;
+        this.keyProvider = keyProvider;
         this.issuer = issuer;
         this.audience = audience;
         this.accessTtlMinutes = accessTtlMinutes;
         this.refreshTtlDays = refreshTtlDays;
+        this.compactAccessRoles = compactAccessRoles;
 
-        this.header = new JWSHeader.Builder(JWSAlgorithm.RS256)
-                .type(JOSEObjectType.JWT)
-                // На проде здесь можно ставить kid, если ключи ротуются
-                .keyID("ivix-key-1")
-                .build();
+        this.claimsPrefix = new ClaimsWriter().raw('{')
+                .raw(ClaimsWriter.fragment("iss", issuer))
+                .raw(ClaimsWriter.fragment("aud", audience))
+                .toByteArray();
+        this.accessTyp = ClaimsWriter.fragment("typ", "access");
+        this.refreshTyp = ClaimsWriter.fragment("typ", "refresh");
+
+        this.signing = buildSigning();
+    }
 
-        this.signer = new RSASSASigner(this.privateKey);
+    /**
+     * Срок жизни refresh — и для непрозрачных refresh-токенов, которые выпускает не creator.
+     */
+    public Duration refreshTtl() {
+        return Duration.ofDays(refreshTtlDays);
     }
 
     /**
@@ -111,7 +148,7 @@ public final class JwtTokenCreator {
             String email,
             List<String> roles
     ) {
-        return createToken(userId, email, roles, TokenKind.ACCESS, accessTtlMinutes, ChronoUnit.MINUTES);
+        return createToken(userId, email, roles, null, TokenKind.ACCESS, accessTtlMinutes, ChronoUnit.MINUTES);
     }
 
     /**
@@ -121,9 +158,23 @@ public final class JwtTokenCreator {
             UUID userId,
             String email,
             List<String> roles
+    ) {
+        return createRefreshToken(userId, email, roles, null);
+    }
+
+    /**
+     * Создаёт refresh-токен, принадлежащий семейству (сессии) familyId — claim "fam".
+     *
+     * @param familyId id семейства из RefreshFamilyStore; null — без claim
+     */
+    public IssuedToken createRefreshToken(
+            UUID userId,
+            String email,
+            List<String> roles,
+            String familyId
     ) {
         int ttlMinutes = Math.toIntExact((long) refreshTtlDays * 24L * 60L);
-        return createToken(userId, email, roles, TokenKind.REFRESH, ttlMinutes, ChronoUnit.MINUTES);
+        return createToken(userId, email, roles, familyId, TokenKind.REFRESH, ttlMinutes, ChronoUnit.MINUTES);
     }
 
     /**
@@ -133,6 +184,7 @@ public final class JwtTokenCreator {
             UUID userId,
             String email,
             List<String> roles,
+            String familyId,
             TokenKind kind,
             int ttlAmount,
             ChronoUnit ttlUnit
@@ -142,31 +194,105 @@ public final class JwtTokenCreator {
         Objects.requireNonNull(roles, "roles must not be null");
         Objects.requireNonNull(kind, "kind must not be null");
 
+        boolean compact = kind == TokenKind.ACCESS && compactAccessRoles != null;
+        // до try: роль не из RoleBitmask — IllegalArgumentException вызывающему, а не ошибка подписи
+        long compactRoles = compact ? compactAccessRoles.encode(roles) : 0;
+
         try {
             Instant now = Instant.now();
             Instant exp = now.plus(ttlAmount, ttlUnit);
-            String jti = UUID.randomUUID().toString();
-
-            JWTClaimsSet claims = new JWTClaimsSet.Builder()
-                    .subject(userId.toString())
-                    .issuer(issuer)
-                    .audience(audience)
-                    .issueTime(Date.from(now))
-                    .notBeforeTime(Date.from(now))
-                    .expirationTime(Date.from(exp))
-                    .jwtID(jti)
-                    .claim("typ", kind == TokenKind.ACCESS ? "access" : "refresh")
-                    .claim("email", email)
-                    .claim("roles", roles)
-                    .build();
-
-            SignedJWT signed = new SignedJWT(header, claims);
-            signed.sign(signer);
-
-            String token = signed.serialize();
-            return new IssuedToken(token, jti, exp, kind);
+            String jti = compact ? compactJti() : UUID.randomUUID().toString();
+
+            // NumericDate — целые секунды, как у Nimbus
+            long iat = now.getEpochSecond();
+
+            ClaimsWriter claims = WRITERS.get().reset();
+            if (compact) {
+                // Компактная раскладка: iss, aud, typ, sub, iat, exp, jti, rl
+                claims.raw(claimsPrefix)
+                        .raw(accessTyp)
+                        .string("sub", userId.toString()).raw(',')
+                        .number("iat", iat).raw(',')
+                        .number("exp", exp.getEpochSecond()).raw(',')
+                        .string("jti", jti).raw(',')
+                        .number("rl", compactRoles)
+                        .raw('}');
+                return sign(claims, jti, exp, kind);
+            }
+
+            // Раскладка фиксирована: iss, aud, typ, sub, iat, nbf, exp, jti, [fam], email, roles
+            claims.raw(claimsPrefix)
+                    .raw(kind == TokenKind.ACCESS ? accessTyp : refreshTyp)
+                    .string("sub", userId.toString()).raw(',')
+                    .number("iat", iat).raw(',')
+                    .number("nbf", iat).raw(',')
+                    .number("exp", exp.getEpochSecond()).raw(',')
+                    .string("jti", jti).raw(',');
+            if (familyId != null) {
+                claims.string("fam", familyId).raw(',');
+            }
+            claims.string("email", email).raw(',')
+                    .stringArray("roles", roles)
+                    .raw('}');
+
+            return sign(claims, jti, exp, kind);
         } catch (Exception e) {
             throw new IllegalStateException("Failed to create " + kind + " JWT", e);
         }
     }
+
+    private IssuedToken sign(ClaimsWriter claims, String jti, Instant exp, TokenKind kind) throws Exception {
+        Signing s = signing();
+        byte[] signingInput = claims.signingInput(s.encodedHeader());
+        String signature = s.signer().sign(s.header(), signingInput).toString();
+
+        String token = new String(signingInput, StandardCharsets.US_ASCII) + '.' + signature;
+        return new IssuedToken(token, jti, exp, kind);
+    }
+
+    /** 128 бит случайности, как у UUID v4, но 22 символа вместо 36. */
+    private static String compactJti() {
+        byte[] bytes = new byte[16];
+        JTI_RANDOM.nextBytes(bytes);
+        return JTI_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Текущий signer. Пока версия ключей та же — одно volatile-чтение.
+     * При смене версии пересобираем без блокировок: гонка двух потоков даёт
+     * лишь один лишний (дешёвый) signer.
+     */
+    private Signing signing() {
+        Signing s = signing;
+        if (s.keyVersion() != keyProvider.getKeyVersion()) {
+            s = buildSigning();
+            signing = s;
+        }
+        return s;
+    }
+
+    /**
+     * kid и приватный ключ читаются из провайдера порознь: если ключи подменили посередине,
+     * собираем заново — иначе токен ушёл бы с kid одного ключа и подписью другого.
+     */
+    private Signing buildSigning() {
+        while (true) {
+            long version = keyProvider.getKeyVersion();
+            Signing s = buildSigning(version);
+            if (keyProvider.getKeyVersion() == version) {
+                return s;
+            }
+        }
+    }
+
+    private Signing buildSigning(long version) {
+        JWSHeader header = new JWSHeader.Builder(JwsAlgorithms.jwsAlgorithm(keyProvider.getAlgorithm()))
+                .type(JOSEObjectType.JWT)
+                // kid активного ключа: валидатор по нему находит verifier при ротации
+                .keyID(keyProvider.getKeyId())
+                .build();
+
+        byte[] encodedHeader = header.toBase64URL().toString().getBytes(StandardCharsets.US_ASCII);
+        return new Signing(version, header, encodedHeader, JwsAlgorithms.signer(keyProvider));
+    }
 }
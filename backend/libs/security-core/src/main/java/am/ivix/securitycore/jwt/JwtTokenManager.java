@@ -2,7 +2,10 @@ package am.ivix.securitycore.jwt;
 
 import am.ivix.securitycore.jwt.JwtTokenCreator.IssuedToken;
 import am.ivix.securitycore.jwt.JwtTokenValidator.ValidationResult;
+import am.ivix.securitycore.store.RefreshFamilyStore;
+import am.ivix.securitycore.store.RefreshGrantStore;
 import am.ivix.securitycore.store.TokenJtiStore;
+import am.ivix.securitycore.store.UserRevocationStore;
 import com.nimbusds.jwt.JWTClaimsSet;
 
 import java.time.Instant;
@@ -12,38 +15,123 @@ import java.util.UUID;
 
 public final class JwtTokenManager {
 
-    public record TokensPair(String accessToken, String refreshToken) {
+    public record TokensPair(String accessToken, String refreshToken,
+                             Instant accessExpiresAt, Instant refreshExpiresAt) {
         public TokensPair {
             Objects.requireNonNull(accessToken, "accessToken must not be null");
             Objects.requireNonNull(refreshToken, "refreshToken must not be null");
+            Objects.requireNonNull(accessExpiresAt, "accessExpiresAt must not be null");
+            Objects.requireNonNull(refreshExpiresAt, "refreshExpiresAt must not be null");
         }
     }
 
     private final JwtTokenCreator creator;
     private final JwtTokenValidator validator;
     private final TokenJtiStore jtiStore;
+    private final RefreshFamilyStore families;
+    private final RefreshGrantStore grants;
+    private final UserRevocationStore revocations;
+    private final boolean opaqueRefresh;
 
     public JwtTokenManager(
             JwtTokenCreator creator,
             JwtTokenValidator validator,
             TokenJtiStore jtiStore
     ) {
+        this(creator, validator, jtiStore, null);
+    }
+
+    /**
+     * @param families семейства refresh-токенов (сессии); null — только whitelist по jti
+     */
+    public JwtTokenManager(
+            JwtTokenCreator creator,
+            JwtTokenValidator validator,
+            TokenJtiStore jtiStore,
+            RefreshFamilyStore families
+    ) {
+        this(creator, validator, jtiStore, families, null);
+    }
+
+    /**
+     * @param grants не null — refresh-токены непрозрачные (случайные 256 бит, в хранилище только хеш):
+     *               на login / refresh одна RSA-подпись вместо двух, refresh без разбора JWT.
+     *               Ранее выданные refresh-JWT продолжают обмениваться до истечения.
+     */
+    public JwtTokenManager(
+            JwtTokenCreator creator,
+            JwtTokenValidator validator,
+            TokenJtiStore jtiStore,
+            RefreshFamilyStore families,
+            RefreshGrantStore grants
+    ) {
+        this(creator, validator, jtiStore, families, grants, null, grants != null);
+    }
+
+    /**
+     * @param revocations   эпохи "выйти везде": refresh-JWT, выпущенный до эпохи, не обменивается; null — без проверки
+     * @param opaqueRefresh выдавать непрозрачные refresh (нужен grants); false — refresh-JWT.
+     *                      Обмен и logout определяют формат по самому токену, поэтому после
+     *                      переключения ранее выданные токены другого формата продолжают работать
+     */
+    public JwtTokenManager(
+            JwtTokenCreator creator,
+            JwtTokenValidator validator,
+            TokenJtiStore jtiStore,
+            RefreshFamilyStore families,
+            RefreshGrantStore grants,
+            UserRevocationStore revocations,
+            boolean opaqueRefresh
+    ) {
+        if (opaqueRefresh && grants == null) {
+            throw new IllegalArgumentException("opaqueRefresh requires a RefreshGrantStore");
+        }
         this.creator = Objects.requireNonNull(creator);
         this.validator = Objects.requireNonNull(validator);
         this.jtiStore = Objects.requireNonNull(jtiStore);
+        this.families = families;
+        this.grants = grants;
+        this.revocations = revocations;
+        this.opaqueRefresh = opaqueRefresh;
     }
 
     public TokensPair issueTokens(UUID userId, String email, List<String> roles) {
         IssuedToken access = creator.createAccessToken(userId, email, roles);
-        IssuedToken refresh = creator.createRefreshToken(userId, email, roles);
 
+        if (opaqueRefresh) {
+            String refreshToken = OpaqueRefreshTokens.generate();
+            String hash = OpaqueRefreshTokens.hash(refreshToken);
+            Instant expiresAt = Instant.now().plus(creator.refreshTtl());
+
+            String familyId = null;
+            if (families != null) {
+                familyId = UUID.randomUUID().toString();
+                // для непрозрачных токенов "jti" семейства — хеш токена
+                families.open(userId.toString(), familyId, hash, expiresAt);
+            }
+            grants.store(hash, new RefreshGrantStore.Grant(userId.toString(), familyId, email, roles, expiresAt));
+            return new TokensPair(access.token(), refreshToken, access.expiresAt(), expiresAt);
+        }
+
+        if (families != null) {
+            String familyId = UUID.randomUUID().toString();
+            IssuedToken refresh = creator.createRefreshToken(userId, email, roles, familyId);
+            families.open(userId.toString(), familyId, refresh.jti(), refresh.expiresAt());
+            return pair(access, refresh);
+        }
+
+        IssuedToken refresh = creator.createRefreshToken(userId, email, roles);
         jtiStore.whitelistRefresh(refresh.jti(), refresh.expiresAt());
 
-        return new TokensPair(access.token(), refresh.token());
+        return pair(access, refresh);
     }
 
     public TokensPair rotateRefresh(String refreshToken) {
 
+        if (grants != null && OpaqueRefreshTokens.isOpaque(refreshToken)) {
+            return rotateOpaque(refreshToken);
+        }
+
         ValidationResult vr =
                 validator.validate(refreshToken, JwtTokenValidator.TokenKind.REFRESH);
 
@@ -54,18 +142,20 @@ public final class JwtTokenManager {
         JWTClaimsSet claims = vr.claims;
         String jti = claims.getJWTID();
 
-        if (!jtiStore.isRefreshWhitelisted(jti)) {
-            throw new IllegalStateException("Refresh token not whitelisted or already used");
+        // выпущен до "выйти везде"
+        if (revocations != null && claims.getIssueTime() != null
+                && revocations.isRevoked(claims.getSubject(), claims.getIssueTime().toInstant().getEpochSecond())) {
+            throw new IllegalStateException("Refresh token revoked");
         }
 
-        jtiStore.removeRefresh(jti);
-
         UUID userId = UUID.fromString(claims.getSubject());
         String email;
         List<String> roles;
+        String familyId;
 
         try {
             email = claims.getStringClaim("email");
+            familyId = claims.getStringClaim("fam");
 
             @SuppressWarnings("unchecked")
             List<String> casted = (List<String>) claims.getClaim("roles");
@@ -75,7 +165,65 @@ public final class JwtTokenManager {
             throw new IllegalStateException("Refresh token missing required claims", e);
         }
 
-        return issueTokens(userId, email, roles);
+        // Сначала выпускаем новую пару, потом одним атомарным шагом
+        // расходуем старый jti и регистрируем новый
+        IssuedToken access = creator.createAccessToken(userId, email, roles);
+
+        if (families != null && familyId != null) {
+            IssuedToken refresh = creator.createRefreshToken(userId, email, roles, familyId);
+            switch (families.rotate(userId.toString(), familyId, jti, refresh.jti(), refresh.expiresAt())) {
+                case ROTATED -> {
+                    return pair(access, refresh);
+                }
+                case REUSED -> throw new IllegalStateException("Refresh token reuse detected, session revoked");
+                default -> throw new IllegalStateException("Refresh token session revoked or expired");
+            }
+        }
+
+        // токены без "fam" (выпущены до семейств) — старый whitelist по jti
+        IssuedToken refresh = creator.createRefreshToken(userId, email, roles);
+
+        if (!jtiStore.rotateRefresh(jti, refresh.jti(), refresh.expiresAt())) {
+            throw new IllegalStateException("Refresh token not whitelisted or already used");
+        }
+
+        return pair(access, refresh);
+    }
+
+    /**
+     * Непрозрачный refresh: поиск по хешу вместо разбора и проверки подписи.
+     */
+    private TokensPair rotateOpaque(String refreshToken) {
+        String oldHash = OpaqueRefreshTokens.hash(refreshToken);
+        String newToken = OpaqueRefreshTokens.generate();
+        String newHash = OpaqueRefreshTokens.hash(newToken);
+        Instant expiresAt = Instant.now().plus(creator.refreshTtl());
+
+        RefreshGrantStore.Redemption redemption = grants.rotate(oldHash, newHash, expiresAt);
+        RefreshGrantStore.Grant grant = redemption.grant();
+
+        if (redemption.outcome() == RefreshGrantStore.Outcome.REUSED) {
+            // уже обменянный токен предъявлен ещё раз — убиваем всю сессию
+            if (families != null && grant != null && grant.familyId() != null) {
+                families.revoke(grant.userId(), grant.familyId());
+            }
+            throw new IllegalStateException("Refresh token reuse detected, session revoked");
+        }
+        if (redemption.outcome() != RefreshGrantStore.Outcome.ROTATED) {
+            throw new IllegalStateException("Refresh token not found or expired");
+        }
+
+        if (families != null && grant.familyId() != null) {
+            RefreshFamilyStore.Rotation rotation =
+                    families.rotate(grant.userId(), grant.familyId(), oldHash, newHash, expiresAt);
+            if (rotation != RefreshFamilyStore.Rotation.ROTATED) {
+                grants.remove(newHash);
+                throw new IllegalStateException("Refresh token session revoked or expired");
+            }
+        }
+
+        IssuedToken access = creator.createAccessToken(UUID.fromString(grant.userId()), grant.email(), grant.roles());
+        return new TokensPair(access.token(), newToken, access.expiresAt(), expiresAt);
     }
 
     public void logout(String accessToken, String refreshToken) {
@@ -98,19 +246,54 @@ public final class JwtTokenManager {
             }
         }
 
-        if (refreshToken != null && !refreshToken.isBlank()) {
+        if (grants != null && OpaqueRefreshTokens.isOpaque(refreshToken)) {
+            String hash = OpaqueRefreshTokens.hash(refreshToken);
+            RefreshGrantStore.Grant grant = grants.find(hash);
+            grants.remove(hash);
+            if (families != null && grant != null && grant.familyId() != null) {
+                families.revoke(grant.userId(), grant.familyId());
+            }
+        } else if (refreshToken != null && !refreshToken.isBlank()) {
             ValidationResult refreshVr =
                     validator.validate(refreshToken, JwtTokenValidator.TokenKind.REFRESH);
 
             if (refreshVr.ok && refreshVr.claims != null) {
-                String jti = refreshVr.claims.getJWTID();
-                if (jti != null) {
-                    jtiStore.removeRefresh(jti);
+                JWTClaimsSet c = refreshVr.claims;
+                Object familyId = c.getClaim("fam");
+                if (families != null && familyId instanceof String fam) {
+                    families.revoke(c.getSubject(), fam);
+                } else if (c.getJWTID() != null) {
+                    jtiStore.removeRefresh(c.getJWTID());
                 }
             }
         }
     }
 
+    /**
+     * Активные сессии (семейства refresh) пользователя; без RefreshFamilyStore — пусто.
+     */
+    public List<RefreshFamilyStore.Session> sessions(UUID userId) {
+        return families == null ? List.of() : families.sessions(userId.toString());
+    }
+
+    /**
+     * Закрыть одну сессию: её refresh больше не обменяется.
+     */
+    public void revokeSession(UUID userId, String familyId) {
+        if (families != null) {
+            families.revoke(userId.toString(), familyId);
+        }
+    }
+
+    /**
+     * Закрыть все сессии пользователя одной командой.
+     */
+    public void revokeAllSessions(UUID userId) {
+        if (families != null) {
+            families.revokeAll(userId.toString());
+        }
+    }
+
     public boolean isAccessRevoked(String accessToken) {
 
         ValidationResult vr =
@@ -123,5 +306,8 @@ public final class JwtTokenManager {
         String jti = vr.claims.getJWTID();
         return jti == null || jtiStore.isAccessBlacklisted(jti);
     }
-}
 
+    private static TokensPair pair(IssuedToken access, IssuedToken refresh) {
+        return new TokensPair(access.token(), refresh.token(), access.expiresAt(), refresh.expiresAt());
+    }
+}
@@ -2,15 +2,13 @@ package am.ivix.securitycore.jwt;
 
 import am.ivix.securitycore.keys.KeyProvider;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
-import java.security.PublicKey;
-import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 import java.time.Instant;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -44,23 +42,50 @@ public final class JwtTokenValidator {
         }
     }
 
-    private final RSAPublicKey publicKey;
+    /** Реестр verifier'ов для конкретной версии ключей. */
+    private record Verifiers(long keyVersion, JwsVerifierRegistry registry) {}
+
+    private final KeyProvider keyProvider;
+    /**
+     * Verifier выбирается по kid из заголовка токена; alg должен совпасть с алгоритмом ключа.
+     * Пересобирается, когда меняется keyProvider.getKeyVersion() (hot reload).
+     */
+    private volatile Verifiers verifiers;
     private final String issuer;
     private final String audience;
+    private final VerifiedTokenCache<JWTClaimsSet> cache;
 
     public JwtTokenValidator(KeyProvider keyProvider, String issuer, String audience) {
+        this(keyProvider, issuer, audience, VerifiedTokenCache.defaults());
+    }
+
+    /**
+     * @param cache кеш проверенных access-токенов ({@link VerifiedTokenCache#disabled()} — без кеша)
+     */
+    public JwtTokenValidator(
+            KeyProvider keyProvider,
+            String issuer,
+            String audience,
+            VerifiedTokenCache<JWTClaimsSet> cache
+    ) {
         Objects.requireNonNull(keyProvider, "keyProvider must not be null");
         Objects.requireNonNull(issuer, "issuer must not be null");
         Objects.requireNonNull(audience, "audience must not be null");
+        Objects.requireNonNull(cache, "cache must not be null");
 
-        PublicKey pk = keyProvider.getPublicKey();
-        if (!(pk instanceof RSAPublicKey rsaPublicKey)) {
-            throw new IllegalArgumentException("KeyProvider must return RSAPublicKey for JWT validation");
-        }
-
-        this.publicKey = rsaPublicKey;
+        // verifier'ы потокобезопасны — создаём один раз на версию ключей, а не на каждый запрос
+        this.keyProvider = keyProvider;
+        this.verifiers = new Verifiers(keyProvider.getKeyVersion(), new JwsVerifierRegistry(keyProvider.getVerificationKeys()));
         this.issuer = issuer;
         this.audience = audience;
+        this.cache = cache;
+    }
+
+    /**
+     * Счётчики кеша проверенных токенов (hit/miss, размер).
+     */
+    public VerifiedTokenCache.Stats cacheStats() {
+        return cache.stats();
     }
 
     /**
@@ -74,6 +99,49 @@ public final class JwtTokenValidator {
             return ValidationResult.fail("Token is null or empty");
         }
 
+        // записи кеша — только этой версии ключей: проверенное старым набором после смены не в счёт
+        Verifiers verifiers = verifiers();
+        long keyVersion = verifiers.keyVersion();
+
+        // Кешируем только access: refresh-токен одноразовый, повторно не приходит
+        boolean cacheable = expectedKind == TokenKind.ACCESS;
+        VerifiedTokenCache.Key key = cacheable ? cache.keyOf(token) : null;
+
+        JWTClaimsSet claims = cache.get(key, keyVersion);
+        if (claims == null) {
+            String rejected = cache.rejection(key, keyVersion);
+            if (rejected != null) {
+                return ValidationResult.fail(rejected);
+            }
+
+            ValidationResult verified = verifySignature(token, verifiers.registry());
+            if (!verified.ok) {
+                cache.reject(key, verified.error, keyVersion);
+                return verified;
+            }
+            claims = verified.claims;
+
+            ValidationResult checked = checkClaims(claims, expectedKind);
+            if (checked.ok) {
+                Date exp = claims.getExpirationTime();
+                if (exp != null) {
+                    cache.put(key, claims, exp.toInstant(), keyVersion);
+                }
+            } else if ("Token expired".equals(checked.error)) {
+                // протухший токен клиенты шлют повторно, пока не сделают refresh
+                cache.reject(key, checked.error, keyVersion);
+            }
+            return checked;
+        }
+
+        // exp/nbf/typ перепроверяем всегда — это дёшево и не зависит от TTL кеша
+        return checkClaims(claims, expectedKind);
+    }
+
+    /**
+     * Разбор + проверка подписи — дорогая часть, которую и экономит кеш.
+     */
+    private ValidationResult verifySignature(String token, JwsVerifierRegistry registry) {
         SignedJWT jwt;
         try {
             jwt = SignedJWT.parse(token);
@@ -81,10 +149,17 @@ public final class JwtTokenValidator {
             return ValidationResult.fail("Invalid JWT format: " + e.getMessage());
         }
 
-        // 1. Проверка подписи
-        JWSVerifier verifier = new RSASSAVerifier(publicKey);
+        // 1. Проверка подписи (verifier — по kid, alg обязан совпасть с ключом)
+        JWSHeader header = jwt.getHeader();
+        JwsVerifierRegistry.Entry key = registry.find(header.getKeyID());
+        if (key == null) {
+            return ValidationResult.fail("Unknown key id: " + header.getKeyID());
+        }
+        if (!key.algorithm().equals(header.getAlgorithm())) {
+            return ValidationResult.fail("Unexpected algorithm: " + header.getAlgorithm());
+        }
         try {
-            if (!jwt.verify(verifier)) {
+            if (!jwt.verify(key.verifier())) {
                 return ValidationResult.fail("Signature invalid");
             }
         } catch (JOSEException e) {
@@ -92,13 +167,35 @@ public final class JwtTokenValidator {
         }
 
         // 2. Парсим claims
-        JWTClaimsSet claims;
         try {
-            claims = jwt.getJWTClaimsSet();
+            return ValidationResult.success(jwt.getJWTClaimsSet());
         } catch (ParseException e) {
             return ValidationResult.fail("Claims parsing failed: " + e.getMessage());
         }
+    }
 
+    /**
+     * Реестр для текущей версии ключей. Пока версия та же — одно volatile-чтение.
+     *
+     * При смене версии ключ могли убрать именно потому, что он скомпрометирован:
+     * его токены не должны жить в кеше. Это гарантирует версия в записях кеша;
+     * clear() лишь освобождает память от записей, которые больше не совпадут.
+     */
+    private Verifiers verifiers() {
+        Verifiers v = verifiers;
+        long version = keyProvider.getKeyVersion();
+        if (v.keyVersion() != version) {
+            v = new Verifiers(version, new JwsVerifierRegistry(keyProvider.getVerificationKeys()));
+            verifiers = v;
+            cache.clear();
+        }
+        return v;
+    }
+
+    /**
+     * Проверка полей уже проверенного по подписи токена.
+     */
+    private ValidationResult checkClaims(JWTClaimsSet claims, TokenKind expectedKind) {
         // 3. Проверка issuer
         if (!issuer.equals(claims.getIssuer())) {
             return ValidationResult.fail("Invalid issuer");
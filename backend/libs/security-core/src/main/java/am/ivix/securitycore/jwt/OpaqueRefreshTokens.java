@@ -0,0 +1,58 @@
+package am.ivix.securitycore.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Непрозрачные refresh-токены: 256 бит случайности вместо подписанного JWT.
+ *
+ * Refresh всё равно сверяется с хранилищем, подпись ему доверия не добавляет —
+ * только RSA на каждом login / refresh. Здесь:
+ * - токен — 32 случайных байта, base64url (43 символа), без точек
+ * - в хранилище лежит только SHA-256 токена: утечка Redis не даёт рабочих токенов
+ * - проверка — поиск по хешу, без разбора и проверки подписи
+ */
+public final class OpaqueRefreshTokens {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private OpaqueRefreshTokens() {
+    }
+
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Ключ в хранилище: base64url(SHA-256(token)).
+     * Соли не нужно — у токена 256 бит энтропии, перебор бессмыслен.
+     */
+    public static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Непрозрачный токен или JWT (в JWT всегда есть точки) — по нему выбирается путь проверки.
+     */
+    public static boolean isOpaque(String token) {
+        return token != null && !token.isEmpty() && token.indexOf('.') < 0;
+    }
+}
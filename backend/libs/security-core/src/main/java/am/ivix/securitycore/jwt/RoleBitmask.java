@@ -0,0 +1,118 @@
+package am.ivix.securitycore.jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Роли ↔ битовая маска для компактного профиля access-токена (claim "rl").
+ *
+ * Бит i — роль names.get(i). В api порядок берётся из ordinal'ов UserRole,
+ * поэтому роли в enum можно только ДОПИСЫВАТЬ в конец: перестановка поменяет
+ * смысл масок в уже выданных токенах.
+ *
+ * decode для небольших наборов (до 10 ролей) отдаёт заранее собранные списки — без аллокаций.
+ *
+ * encode принимает имена и с Spring-префиксом "ROLE_" (так роли лежат в users.roles).
+ */
+public final class RoleBitmask {
+
+    private static final String SPRING_ROLE_PREFIX = "ROLE_";
+
+    private static final int MAX_ROLES = 63;
+    private static final int MAX_PRECOMPUTED = 10;
+
+    private final List<String> names;
+    private final Map<String, Integer> bits;
+    private final List<String>[] decoded;
+
+    public RoleBitmask(List<String> names) {
+        Objects.requireNonNull(names, "names must not be null");
+        if (names.size() > MAX_ROLES) {
+            throw new IllegalArgumentException("At most " + MAX_ROLES + " roles fit into a bitmask");
+        }
+        this.names = List.copyOf(names);
+        this.bits = new HashMap<>();
+        for (int i = 0; i < this.names.size(); i++) {
+            if (bits.put(this.names.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate role: " + this.names.get(i));
+            }
+        }
+
+        if (this.names.size() <= MAX_PRECOMPUTED) {
+            @SuppressWarnings("unchecked")
+            List<String>[] all = new List[1 << this.names.size()];
+            for (int mask = 0; mask < all.length; mask++) {
+                all[mask] = collect(mask);
+            }
+            this.decoded = all;
+        } else {
+            this.decoded = null;
+        }
+    }
+
+    public static RoleBitmask of(String... names) {
+        return new RoleBitmask(List.of(names));
+    }
+
+    /**
+     * Роли в порядке битов.
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * @throws IllegalArgumentException роль не из набора — молча терять её нельзя
+     */
+    public long encode(Collection<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            Integer bit = bits.get(role);
+            if (bit == null && role.startsWith(SPRING_ROLE_PREFIX)) {
+                bit = bits.get(role.substring(SPRING_ROLE_PREFIX.length()));
+            }
+            if (bit == null) {
+                throw new IllegalArgumentException("Role is not in the bitmask: " + role);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Маска → имена ролей. Биты за пределами набора игнорируются.
+     */
+    public List<String> decode(long mask) {
+        long known = mask & allBits();
+        if (decoded != null) {
+            return decoded[(int) known];
+        }
+        return collect(known);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private long allBits() {
+        return (1L << names.size()) - 1;
+    }
+
+    private List<String> collect(long mask) {
+        List<String> result = new ArrayList<>(Long.bitCount(mask));
+        for (int i = 0; i < names.size(); i++) {
+            if ((mask & (1L << i)) != 0) {
+                result.add(names.get(i));
+            }
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,103 @@
+package am.ivix.securitycore.jwt;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Набор ролей из токена → заранее собранное неизменяемое значение (в api — список GrantedAuthority).
+ *
+ * Разных наборов ролей у пользователей единицы, а запросов — миллионы: значение строится
+ * один раз на набор и дальше отдаётся одним и тем же экземпляром.
+ *
+ * - По маске (компактный профиль "rl") — массив по всем комбинациям {@link RoleBitmask}, без хеширования
+ * - По списку (обычный профиль "roles") — ConcurrentHashMap по содержимому списка;
+ *   get() не аллоцирует, новый набор — один вызов factory
+ * - Интернируем не больше maxInterned наборов: сверх — значение строится на каждый вызов
+ *   (токен с произвольными ролями не раздует память)
+ *
+ * factory должна возвращать неизменяемое значение — его разделяют все потоки.
+ */
+public final class RoleSetRegistry<T> {
+
+    /** Больше ролей — массив по маскам не строим. */
+    private static final int MAX_PRECOMPUTED_ROLES = 10;
+
+    private final RoleBitmask roleBitmask;
+    private final Function<List<String>, T> factory;
+    private final int maxInterned;
+
+    private final T empty;
+    private final Object[] byMask;
+    private final ConcurrentHashMap<List<String>, T> byRoles = new ConcurrentHashMap<>();
+
+    /**
+     * @param roleBitmask раскладка битов компактного профиля
+     * @param factory     роли (как в токене) → значение
+     * @param maxInterned сколько разных списков ролей держим
+     */
+    public RoleSetRegistry(RoleBitmask roleBitmask, Function<List<String>, T> factory, int maxInterned) {
+        this.roleBitmask = Objects.requireNonNull(roleBitmask, "roleBitmask must not be null");
+        this.factory = Objects.requireNonNull(factory, "factory must not be null");
+        if (maxInterned < 1) {
+            throw new IllegalArgumentException("maxInterned must be positive");
+        }
+        this.maxInterned = maxInterned;
+        this.empty = factory.apply(List.of());
+
+        if (roleBitmask.size() <= MAX_PRECOMPUTED_ROLES) {
+            this.byMask = new Object[1 << roleBitmask.size()];
+            for (int mask = 0; mask < byMask.length; mask++) {
+                byMask[mask] = factory.apply(roleBitmask.decode(mask));
+            }
+        } else {
+            this.byMask = null;
+        }
+    }
+
+    /**
+     * Роли списком. null / пустой → одно и то же "пустое" значение.
+     */
+    public T forRoles(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return empty;
+        }
+        T value = byRoles.get(roles);
+        if (value != null) {
+            return value;
+        }
+
+        List<String> key = List.copyOf(roles);
+        value = factory.apply(key);
+        if (byRoles.size() < maxInterned) {
+            T raced = byRoles.putIfAbsent(key, value);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Роли маской компактного профиля; отрицательная (маски нет) → пустое значение.
+     * Биты за пределами набора игнорируются.
+     */
+    @SuppressWarnings("unchecked")
+    public T forMask(long roleMask) {
+        if (roleMask < 0) {
+            return empty;
+        }
+        if (byMask != null) {
+            return (T) byMask[(int) (roleMask & (byMask.length - 1))];
+        }
+        return forRoles(roleBitmask.decode(roleMask));
+    }
+
+    /**
+     * Сколько списков ролей интернировано (без масок).
+     */
+    public int size() {
+        return byRoles.size();
+    }
+}
@@ -0,0 +1,326 @@
+package am.ivix.securitycore.jwt;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный in-process кеш уже проверенных токенов.
+ *
+ * - Ключ — SHA-256 от компактного токена (сам токен в памяти не держим)
+ * - Положительная запись живёт не дольше exp токена и не дольше maxTtl
+ * - Небольшой отрицательный кеш для мусорных токенов (битый формат, чужая подпись)
+ * - Счётчики hit/miss, чтобы видеть экономию CPU на auth-нодах
+ * - Поиск (keyOf + get) не аллоцирует: дайджест — в буферы потока, ключ — изменяемый
+ *   экземпляр потока; в карту кладётся его копия (put / reject)
+ * - Запись помечена версией ключей, с которой её проверили: на другой версии это промах.
+ *   clear() при смене ключей только освобождает память — поток, проверявший токен старым
+ *   набором ключей, может положить запись уже после clear()
+ *
+ * Потокобезопасен, без Spring и без внешних зависимостей.
+ */
+public final class VerifiedTokenCache<T> {
+
+    /**
+     * Снимок счётчиков кеша.
+     * misses == количество реальных проверок подписи.
+     */
+    public record Stats(
+            long hits,
+            long misses,
+            long negativeHits,
+            long evictions,
+            int size,
+            int negativeSize
+    ) {}
+
+    /**
+     * Ключ кеша — 256 бит дайджеста, разложенные в 4 long.
+     * Экземпляр из keyOf принадлежит потоку и перезаписывается следующим keyOf — не хранить.
+     */
+    static final class Key {
+        private long h0;
+        private long h1;
+        private long h2;
+        private long h3;
+
+        private Key copy() {
+            Key k = new Key();
+            k.h0 = h0;
+            k.h1 = h1;
+            k.h2 = h2;
+            k.h3 = h3;
+            return k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && h0 == k.h0 && h1 == k.h1 && h2 == k.h2 && h3 == k.h3;
+        }
+
+        @Override
+        public int hashCode() {
+            // биты дайджеста и так равномерны
+            return Long.hashCode(h0);
+        }
+    }
+
+    /** Буферы потока: байты токена, дайджест и ключ для поиска. */
+    private static final class Scratch {
+        private final MessageDigest sha256;
+        private final byte[] digest = new byte[32];
+        private final Key probe = new Key();
+        private byte[] input = new byte[1024];
+
+        private Scratch() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        private byte[] input(int length) {
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            return input;
+        }
+    }
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private record Entry<T>(T value, long keyVersion, long expiresAtMillis) {}
+
+    private record Rejection(String error, long keyVersion, long expiresAtMillis) {}
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxTtlMillis;
+    private final int maxRejections;
+    private final long rejectionTtlMillis;
+
+    private final ConcurrentHashMap<Key, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, Rejection> rejections = new ConcurrentHashMap<>();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries    максимум успешно проверенных токенов
+     * @param maxTtl        верхняя граница жизни записи (даже если exp токена дальше)
+     * @param maxRejections максимум записей в отрицательном кеше
+     * @param rejectionTtl  сколько помним мусорный токен
+     */
+    public VerifiedTokenCache(int maxEntries, Duration maxTtl, int maxRejections, Duration rejectionTtl) {
+        Objects.requireNonNull(maxTtl, "maxTtl must not be null");
+        Objects.requireNonNull(rejectionTtl, "rejectionTtl must not be null");
+        if (maxEntries < 0 || maxRejections < 0) {
+            throw new IllegalArgumentException("Cache sizes must not be negative");
+        }
+
+        this.enabled = maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.maxRejections = maxRejections;
+        this.rejectionTtlMillis = rejectionTtl.toMillis();
+    }
+
+    /**
+     * Дефолт для access-токенов: 100k записей, не дольше 15 минут (TTL access),
+     * 10k мусорных токенов на 30 секунд.
+     */
+    public static <T> VerifiedTokenCache<T> defaults() {
+        return new VerifiedTokenCache<>(100_000, Duration.ofMinutes(15), 10_000, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Выключенный кеш: все операции — no-op, дайджест не считается.
+     */
+    public static <T> VerifiedTokenCache<T> disabled() {
+        return new VerifiedTokenCache<>(0, Duration.ZERO, 0, Duration.ZERO);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Stats stats() {
+        return new Stats(
+                hits.sum(),
+                misses.sum(),
+                negativeHits.sum(),
+                evictions.sum(),
+                entries.size(),
+                rejections.size()
+        );
+    }
+
+    /**
+     * Сбросить всё (например, после ротации ключей).
+     */
+    public void clear() {
+        entries.clear();
+        rejections.clear();
+    }
+
+    // ------------------------------
+    //  Package-private API для валидатора
+    // ------------------------------
+
+    Key keyOf(String token) {
+        return keyOf(token, 0, token.length());
+    }
+
+    /**
+     * Ключ токена source[from, to) — без substring. Символы вне Latin-1 — '?', как у getBytes(ISO_8859_1).
+     */
+    Key keyOf(String source, int from, int to) {
+        if (!enabled) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        int length = to - from;
+        byte[] input = s.input(length);
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(from + i);
+            input[i] = c <= 0xff ? (byte) c : (byte) '?';
+        }
+        byte[] digest = s.digest;
+        try {
+            s.sha256.update(input, 0, length);
+            s.sha256.digest(digest, 0, digest.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest failed", e);
+        }
+        Key key = s.probe;
+        key.h0 = (long) LONGS.get(digest, 0);
+        key.h1 = (long) LONGS.get(digest, 8);
+        key.h2 = (long) LONGS.get(digest, 16);
+        key.h3 = (long) LONGS.get(digest, 24);
+        return key;
+    }
+
+    /**
+     * Ищет токен, успешно проверенный ключами версии keyVersion. Считает hit/miss только для положительного кеша.
+     */
+    T get(Key key, long keyVersion) {
+        if (key == null) {
+            return null;
+        }
+        Entry<T> e = entries.get(key);
+        if (e != null) {
+            if (e.keyVersion() == keyVersion && e.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.increment();
+                return e.value();
+            }
+            entries.remove(key, e);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Ошибка, ранее сохранённая для этого токена при версии ключей keyVersion, или null.
+     */
+    String rejection(Key key, long keyVersion) {
+        if (key == null || maxRejections == 0) {
+            return null;
+        }
+        Rejection r = rejections.get(key);
+        if (r == null) {
+            return null;
+        }
+        if (r.keyVersion() != keyVersion || r.expiresAtMillis() <= System.currentTimeMillis()) {
+            rejections.remove(key, r);
+            return null;
+        }
+        negativeHits.increment();
+        return r.error();
+    }
+
+    /**
+     * @param keyVersion версия ключей, которыми проверена подпись (не текущая на момент put)
+     */
+    void put(Key key, T value, Instant tokenExpiresAt, long keyVersion) {
+        if (key == null || value == null || tokenExpiresAt == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiresAt.toEpochMilli(), now + maxTtlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            shrink(entries, maxEntries, now);
+        }
+        entries.put(key.copy(), new Entry<>(value, keyVersion, expiresAt));
+    }
+
+    void reject(Key key, String error, long keyVersion) {
+        if (key == null || maxRejections == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (rejections.size() >= maxRejections) {
+            shrink(rejections, maxRejections, now);
+        }
+        rejections.put(key.copy(), new Rejection(error, keyVersion, now + rejectionTtlMillis));
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * Сначала выкидываем протухшие записи, потом — произвольные, пока не освободим ~10%.
+     * Чистит только один поток, остальные не ждут.
+     */
+    private void shrink(ConcurrentHashMap<Key, ?> map, int limit, long now) {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = limit - Math.max(1, limit / 10);
+
+            Iterator<? extends Map.Entry<Key, ?>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                if (expiresAt(it.next().getValue()) <= now) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+
+            it = map.entrySet().iterator();
+            while (map.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    private static long expiresAt(Object value) {
+        if (value instanceof Entry<?> e) {
+            return e.expiresAtMillis();
+        }
+        return ((Rejection) value).expiresAtMillis();
+    }
+}
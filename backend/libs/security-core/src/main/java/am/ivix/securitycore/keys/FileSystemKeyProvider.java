@@ -1,44 +1,385 @@
 package am.ivix.securitycore.keys;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.Signature;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
-public final class FileSystemKeyProvider implements KeyProvider {
+/**
+ * KeyProvider поверх файлов с горячей перезагрузкой.
+ *
+ * - Ключи парсятся один раз и лежат в памяти: на горячем пути нет диска
+ * - {@link #start()} запускает WatchService на каталогах ключей (подходит и для k8s secret с symlink-ами)
+ * - Новая пара подменяется атомарно через AtomicReference — подпись и проверка не ждут
+ * - Пара проверяется пробной подписью: если файлы обновились не оба сразу, держим старые ключи
+ * - Формат: PEM (BEGIN PUBLIC KEY / BEGIN PRIVATE KEY, PKCS#8) или сырой DER
+ * - kid — JWK thumbprint ключа (RFC 7638): у нового ключа новый kid
+ * - Заменённый ключ остаётся в {@link #getVerificationKeys()} (и в JWKS) ещё retention —
+ *   подписанные им access / refresh токены живут до своего exp, а не до перезагрузки
+ */
+public final class FileSystemKeyProvider implements KeyProvider, AutoCloseable {
+
+    /** По умолчанию — refresh-ttl-days: дольше подписанные старым ключом токены не живут. */
+    public static final Duration DEFAULT_RETENTION = Duration.ofDays(30);
+
+    private static final System.Logger log = System.getLogger(FileSystemKeyProvider.class.getName());
+
+    /** Даём писателю дописать файл(ы), прежде чем перечитывать. */
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    /** Как часто watcher без событий проверяет, не пора ли убрать выведенные ключи. */
+    private static final long PRUNE_CHECK_MINUTES = 1;
+
+    /** Ключ, выведенный из подписи, и когда это случилось. */
+    private record Retired(VerificationKey key, long retiredAtNanos) {}
+
+    private record KeyMaterial(
+            PublicKey publicKey,
+            PrivateKey privateKey,
+            String keyId,
+            List<Retired> retired,
+            List<VerificationKey> verificationKeys,
+            long version
+    ) {}
 
     private final Path privateKeyPath;
     private final Path publicKeyPath;
+    private final SigningAlgorithm algorithm;
+    private final long retentionNanos;
+
+    private final AtomicReference<KeyMaterial> material = new AtomicReference<>();
+
+    private WatchService watchService;
+    private Thread watcher;
 
     public FileSystemKeyProvider(Path privateKeyPath, Path publicKeyPath) {
+        this(privateKeyPath, publicKeyPath, SigningAlgorithm.RS256, DEFAULT_RETENTION, null);
+    }
+
+    /**
+     * Ключи читаются сразу: битые файлы на старте — ошибка конфигурации.
+     *
+     * @param retention   сколько принимать токены заменённого ключа — не меньше TTL refresh-токена
+     * @param legacyKeyId kid, с которым токены подписывались до kid-отпечатков (например "ivix-key-1"),
+     *                    или null. Под ним загруженный на старте ключ принимается ещё retention:
+     *                    такие токены выпущены до старта, позже их не останется
+     */
+    public FileSystemKeyProvider(
+            Path privateKeyPath,
+            Path publicKeyPath,
+            SigningAlgorithm algorithm,
+            Duration retention,
+            String legacyKeyId
+    ) {
         this.privateKeyPath = Objects.requireNonNull(privateKeyPath);
         this.publicKeyPath = Objects.requireNonNull(publicKeyPath);
+        this.algorithm = Objects.requireNonNull(algorithm);
+        Objects.requireNonNull(retention);
+
+        if (algorithm.isSymmetric()) {
+            throw new IllegalArgumentException("Asymmetric algorithm required, got: " + algorithm);
+        }
+        if (retention.isNegative()) {
+            throw new IllegalArgumentException("retention must not be negative");
+        }
+        this.retentionNanos = retention.toNanos();
+
+        PublicKey publicKey = loadPublicKey(publicKeyPath, algorithm);
+        PrivateKey privateKey = loadPrivateKey();
+        checkPair(publicKey, privateKey);
+
+        List<Retired> retired = legacyKeyId == null || legacyKeyId.isBlank()
+                ? List.of()
+                : List.of(new Retired(new VerificationKey(legacyKeyId, algorithm, publicKey), System.nanoTime()));
+        this.material.set(material(publicKey, privateKey, retired, 1));
     }
 
     @Override
     public PrivateKey getPrivateKey() {
+        return material.get().privateKey();
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        return material.get().publicKey();
+    }
+
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String getKeyId() {
+        return material.get().keyId();
+    }
+
+    @Override
+    public List<VerificationKey> getVerificationKeys() {
+        return material.get().verificationKeys();
+    }
+
+    @Override
+    public long getKeyVersion() {
+        return material.get().version();
+    }
+
+    /**
+     * Перечитать файлы. Подменяет ключи, только если пара валидна и отличается от текущей.
+     * Текущий ключ уходит в выведенные: токены, подписанные им, проверяются ещё retention.
+     *
+     * @return true, если ключи подменились
+     */
+    public synchronized boolean reload() {
+        KeyMaterial current = material.get();
+        PublicKey publicKey;
+        PrivateKey privateKey;
         try {
-            byte[] bytes = Files.readAllBytes(privateKeyPath);
-            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(bytes);
-            return KeyFactory.getInstance("RSA").generatePrivate(spec);
+            publicKey = loadPublicKey(publicKeyPath, algorithm);
+            privateKey = loadPrivateKey();
+            checkPair(publicKey, privateKey);
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "JWT keys not reloaded, keeping current: " + e.getMessage());
+            return false;
+        }
+
+        boolean same = Arrays.equals(current.publicKey().getEncoded(), publicKey.getEncoded())
+                && Arrays.equals(current.privateKey().getEncoded(), privateKey.getEncoded());
+        if (same) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        String nextKeyId = JwkThumbprint.of(publicKey, algorithm);
+
+        List<Retired> retired = new ArrayList<>();
+        retired.add(new Retired(new VerificationKey(current.keyId(), algorithm, current.publicKey()), now));
+        for (Retired r : current.retired()) {
+            // вернули ключ, который уже выводили, — он снова активный, а не выведенный
+            if (!expired(r, now) && !r.key().keyId().equals(nextKeyId)) {
+                retired.add(r);
+            }
+        }
+
+        KeyMaterial next = material(publicKey, privateKey, retired, current.version() + 1);
+        material.set(next);
+        log.log(System.Logger.Level.INFO, "JWT keys reloaded (kid=" + next.keyId() + ", previous kid="
+                + current.keyId() + " accepted for " + Duration.ofNanos(retentionNanos) + ", version=" + next.version() + ")");
+        return true;
+    }
+
+    /**
+     * Убрать выведенные ключи, у которых истёк retention. Watcher зовёт сам.
+     *
+     * @return true, если набор ключей проверки поменялся
+     */
+    public synchronized boolean pruneRetired() {
+        KeyMaterial current = material.get();
+        long now = System.nanoTime();
+
+        List<Retired> kept = new ArrayList<>();
+        for (Retired r : current.retired()) {
+            if (!expired(r, now)) {
+                kept.add(r);
+            }
+        }
+        if (kept.size() == current.retired().size()) {
+            return false;
+        }
+
+        KeyMaterial next = material(current.publicKey(), current.privateKey(), kept, current.version() + 1);
+        material.set(next);
+        log.log(System.Logger.Level.INFO, "Retired JWT keys dropped, accepting " + next.verificationKeys().size()
+                + " key(s) (version=" + next.version() + ")");
+        return true;
+    }
+
+    /**
+     * Запустить наблюдение за каталогами ключей (daemon-поток).
+     */
+    public synchronized void start() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            WatchService ws = FileSystems.getDefault().newWatchService();
+
+            Set<Path> dirs = new LinkedHashSet<>();
+            dirs.add(privateKeyPath.toAbsolutePath().getParent());
+            dirs.add(publicKeyPath.toAbsolutePath().getParent());
+            for (Path dir : dirs) {
+                dir.register(ws,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+
+            this.watchService = ws;
+            this.watcher = new Thread(() -> watchLoop(ws), "jwt-key-watcher");
+            this.watcher.setDaemon(true);
+            this.watcher.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to watch key directories", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // закрываемся — нечего делать
+        }
+        watcher.interrupt();
+        watcher = null;
+        watchService = null;
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void watchLoop(WatchService ws) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = ws.poll(PRUNE_CHECK_MINUTES, TimeUnit.MINUTES);
+                if (key == null) {
+                    pruneRetired();
+                    continue;
+                }
+                key.pollEvents();
+                key.reset();
+
+                // пачку событий от одной записи схлопываем в одну перезагрузку
+                WatchKey more;
+                while ((more = ws.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // close()
+        }
+    }
+
+    /**
+     * Активный ключ первым, за ним выведенные.
+     */
+    private KeyMaterial material(PublicKey publicKey, PrivateKey privateKey, List<Retired> retired, long version) {
+        String keyId = JwkThumbprint.of(publicKey, algorithm);
+
+        List<VerificationKey> verificationKeys = new ArrayList<>(retired.size() + 1);
+        verificationKeys.add(new VerificationKey(keyId, algorithm, publicKey));
+        for (Retired r : retired) {
+            verificationKeys.add(r.key());
+        }
+
+        return new KeyMaterial(publicKey, privateKey, keyId, List.copyOf(retired), List.copyOf(verificationKeys), version);
+    }
+
+    private boolean expired(Retired retired, long now) {
+        return now - retired.retiredAtNanos() >= retentionNanos;
+    }
+
+    private PrivateKey loadPrivateKey() {
+        try {
+            byte[] der = readKey(privateKeyPath, "PRIVATE KEY");
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(der);
+            return KeyFactory.getInstance(algorithm.jcaKeyAlgorithm()).generatePrivate(spec);
         } catch (Exception e) {
             throw new IllegalStateException("Failed to load private key from " + privateKeyPath, e);
         }
     }
 
-    @Override
-    public PublicKey getPublicKey() {
+    /**
+     * Публичный ключ из PEM / DER; общий с {@link PublicKeyFileProvider}.
+     */
+    static PublicKey loadPublicKey(Path path, SigningAlgorithm algorithm) {
         try {
-            byte[] bytes = Files.readAllBytes(publicKeyPath);
-            X509EncodedKeySpec spec = new X509EncodedKeySpec(bytes);
-            return KeyFactory.getInstance("RSA").generatePublic(spec);
+            byte[] der = readKey(path, "PUBLIC KEY");
+            X509EncodedKeySpec spec = new X509EncodedKeySpec(der);
+            return KeyFactory.getInstance(algorithm.jcaKeyAlgorithm()).generatePublic(spec);
         } catch (Exception e) {
-            throw new IllegalStateException("Failed to load public key from " + publicKeyPath, e);
+            throw new IllegalStateException("Failed to load public key from " + path, e);
+        }
+    }
+
+    /**
+     * PEM → DER; если маркеров нет — считаем, что файл уже DER.
+     */
+    private static byte[] readKey(Path path, String keyType) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        String text = new String(bytes, StandardCharsets.US_ASCII);
+
+        String begin = "-----BEGIN " + keyType + "-----";
+        String end = "-----END " + keyType + "-----";
+        int start = text.indexOf(begin);
+        if (start == -1) {
+            return bytes;
+        }
+        int stop = text.indexOf(end, start);
+        if (stop == -1) {
+            throw new IllegalArgumentException("Invalid PEM structure: missing END " + keyType);
+        }
+        String body = text.substring(start + begin.length(), stop).replaceAll("\\s+", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    /**
+     * Пробная подпись: приватный и публичный ключ должны быть одной парой.
+     */
+    private void checkPair(PublicKey publicKey, PrivateKey privateKey) {
+        String jca = switch (algorithm) {
+            case RS256 -> "SHA256withRSA";
+            case ES256 -> "SHA256withECDSA";
+            case EdDSA -> "Ed25519";
+            case HS256 -> throw new IllegalStateException("unreachable");
+        };
+        try {
+            byte[] probe = "ivix-key-probe".getBytes(StandardCharsets.US_ASCII);
+
+            Signature signer = Signature.getInstance(jca);
+            signer.initSign(privateKey);
+            signer.update(probe);
+            byte[] sig = signer.sign();
+
+            Signature verifier = Signature.getInstance(jca);
+            verifier.initVerify(publicKey);
+            verifier.update(probe);
+            if (!verifier.verify(sig)) {
+                throw new IllegalStateException("Private and public key files do not form a pair");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Key pair check failed", e);
         }
     }
 }
@@ -0,0 +1,70 @@
+package am.ivix.securitycore.keys;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * KeyProvider для HS256 (симметричный секрет).
+ *
+ * Только для внутренних audience: секрет должен быть у каждого, кто проверяет токен,
+ * поэтому наружу такой токен не отдаём.
+ */
+public final class HmacKeyProvider implements KeyProvider {
+
+    /** RFC 7518: ключ для HS256 — не короче выхода хеша (256 бит). */
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKey secretKey;
+    private final String keyId;
+
+    public HmacKeyProvider(byte[] secret) {
+        this(secret, "ivix-hmac-1");
+    }
+
+    public HmacKeyProvider(byte[] secret, String keyId) {
+        Objects.requireNonNull(secret, "secret must not be null");
+        Objects.requireNonNull(keyId, "keyId must not be null");
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("HS256 secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.secretKey = new SecretKeySpec(secret.clone(), SigningAlgorithm.HS256.jcaKeyAlgorithm());
+        this.keyId = keyId;
+    }
+
+    /**
+     * @param base64Secret секрет в Base64 (как обычно лежит в env / Vault)
+     */
+    public static HmacKeyProvider fromBase64(String base64Secret) {
+        Objects.requireNonNull(base64Secret, "base64Secret must not be null");
+        return new HmacKeyProvider(Base64.getDecoder().decode(base64Secret.trim()));
+    }
+
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return SigningAlgorithm.HS256;
+    }
+
+    @Override
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        throw new UnsupportedOperationException("HS256 has no public key");
+    }
+
+    @Override
+    public PrivateKey getPrivateKey() {
+        throw new UnsupportedOperationException("HS256 has no private key");
+    }
+}
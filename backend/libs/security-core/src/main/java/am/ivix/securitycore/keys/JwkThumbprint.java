@@ -0,0 +1,81 @@
+package am.ivix.securitycore.keys;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * JWK thumbprint (RFC 7638, SHA-256) публичного ключа — kid, однозначно привязанный к ключу.
+ *
+ * - Один и тот же ключ получает один и тот же kid на любой ноде и после рестарта
+ * - Новый ключ — новый kid: старые токены и закэшированный у downstream JWKS не путаются с новыми
+ */
+final class JwkThumbprint {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    /** X.509 SubjectPublicKeyInfo для Ed25519: 12 байт префикса + 32 байта ключа. */
+    private static final int ED25519_KEY_BYTES = 32;
+
+    /** P-256: координаты дополняются до 32 байт. */
+    private static final int P256_COORDINATE_BYTES = 32;
+
+    private JwkThumbprint() {
+    }
+
+    static String of(PublicKey key, SigningAlgorithm algorithm) {
+        // обязательные члены JWK в лексикографическом порядке, без пробелов
+        String json = switch (algorithm) {
+            case RS256 -> {
+                RSAPublicKey rsa = (RSAPublicKey) key;
+                yield "{\"e\":\"" + unsigned(rsa.getPublicExponent())
+                        + "\",\"kty\":\"RSA\",\"n\":\"" + unsigned(rsa.getModulus()) + "\"}";
+            }
+            case ES256 -> {
+                ECPublicKey ec = (ECPublicKey) key;
+                yield "{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"" + coordinate(ec.getW().getAffineX())
+                        + "\",\"y\":\"" + coordinate(ec.getW().getAffineY()) + "\"}";
+            }
+            case EdDSA -> {
+                byte[] spki = key.getEncoded();
+                byte[] x = Arrays.copyOfRange(spki, spki.length - ED25519_KEY_BYTES, spki.length);
+                yield "{\"crv\":\"Ed25519\",\"kty\":\"OKP\",\"x\":\"" + BASE64URL.encodeToString(x) + "\"}";
+            }
+            case HS256 -> throw new IllegalArgumentException("Symmetric keys have no public thumbprint");
+        };
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.US_ASCII));
+            return BASE64URL.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /** Big-endian без ведущего нулевого байта знака. */
+    private static String unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[P256_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, P256_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, P256_COORDINATE_BYTES - length, length);
+        return BASE64URL.encodeToString(fixed);
+    }
+}
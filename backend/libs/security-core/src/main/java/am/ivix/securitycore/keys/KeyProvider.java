@@ -1,7 +1,9 @@
 package am.ivix.securitycore.keys;
 
+import javax.crypto.SecretKey;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.List;
 
 /**
  * Абстракция над источником ключей.
@@ -15,16 +17,63 @@ import java.security.PublicKey;
  *  - PostgreSQL encrypted store
  *
  * В продакшене мы сможем переключать реализацию без изменения JwtService.
+ * Алгоритм подписи тоже задаётся провайдером (см. {@link SigningAlgorithm}).
  */
 public interface KeyProvider {
 
     /**
-     * Возвращает RSA публичный ключ, используемый для валидации JWT.
+     * Возвращает публичный ключ, используемый для валидации JWT (RSA / EC / Ed25519).
      */
     PublicKey getPublicKey();
 
     /**
-     * Возвращает RSA приватный ключ, используемый для подписи JWT.
+     * Возвращает приватный ключ, используемый для подписи JWT (RSA / EC / Ed25519).
      */
     PrivateKey getPrivateKey();
+
+    /**
+     * Алгоритм, которым подписываются токены. По умолчанию RS256.
+     */
+    default SigningAlgorithm getAlgorithm() {
+        return SigningAlgorithm.RS256;
+    }
+
+    /**
+     * Симметричный секрет для HS256. Для асимметричных алгоритмов не используется.
+     */
+    default SecretKey getSecretKey() {
+        throw new UnsupportedOperationException(getAlgorithm() + " has no secret key");
+    }
+
+    /**
+     * kid активного ключа — пишется в заголовок каждого нового токена.
+     * Дефолт совпадает с kid, который уже стоит в выданных токенах.
+     */
+    default String getKeyId() {
+        return "ivix-key-1";
+    }
+
+    /**
+     * Версия набора ключей. Меняется при каждой подмене ключей (hot reload, ротация),
+     * у статичных провайдеров — всегда 0.
+     *
+     * Creator / validator сравнивают её на каждом вызове (одно volatile-чтение)
+     * и пересобирают signer / verifier'ы только при изменении.
+     */
+    default long getKeyVersion() {
+        return 0L;
+    }
+
+    /**
+     * Все ключи, которыми можно проверять подпись (активный + предыдущие при ротации).
+     * Валидатор строит по ним карту kid → verifier один раз.
+     */
+    default List<VerificationKey> getVerificationKeys() {
+        SigningAlgorithm algorithm = getAlgorithm();
+        return List.of(new VerificationKey(
+                getKeyId(),
+                algorithm,
+                algorithm.isSymmetric() ? getSecretKey() : getPublicKey()
+        ));
+    }
 }
@@ -0,0 +1,51 @@
+package am.ivix.securitycore.keys;
+
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Objects;
+
+/**
+ * KeyProvider только для проверки подписи: публичный ключ, выведенный из подписи.
+ *
+ * Предыдущие ключи для {@link RotatingKeyProvider}: после рестарта память FileSystemKeyProvider
+ * о заменённом ключе пропадает, а токены, подписанные им, ещё живы.
+ * kid — тот же отпечаток (RFC 7638), что был у ключа, пока им подписывали.
+ */
+public final class PublicKeyFileProvider implements KeyProvider {
+
+    private final SigningAlgorithm algorithm;
+    private final PublicKey publicKey;
+    private final String keyId;
+
+    public PublicKeyFileProvider(Path publicKeyPath, SigningAlgorithm algorithm) {
+        Objects.requireNonNull(publicKeyPath, "publicKeyPath must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        if (algorithm.isSymmetric()) {
+            throw new IllegalArgumentException("Asymmetric algorithm required, got: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.publicKey = FileSystemKeyProvider.loadPublicKey(publicKeyPath, algorithm);
+        this.keyId = JwkThumbprint.of(publicKey, algorithm);
+    }
+
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    @Override
+    public PrivateKey getPrivateKey() {
+        throw new UnsupportedOperationException("Verification-only key " + keyId + " has no private key");
+    }
+}
@@ -13,14 +13,20 @@ import java.util.Base64;
 /**
  * Production-level KeyProvider:
  *
- * - Работает с RSA ключами
+ * - Работает с RSA ключами (а также EC / Ed25519 — см. конструктор с SigningAlgorithm)
  * - Приватный ключ должен быть в PKCS#8 (BEGIN PRIVATE KEY)
  * - Публичный ключ должен быть в X.509 (BEGIN PUBLIC KEY)
  * - Один раз загружает и кеширует ключи в памяти
  * - Даёт понятные Error Details, если формат повреждён
+ *
+ * @deprecated ключи никогда не перечитываются; используйте {@link FileSystemKeyProvider}
+ *             (тот же PEM, плюс горячая перезагрузка)
  */
+@Deprecated
 public class RSAFileKeyProvider implements KeyProvider {
 
+    private final SigningAlgorithm algorithm;
+    private final String keyId;
     private final PublicKey publicKey;
     private final PrivateKey privateKey;
 
@@ -29,10 +35,42 @@ public class RSAFileKeyProvider implements KeyProvider {
      * @param privateKeyPath путь к private.pkcs8.pem
      */
     public RSAFileKeyProvider(String publicKeyPath, String privateKeyPath) {
+        this(publicKeyPath, privateKeyPath, SigningAlgorithm.RS256);
+    }
+
+    /**
+     * @param algorithm RS256 / ES256 (P-256) / EdDSA (Ed25519); PEM-формат тот же
+     */
+    public RSAFileKeyProvider(String publicKeyPath, String privateKeyPath, SigningAlgorithm algorithm) {
+        this(publicKeyPath, privateKeyPath, algorithm, "ivix-key-1");
+    }
+
+    /**
+     * @param keyId kid ключа — уникален в пределах набора ключей (см. RotatingKeyProvider)
+     */
+    public RSAFileKeyProvider(String publicKeyPath, String privateKeyPath, SigningAlgorithm algorithm, String keyId) {
+        if (algorithm == null || algorithm.isSymmetric()) {
+            throw new IllegalArgumentException("Asymmetric algorithm required, got: " + algorithm);
+        }
+        if (keyId == null || keyId.isBlank()) {
+            throw new IllegalArgumentException("keyId must not be blank");
+        }
+        this.algorithm = algorithm;
+        this.keyId = keyId;
         this.publicKey = loadPublicKey(Path.of(publicKeyPath));
         this.privateKey = loadPrivateKey(Path.of(privateKeyPath));
     }
 
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
     @Override
     public PublicKey getPublicKey() {
         return publicKey;
@@ -55,7 +93,7 @@ public class RSAFileKeyProvider implements KeyProvider {
             byte[] decoded = Base64.getDecoder().decode(base64);
             X509EncodedKeySpec spec = new X509EncodedKeySpec(decoded);
 
-            return KeyFactory.getInstance("RSA").generatePublic(spec);
+            return KeyFactory.getInstance(algorithm.jcaKeyAlgorithm()).generatePublic(spec);
 
         } catch (Exception e) {
             throw new IllegalStateException("Failed to load PUBLIC KEY from " + path, e);
@@ -70,7 +108,7 @@ public class RSAFileKeyProvider implements KeyProvider {
             byte[] decoded = Base64.getDecoder().decode(base64);
             PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decoded);
 
-            return KeyFactory.getInstance("RSA").generatePrivate(spec);
+            return KeyFactory.getInstance(algorithm.jcaKeyAlgorithm()).generatePrivate(spec);
 
         } catch (Exception e) {
             throw new IllegalStateException("Failed to load PRIVATE KEY from " + path + ". Must be PKCS#8.", e);
@@ -0,0 +1,127 @@
+package am.ivix.securitycore.keys;
+
+import javax.crypto.SecretKey;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ротация ключей без рестарта и без массового разлогина.
+ *
+ * - Подписываем только активным ключом (его kid идёт в заголовок)
+ * - Проверяем активным + предыдущими, пока не истекут подписанные ими токены
+ * - Один kid — один ключ: одинаковые ключи под одним kid схлопываются (выведенный ключ может
+ *   быть и в памяти FileSystemKeyProvider, и в файле предыдущих ключей), разные — ошибка
+ * - Если вложенные провайдеры перечитывают ключи (FileSystemKeyProvider),
+ *   набор verification-ключей пересобирается при смене их версий
+ * - close() закрывает вложенные провайдеры (watcher FileSystemKeyProvider)
+ */
+public final class RotatingKeyProvider implements KeyProvider, AutoCloseable {
+
+    /** Набор ключей для проверки, собранный при определённой версии. */
+    private record Snapshot(long version, List<VerificationKey> keys) {}
+
+    private final KeyProvider active;
+    private final List<KeyProvider> previous;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param active   ключ, которым подписываем новые токены
+     * @param previous выведенные из подписи ключи, которые ещё нужно принимать
+     */
+    public RotatingKeyProvider(KeyProvider active, List<? extends KeyProvider> previous) {
+        this.active = Objects.requireNonNull(active, "active must not be null");
+        this.previous = List.copyOf(Objects.requireNonNull(previous, "previous must not be null"));
+
+        this.snapshot = collect(getKeyVersion());
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        return active.getPublicKey();
+    }
+
+    @Override
+    public PrivateKey getPrivateKey() {
+        return active.getPrivateKey();
+    }
+
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return active.getAlgorithm();
+    }
+
+    @Override
+    public SecretKey getSecretKey() {
+        return active.getSecretKey();
+    }
+
+    @Override
+    public String getKeyId() {
+        return active.getKeyId();
+    }
+
+    /**
+     * Сумма версий вложенных провайдеров: версии только растут,
+     * значит любая перезагрузка любого из них меняет сумму.
+     */
+    @Override
+    public long getKeyVersion() {
+        long version = active.getKeyVersion();
+        for (KeyProvider p : previous) {
+            version += p.getKeyVersion();
+        }
+        return version;
+    }
+
+    @Override
+    public List<VerificationKey> getVerificationKeys() {
+        Snapshot s = snapshot;
+        long version = getKeyVersion();
+        if (s.version() != version) {
+            s = collect(version);
+            snapshot = s;
+        }
+        return s.keys();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (KeyProvider p : providers()) {
+            if (p instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private List<KeyProvider> providers() {
+        List<KeyProvider> all = new ArrayList<>(previous.size() + 1);
+        all.add(active);
+        all.addAll(previous);
+        return all;
+    }
+
+    private Snapshot collect(long version) {
+        // активный первым: его kid в заголовке новых токенов
+        Map<String, VerificationKey> byKeyId = new LinkedHashMap<>();
+        for (KeyProvider p : providers()) {
+            for (VerificationKey k : p.getVerificationKeys()) {
+                VerificationKey known = byKeyId.putIfAbsent(k.keyId(), k);
+                if (known != null && !Arrays.equals(known.key().getEncoded(), k.key().getEncoded())) {
+                    throw new IllegalArgumentException("Duplicate key id: " + k.keyId());
+                }
+            }
+        }
+
+        return new Snapshot(version, List.copyOf(byKeyId.values()));
+    }
+}
@@ -0,0 +1,33 @@
+package am.ivix.securitycore.keys;
+
+/**
+ * Алгоритмы подписи JWT, которые умеет security-core.
+ *
+ * RS256 — дефолт (совместимость с уже выданными токенами).
+ * ES256 / EdDSA — в разы дешевле RSA по CPU на подпись.
+ * HS256 — симметричный, только для внутренних audience (секрет знают обе стороны).
+ */
+public enum SigningAlgorithm {
+
+    RS256("RSA"),
+    ES256("EC"),
+    EdDSA("Ed25519"),
+    HS256("HmacSHA256");
+
+    private final String jcaKeyAlgorithm;
+
+    SigningAlgorithm(String jcaKeyAlgorithm) {
+        this.jcaKeyAlgorithm = jcaKeyAlgorithm;
+    }
+
+    /**
+     * Имя алгоритма ключа для KeyFactory / KeyPairGenerator / SecretKeySpec.
+     */
+    public String jcaKeyAlgorithm() {
+        return jcaKeyAlgorithm;
+    }
+
+    public boolean isSymmetric() {
+        return this == HS256;
+    }
+}
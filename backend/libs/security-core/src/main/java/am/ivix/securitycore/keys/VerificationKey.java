@@ -0,0 +1,30 @@
+package am.ivix.securitycore.keys;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Objects;
+
+/**
+ * Один ключ проверки подписи: kid + алгоритм + публичный ключ (или HMAC-секрет).
+ *
+ * Набор таких ключей отдаёт {@link KeyProvider#getVerificationKeys()} —
+ * активный ключ плюс предыдущие, пока живут подписанные ими токены.
+ */
+public record VerificationKey(
+        String keyId,
+        SigningAlgorithm algorithm,
+        Key key
+) {
+    public VerificationKey {
+        Objects.requireNonNull(keyId, "keyId must not be null");
+        Objects.requireNonNull(algorithm, "algorithm must not be null");
+        Objects.requireNonNull(key, "key must not be null");
+
+        boolean fits = algorithm.isSymmetric() ? key instanceof SecretKey : key instanceof PublicKey;
+        if (!fits) {
+            throw new IllegalArgumentException("Key type " + key.getClass().getSimpleName()
+                    + " does not fit " + algorithm + " (kid=" + keyId + ")");
+        }
+    }
+}
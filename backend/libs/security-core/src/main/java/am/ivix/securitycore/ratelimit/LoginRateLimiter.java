@@ -0,0 +1,55 @@
+package am.ivix.securitycore.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Лимит попыток входа по IP клиента и по нормализованному email.
+ *
+ * Проверка делается ДО поиска пользователя и bcrypt: отклонённая попытка
+ * не должна стоить ни запроса в БД, ни CPU на хеш.
+ *
+ * - IP — все попытки (объём перебора с одного адреса)
+ * - email — только неудачные проверки пароля ({@link #recordFailure}): иначе любой, кто знает
+ *   email, держал бы аккаунт заблокированным, просто отправляя запросы раз в окно
+ */
+public interface LoginRateLimiter {
+
+    /**
+     * Не больше maxAttempts попыток за скользящее окно window.
+     */
+    record Limit(int maxAttempts, Duration window) {
+        public Limit {
+            Objects.requireNonNull(window, "window must not be null");
+            if (maxAttempts < 1 || window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("maxAttempts and window must be positive");
+            }
+        }
+    }
+
+    /**
+     * @param retryAfterMillis через сколько освободится место в окне (0, если allowed)
+     */
+    record Decision(boolean allowed, long retryAfterMillis) {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        static Decision blocked(long retryAfterMillis) {
+            return new Decision(false, Math.max(1, retryAfterMillis));
+        }
+    }
+
+    /**
+     * Засчитать попытку в окно IP, если ни окно IP, ни окно неудач email не переполнено.
+     * Отклонённая попытка в окна не пишется — атакующий не продлевает блокировку сам себе бесконечно.
+     *
+     * @param clientIp IP клиента
+     * @param email    email из запроса; null — только лимит по IP
+     */
+    Decision tryAcquire(String clientIp, String email);
+
+    /**
+     * Засчитать неудачную проверку пароля в окно email.
+     */
+    void recordFailure(String email);
+}
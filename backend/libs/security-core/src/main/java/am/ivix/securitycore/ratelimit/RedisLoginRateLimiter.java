@@ -0,0 +1,208 @@
+package am.ivix.securitycore.ratelimit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LoginRateLimiter на Redis: скользящее окно на ZSET, оба ключа (IP и email) — одним EVALSHA.
+ *
+ * Ключи:
+ * - ratelimit:login:ip:{ip} — попытки
+ * - ratelimit:login:email:{email в нижнем регистре} — неудачные проверки пароля;
+ *   tryAcquire их только читает, пишет recordFailure
+ *
+ * - Время берётся из Redis (TIME): окна одинаковы на всех нодах независимо от их часов
+ * - Отказ локально запоминается до retryAfter: следующие попытки с того же IP / email
+ *   отклоняются из памяти, без Redis
+ * - Redis недоступен → пропускаем (fail-open): вход важнее лимита,
+ *   CPU на bcrypt и так ограничен пулом хеширования
+ */
+public final class RedisLoginRateLimiter implements LoginRateLimiter {
+
+    private static final System.Logger log = System.getLogger(RedisLoginRateLimiter.class.getName());
+
+    private static final String IP_PREFIX = "ratelimit:login:ip:";
+    private static final String EMAIL_PREFIX = "ratelimit:login:email:";
+
+    /** Больше — чистим протухшие блокировки; если не помогло — сбрасываем всё. */
+    private static final int MAX_LOCAL_BLOCKS = 100_000;
+
+    /**
+     * KEYS — окна; ARGV[1] — member попытки, ARGV[3i - 1], ARGV[3i], ARGV[3i + 1] — limit, window (мс)
+     * и писать ли попытку (1 / 0) для KEYS[i].
+     * Ответ — по числу на ключ: 0 — место есть, > 0 — через сколько мс освободится.
+     * Попытка записывается в окна с флагом 1, только если все ответы 0.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SLIDING_WINDOW = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') "
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+                    + "local waits = {} "
+                    + "local blocked = false "
+                    + "for i = 1, #KEYS do "
+                    + "  local limit = tonumber(ARGV[3 * i - 1]) "
+                    + "  local window = tonumber(ARGV[3 * i]) "
+                    + "  waits[i] = 0 "
+                    + "  redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window) "
+                    + "  if redis.call('ZCARD', KEYS[i]) >= limit then "
+                    + "    local oldest = redis.call('ZRANGE', KEYS[i], 0, 0, 'WITHSCORES') "
+                    + "    waits[i] = math.max(1, tonumber(oldest[2]) + window - now) "
+                    + "    blocked = true "
+                    + "  end "
+                    + "end "
+                    + "if not blocked then "
+                    + "  for i = 1, #KEYS do "
+                    + "    if ARGV[3 * i + 1] == '1' then "
+                    + "      redis.call('ZADD', KEYS[i], now, ARGV[1]) "
+                    + "      redis.call('PEXPIRE', KEYS[i], ARGV[3 * i]) "
+                    + "    end "
+                    + "  end "
+                    + "end "
+                    + "return waits",
+            List.class
+    );
+
+    /**
+     * KEYS[1] — окно; ARGV[1] — member, ARGV[2] — window (мс). Пишет без проверки лимита.
+     */
+    private static final RedisScript<Long> RECORD = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') "
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2])) "
+                    + "redis.call('ZADD', KEYS[1], now, ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "return redis.call('ZCARD', KEYS[1])",
+            Long.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+
+    /** ключ окна → до какого момента (epoch millis) он заблокирован. */
+    private final ConcurrentHashMap<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    public RedisLoginRateLimiter(StringRedisTemplate redis, Limit ipLimit, Limit emailLimit) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+        this.ipLimit = Objects.requireNonNull(ipLimit, "ipLimit must not be null");
+        this.emailLimit = Objects.requireNonNull(emailLimit, "emailLimit must not be null");
+    }
+
+    @Override
+    public Decision tryAcquire(String clientIp, String email) {
+        String ipKey = clientIp == null ? null : IP_PREFIX + clientIp;
+        String emailKey = emailKey(email);
+
+        // 1. Уже заблокированы — отвечаем из памяти
+        long now = System.currentTimeMillis();
+        long localWait = Math.max(localWait(ipKey, now), localWait(emailKey, now));
+        if (localWait > 0) {
+            return Decision.blocked(localWait);
+        }
+        if (ipKey == null && emailKey == null) {
+            return Decision.ALLOWED;
+        }
+
+        // 2. Один EVALSHA на оба окна
+        List<String> keys = new ArrayList<>(2);
+        List<String> args = new ArrayList<>(7);
+        args.add(member());
+        if (ipKey != null) {
+            keys.add(ipKey);
+            args.add(Integer.toString(ipLimit.maxAttempts()));
+            args.add(Long.toString(ipLimit.window().toMillis()));
+            args.add("1");
+        }
+        if (emailKey != null) {
+            // окно email — только неудачи: успешный или ещё не проверенный вход туда не пишем
+            keys.add(emailKey);
+            args.add(Integer.toString(emailLimit.maxAttempts()));
+            args.add(Long.toString(emailLimit.window().toMillis()));
+            args.add("0");
+        }
+
+        List<?> waits;
+        try {
+            waits = redis.execute(SLIDING_WINDOW, keys, args.toArray());
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Login rate limiter unavailable, allowing attempt: " + e.getMessage());
+            return Decision.ALLOWED;
+        }
+        if (waits == null) {
+            return Decision.ALLOWED;
+        }
+
+        // 3. Запоминаем только переполненные окна: до конца блокировки Redis о них не спрашиваем
+        long maxWait = 0;
+        for (int i = 0; i < waits.size() && i < keys.size(); i++) {
+            long wait = ((Number) waits.get(i)).longValue();
+            if (wait > 0) {
+                remember(keys.get(i), now + wait);
+                maxWait = Math.max(maxWait, wait);
+            }
+        }
+        return maxWait > 0 ? Decision.blocked(maxWait) : Decision.ALLOWED;
+    }
+
+    @Override
+    public void recordFailure(String email) {
+        String emailKey = emailKey(email);
+        if (emailKey == null) {
+            return;
+        }
+        try {
+            redis.execute(RECORD, List.of(emailKey), member(), Long.toString(emailLimit.window().toMillis()));
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Login rate limiter unavailable, failure not recorded: " + e.getMessage());
+        }
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static String emailKey(String email) {
+        return email == null || email.isBlank()
+                ? null
+                : EMAIL_PREFIX + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Уникальный member попытки: одинаковые в одну миллисекунду схлопнулись бы в ZSET. */
+    private static String member() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    private long localWait(String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        Long until = blockedUntil.get(key);
+        if (until == null) {
+            return 0;
+        }
+        if (until <= now) {
+            blockedUntil.remove(key, until);
+            return 0;
+        }
+        return until - now;
+    }
+
+    private void remember(String key, long until) {
+        if (blockedUntil.size() >= MAX_LOCAL_BLOCKS) {
+            long now = System.currentTimeMillis();
+            blockedUntil.values().removeIf(u -> u <= now);
+            if (blockedUntil.size() >= MAX_LOCAL_BLOCKS) {
+                blockedUntil.clear();
+            }
+        }
+        blockedUntil.merge(key, until, Math::max);
+    }
+}
@@ -0,0 +1,226 @@
+package am.ivix.securitycore.store;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Декоратор TokenJtiStore: склеивает конкурентные isAccessBlacklisted в одну команду.
+ *
+ * - Запросы потоков встают в очередь, один flusher-поток забирает их пачкой
+ * - Пачка уходит в {@link TokenJtiStore#areAccessBlacklisted(List)} (Redis — один MGET)
+ * - Пачка закрывается по размеру (maxBatchSize) или по окну от первого запроса (maxWait) —
+ *   maxWait и есть добавленная задержка в худшем случае; maxWait = 0 — только то, что уже накопилось
+ * - Очередь переполнена или store остановлен → прямой вызов delegate
+ * - Всё остальное идёт в delegate как есть
+ */
+public final class BatchingTokenJtiStore implements TokenJtiStore, AutoCloseable {
+
+    /** Сколько вызывающий поток ждёт ответа пачки, прежде чем сдаться. */
+    private static final long CALLER_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Снимок счётчиков: lookups / batches — средний размер пачки,
+     * т.е. во сколько раз меньше команд уходит в Redis.
+     */
+    public record Stats(long lookups, long batches, long direct) {}
+
+    private record Pending(String jti, CompletableFuture<Boolean> result) {}
+
+    private final TokenJtiStore delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder direct = new LongAdder();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * @param delegate      хранилище с bulk-проверкой (Redis)
+     * @param maxBatchSize  максимум jti в одной команде
+     * @param maxWait       сколько держим пачку открытой после первого запроса
+     * @param queueCapacity сколько запросов может ждать; сверх — прямой вызов
+     */
+    public BatchingTokenJtiStore(TokenJtiStore delegate, int maxBatchSize, Duration maxWait, int queueCapacity) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        Objects.requireNonNull(maxWait, "maxWait must not be null");
+        if (maxBatchSize < 1 || queueCapacity < 1 || maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxBatchSize, queueCapacity must be positive, maxWait must not be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "jwt-blacklist-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Останавливает flusher; оставшиеся в очереди запросы отвечаются прямыми вызовами.
+     */
+    @Override
+    public synchronized void close() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher = null;
+
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        flush(rest);
+    }
+
+    public Stats stats() {
+        return new Stats(lookups.sum(), batches.sum(), direct.sum());
+    }
+
+    @Override
+    public boolean isAccessBlacklisted(String jti) {
+        if (jti == null) {
+            return false;
+        }
+
+        Pending pending = new Pending(jti, new CompletableFuture<>());
+        if (!running || !queue.offer(pending) || abandoned(pending)) {
+            direct.increment();
+            return delegate.isAccessBlacklisted(jti);
+        }
+
+        try {
+            return pending.result().get(CALLER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for blacklist check", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Blacklist check failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Blacklist check timed out", e);
+        }
+    }
+
+    @Override
+    public boolean[] areAccessBlacklisted(List<String> jtis) {
+        return delegate.areAccessBlacklisted(jtis);
+    }
+
+    @Override
+    public void blacklistAccess(String jti, Instant expiresAt) {
+        delegate.blacklistAccess(jti, expiresAt);
+    }
+
+    @Override
+    public void whitelistRefresh(String jti, Instant expiresAt) {
+        delegate.whitelistRefresh(jti, expiresAt);
+    }
+
+    @Override
+    public boolean isRefreshWhitelisted(String jti) {
+        return delegate.isRefreshWhitelisted(jti);
+    }
+
+    @Override
+    public void removeRefresh(String jti) {
+        delegate.removeRefresh(jti);
+    }
+
+    @Override
+    public boolean rotateRefresh(String oldJti, String newJti, Instant newExpiresAt) {
+        return delegate.rotateRefresh(oldJti, newJti, newExpiresAt);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * close() мог выставить running = false между проверкой и offer: тогда его drainTo мог
+     * запрос уже не увидеть. Забрали из очереди сами — идём напрямую; не нашли — его взял
+     * close() или flusher, ответ придёт оттуда.
+     */
+    private boolean abandoned(Pending pending) {
+        return !running && queue.remove(pending);
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+
+                while (batch.size() < maxBatchSize) {
+                    // сначала забираем всё, что уже накопилось, и только потом ждём
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // запросы, взятые, но не отправленные до остановки
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> jtis = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            jtis.add(p.jti());
+        }
+
+        try {
+            boolean[] revoked = delegate.areAccessBlacklisted(jtis);
+            for (int i = 0; i < revoked.length; i++) {
+                batch.get(i).result().complete(revoked[i]);
+            }
+        } catch (RuntimeException e) {
+            for (Pending p : batch) {
+                p.result().completeExceptionally(e);
+            }
+        }
+
+        batches.increment();
+        lookups.add(batch.size());
+        batch.clear();
+    }
+}
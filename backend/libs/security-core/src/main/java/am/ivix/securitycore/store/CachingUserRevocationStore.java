@@ -0,0 +1,176 @@
+package am.ivix.securitycore.store;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Декоратор UserRevocationStore: эпохи отвечаются из локального кэша с коротким TTL.
+ *
+ * - На запрос фильтра — не больше одного похода в delegate на пользователя за ttl
+ * - Отсутствие отзыва кэшируется так же (0), иначе каждый запрос шёл бы в Redis
+ * - revokeAllBefore на этой ноде виден сразу; с шиной ({@link RevocationBus}) — на остальных
+ *   за время доставки pub/sub, без неё (или если сообщение потерялось) — не позже чем через ttl
+ * - delegate недоступен: протухшая запись отвечает как есть (stale-if-error), без записи —
+ *   исключение уходит вызывающему, решать fail-closed / fail-open ему
+ * - Размер ограничен maxEntries: при переполнении выкидываем протухшее, а если не помогло —
+ *   самые старые записи (EVICT_FRACTION), чтобы следующие вставки не упирались в предел сразу
+ */
+public final class CachingUserRevocationStore implements UserRevocationStore {
+
+    private static final System.Logger log = System.getLogger(CachingUserRevocationStore.class.getName());
+
+    /** Какую долю maxEntries освобождаем, если протухших записей не хватило. */
+    private static final double EVICT_FRACTION = 0.1;
+
+    /** Не чаще раза в столько пишем в лог об ошибке delegate — на запрос было бы слишком. */
+    private static final long FAILURE_LOG_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private record Entry(long epoch, long loadedAtNanos) {}
+
+    private final UserRevocationStore delegate;
+    private final RevocationBus bus;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastFailureLogNanos = new AtomicLong(System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS);
+
+    /**
+     * @param delegate   источник правды (Redis)
+     * @param ttl        сколько верить закэшированной эпохе — задержка "выйти везде" на других нодах
+     * @param maxEntries сколько пользователей держим в памяти
+     */
+    public CachingUserRevocationStore(UserRevocationStore delegate, Duration ttl, int maxEntries) {
+        this(delegate, ttl, maxEntries, null);
+    }
+
+    /**
+     * @param bus рассылка эпох между нодами; null — только ttl. Отдельный канал, не канал jti:
+     *            в сообщении jti — userId, expiresAt — эпоха отзыва
+     */
+    public CachingUserRevocationStore(UserRevocationStore delegate, Duration ttl, int maxEntries, RevocationBus bus) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative() || maxEntries < 1) {
+            throw new IllegalArgumentException("ttl must not be negative, maxEntries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.bus = bus;
+        if (bus != null) {
+            bus.subscribe(this::onRevoked);
+        }
+    }
+
+    @Override
+    public void revokeAllBefore(String userId, Instant revokedAt) {
+        if (userId == null || revokedAt == null) {
+            return;
+        }
+        delegate.revokeAllBefore(userId, revokedAt);
+
+        // не remove: загрузка, прочитавшая delegate до записи, положила бы старую эпоху обратно
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        remember(userId, revokedAt.getEpochSecond(), now);
+
+        if (bus != null) {
+            try {
+                bus.publish(userId, revokedAt);
+            } catch (RuntimeException e) {
+                // эпоха уже в delegate; остальные ноды увидят её через ttl
+                log.log(System.Logger.Level.WARNING, "Revocation epoch broadcast failed for user " + userId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public long revokedBefore(String userId) {
+        if (userId == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAtNanos() < ttlNanos) {
+            return entry.epoch();
+        }
+
+        long epoch;
+        try {
+            epoch = delegate.revokedBefore(userId);
+        } catch (RuntimeException e) {
+            logFailure(now, e);
+            if (entry != null) {
+                // последнее известное значение лучше, чем ничего; запись не продлеваем —
+                // следующий запрос снова попробует delegate
+                return entry.epoch();
+            }
+            throw e;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        return remember(userId, epoch, now);
+    }
+
+    /**
+     * Сколько пользователей сейчас в кэше.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * Сообщение шины обновляет только тех, кто уже в кэше: остальных загрузит первый же запрос.
+     */
+    private void onRevoked(String userId, Instant revokedAt) {
+        long epoch = revokedAt.getEpochSecond();
+        long now = System.nanoTime();
+        entries.computeIfPresent(userId, (id, old) -> old.epoch() >= epoch ? old : new Entry(epoch, now));
+    }
+
+    /**
+     * Эпоха только растёт: загрузка, начатая до отзыва и закончившаяся после него (или после
+     * сообщения шины), не должна затереть более новое значение.
+     */
+    private long remember(String userId, long epoch, long now) {
+        return entries.merge(userId, new Entry(epoch, now),
+                (old, fresh) -> old.epoch() > fresh.epoch() ? new Entry(old.epoch(), fresh.loadedAtNanos()) : fresh)
+                .epoch();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> now - e.loadedAtNanos() >= ttlNanos);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        // все живые: выкидываем самые старые по времени загрузки
+        long[] loadedAt = entries.values().stream().mapToLong(Entry::loadedAtNanos).toArray();
+        if (loadedAt.length == 0) {
+            return;
+        }
+        Arrays.sort(loadedAt);
+        int victims = Math.max(1, (int) (maxEntries * EVICT_FRACTION));
+        long threshold = loadedAt[Math.min(victims, loadedAt.length) - 1];
+        entries.values().removeIf(e -> e.loadedAtNanos() <= threshold);
+    }
+
+    private void logFailure(long now, RuntimeException e) {
+        long last = lastFailureLogNanos.get();
+        if (now - last >= FAILURE_LOG_INTERVAL_NANOS && lastFailureLogNanos.compareAndSet(last, now)) {
+            log.log(System.Logger.Level.WARNING, "User revocation lookup failed: " + e.getMessage());
+        }
+    }
+}
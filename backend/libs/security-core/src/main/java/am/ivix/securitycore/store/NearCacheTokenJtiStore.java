@@ -0,0 +1,172 @@
+package am.ivix.securitycore.store;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Декоратор TokenJtiStore: blacklist access-токенов отвечает из памяти, без Redis на запрос.
+ *
+ * - Локально держим все отозванные jti → exp (их мало: живут не дольше access TTL)
+ * - blacklistAccess пишет в delegate (источник правды) и рассылает отзыв через {@link RevocationBus}
+ * - Подписка на шину обновляет все ноды за время доставки pub/sub
+ * - Раз в resyncInterval подтягиваем полный список из delegate (SCAN) —
+ *   это верхняя граница задержки, если сообщение потерялось (реконнект, рестарт ноды)
+ * - refresh-операции идут в delegate как есть
+ */
+public final class NearCacheTokenJtiStore implements TokenJtiStore, AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(NearCacheTokenJtiStore.class.getName());
+
+    private final TokenJtiStore delegate;
+    private final RevocationBus bus;
+    private final Supplier<Map<String, Instant>> snapshot;
+    private final Duration resyncInterval;
+
+    /** jti → exp (epoch millis). */
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param delegate       хранилище-источник правды (Redis)
+     * @param bus            рассылка отзывов между нодами
+     * @param snapshot       полный список отозванных jti (bootstrap и периодическая сверка)
+     * @param resyncInterval как часто сверяться с delegate
+     */
+    public NearCacheTokenJtiStore(
+            TokenJtiStore delegate,
+            RevocationBus bus,
+            Supplier<Map<String, Instant>> snapshot,
+            Duration resyncInterval
+    ) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.bus = Objects.requireNonNull(bus, "bus must not be null");
+        this.snapshot = Objects.requireNonNull(snapshot, "snapshot must not be null");
+        this.resyncInterval = Objects.requireNonNull(resyncInterval, "resyncInterval must not be null");
+        if (resyncInterval.isNegative() || resyncInterval.isZero()) {
+            throw new IllegalArgumentException("resyncInterval must be positive");
+        }
+    }
+
+    /**
+     * Подписаться на шину, загрузить текущий blacklist и запустить периодическую сверку.
+     *
+     * Подписка — до загрузки, но сообщения пойдут, только когда запустится транспорт шины
+     * (RedisMessageListenerContainer стартует вместе с контекстом, уже после создания бинов).
+     * Отзывы между загрузкой и стартом транспорта догоняет {@link #resync()}: владелец вызывает
+     * его один раз, когда транспорт запущен (в api — на ApplicationStartedEvent), иначе — не
+     * позже чем через resyncInterval.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        bus.subscribe(this::remember);
+        resync();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-revocation-resync");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = resyncInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::resync, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Сколько отозванных jti сейчас в памяти.
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    @Override
+    public void blacklistAccess(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        delegate.blacklistAccess(jti, expiresAt);
+        remember(jti, expiresAt);
+        try {
+            bus.publish(jti, expiresAt);
+        } catch (RuntimeException e) {
+            // запись в delegate уже есть — остальные ноды подтянут её при сверке
+            log.log(System.Logger.Level.WARNING, "Revocation broadcast failed for jti " + jti + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isAccessBlacklisted(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Long exp = revoked.get(jti);
+        if (exp == null) {
+            return false;
+        }
+        if (exp <= System.currentTimeMillis()) {
+            revoked.remove(jti, exp);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void whitelistRefresh(String jti, Instant expiresAt) {
+        delegate.whitelistRefresh(jti, expiresAt);
+    }
+
+    @Override
+    public boolean isRefreshWhitelisted(String jti) {
+        return delegate.isRefreshWhitelisted(jti);
+    }
+
+    @Override
+    public void removeRefresh(String jti) {
+        delegate.removeRefresh(jti);
+    }
+
+    @Override
+    public boolean rotateRefresh(String oldJti, String newJti, Instant newExpiresAt) {
+        return delegate.rotateRefresh(oldJti, newJti, newExpiresAt);
+    }
+
+    /**
+     * Догрузить всё из delegate и выкинуть протухшее. Ошибка сверки не трогает текущий набор.
+     */
+    public void resync() {
+        try {
+            snapshot.get().forEach(this::remember);
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Revocation resync failed, keeping local set: " + e.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(exp -> exp <= now);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private void remember(String jti, Instant expiresAt) {
+        long exp = expiresAt.toEpochMilli();
+        if (exp > System.currentTimeMillis()) {
+            revoked.merge(jti, exp, Math::max);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package am.ivix.securitycore.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * RefreshFamilyStore на Redis: один hash на пользователя.
+ *
+ * Ключ:     jwt:refresh:family:{userId}
+ * Поле:     familyId
+ * Значение: currentJti|createdAt|lastUsedAt|expiresAt (epoch seconds)
+ *
+ * - open / rotate — Lua-скрипты, один round trip и без гонок между HGET и HSET
+ * - reuse → HDEL поля семейства в том же скрипте
+ * - revokeAll — один DEL, sessions — один HGETALL
+ * - TTL ключа подтягивается до самого позднего exp; истёкшие поля вычищаются при open
+ */
+public final class RedisRefreshFamilyStore implements RefreshFamilyStore {
+
+    private static final String FAMILY_PREFIX = "jwt:refresh:family:";
+
+    /**
+     * ARGV: familyId, value, ttlMillis, nowSec.
+     */
+    private static final RedisScript<Long> OPEN = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "local now = tonumber(ARGV[4]) "
+                    + "local all = redis.call('HGETALL', KEYS[1]) "
+                    + "for i = 1, #all, 2 do "
+                    + "  local exp = tonumber(string.match(all[i + 1], '([^|]*)$')) "
+                    + "  if exp == nil or exp <= now then redis.call('HDEL', KEYS[1], all[i]) end "
+                    + "end "
+                    + "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[3]) then "
+                    + "  redis.call('PEXPIRE', KEYS[1], ARGV[3]) "
+                    + "end "
+                    + "return 1",
+            Long.class
+    );
+
+    /**
+     * ARGV: familyId, oldJti, newJti, nowSec, expSec, ttlMillis.
+     * 1 — ротация, -1 — reuse (семейство удалено), 0 — семейства нет / истекло.
+     */
+    private static final RedisScript<Long> ROTATE = new DefaultRedisScript<>(
+            "local cur = redis.call('HGET', KEYS[1], ARGV[1]) "
+                    + "if not cur then return 0 end "
+                    + "local jti, created, used, exp = string.match(cur, '^([^|]*)|([^|]*)|([^|]*)|([^|]*)$') "
+                    + "if jti == nil or tonumber(exp) <= tonumber(ARGV[4]) then "
+                    + "  redis.call('HDEL', KEYS[1], ARGV[1]) "
+                    + "  return 0 "
+                    + "end "
+                    + "if jti ~= ARGV[2] then "
+                    + "  redis.call('HDEL', KEYS[1], ARGV[1]) "
+                    + "  return -1 "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3] .. '|' .. created .. '|' .. ARGV[4] .. '|' .. ARGV[5]) "
+                    + "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[6]) then "
+                    + "  redis.call('PEXPIRE', KEYS[1], ARGV[6]) "
+                    + "end "
+                    + "return 1",
+            Long.class
+    );
+
+    private final StringRedisTemplate redis;
+
+    public RedisRefreshFamilyStore(StringRedisTemplate redis) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+    }
+
+    @Override
+    public void open(String userId, String familyId, String jti, Instant expiresAt) {
+        Objects.requireNonNull(userId, "userId must not be null");
+        Objects.requireNonNull(familyId, "familyId must not be null");
+        Objects.requireNonNull(jti, "jti must not be null");
+        Objects.requireNonNull(expiresAt, "expiresAt must not be null");
+
+        Instant now = Instant.now();
+        long ttlMillis = Duration.between(now, expiresAt).toMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long nowSec = now.getEpochSecond();
+        String value = jti + '|' + nowSec + '|' + nowSec + '|' + expiresAt.getEpochSecond();
+
+        redis.execute(
+                OPEN,
+                List.of(FAMILY_PREFIX + userId),
+                familyId, value, Long.toString(ttlMillis), Long.toString(nowSec)
+        );
+    }
+
+    @Override
+    public Rotation rotate(String userId, String familyId, String oldJti, String newJti, Instant newExpiresAt) {
+        if (userId == null || familyId == null || oldJti == null || newJti == null || newExpiresAt == null) {
+            return Rotation.UNKNOWN;
+        }
+        Instant now = Instant.now();
+        long ttlMillis = Duration.between(now, newExpiresAt).toMillis();
+        if (ttlMillis <= 0) {
+            return Rotation.UNKNOWN;
+        }
+
+        Long result = redis.execute(
+                ROTATE,
+                List.of(FAMILY_PREFIX + userId),
+                familyId, oldJti, newJti,
+                Long.toString(now.getEpochSecond()),
+                Long.toString(newExpiresAt.getEpochSecond()),
+                Long.toString(ttlMillis)
+        );
+        if (result == null || result == 0L) {
+            return Rotation.UNKNOWN;
+        }
+        return result == 1L ? Rotation.ROTATED : Rotation.REUSED;
+    }
+
+    @Override
+    public void revoke(String userId, String familyId) {
+        if (userId == null || familyId == null) {
+            return;
+        }
+        redis.opsForHash().delete(FAMILY_PREFIX + userId, familyId);
+    }
+
+    @Override
+    public void revokeAll(String userId) {
+        if (userId == null) {
+            return;
+        }
+        redis.delete(FAMILY_PREFIX + userId);
+    }
+
+    @Override
+    public List<Session> sessions(String userId) {
+        if (userId == null) {
+            return List.of();
+        }
+        Map<Object, Object> all = redis.opsForHash().entries(FAMILY_PREFIX + userId);
+        long now = Instant.now().getEpochSecond();
+
+        List<Session> result = new ArrayList<>(all.size());
+        for (Map.Entry<Object, Object> e : all.entrySet()) {
+            Session session = parse((String) e.getKey(), (String) e.getValue(), now);
+            if (session != null) {
+                result.add(session);
+            }
+        }
+        result.sort(Comparator.comparing(Session::lastUsedAt).reversed());
+        return result;
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    /**
+     * @return null для битых и истёкших записей (их вычистит следующий open)
+     */
+    private static Session parse(String familyId, String value, long now) {
+        String[] parts = value.split("\\|", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            long created = Long.parseLong(parts[1]);
+            long used = Long.parseLong(parts[2]);
+            long exp = Long.parseLong(parts[3]);
+            if (exp <= now) {
+                return null;
+            }
+            return new Session(
+                    familyId,
+                    Instant.ofEpochSecond(created),
+                    Instant.ofEpochSecond(used),
+                    Instant.ofEpochSecond(exp)
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package am.ivix.securitycore.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * RefreshGrantStore на Redis.
+ *
+ * Ключ:     jwt:refresh:opaque:{sha256(token)}
+ * Значение: exp|userId|familyId|ROLE1,ROLE2|email  (email последним — в нём может быть '|')
+ * Израсходованный токен: то же значение с префиксом '!' и прежним TTL.
+ */
+public final class RedisRefreshGrantStore implements RefreshGrantStore {
+
+    private static final String OPAQUE_PREFIX = "jwt:refresh:opaque:";
+    private static final char SPENT = '!';
+
+    /**
+     * GET старого → пометить израсходованным (KEEPTTL) → SET нового с тем же грантом и новым exp.
+     * Возвращает старое значение (с '!' — повторное предъявление) или nil.
+     *
+     * ARGV: newExpSec, ttlMillis.
+     */
+    private static final RedisScript<String> ROTATE = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) "
+                    + "if not v then return false end "
+                    + "if string.sub(v, 1, 1) == '!' then return v end "
+                    + "redis.call('SET', KEYS[1], '!' .. v, 'KEEPTTL') "
+                    + "local rest = string.match(v, '^[^|]*|(.*)$') "
+                    + "redis.call('SET', KEYS[2], ARGV[1] .. '|' .. rest, 'PX', ARGV[2]) "
+                    + "return v",
+            String.class
+    );
+
+    private final StringRedisTemplate redis;
+
+    public RedisRefreshGrantStore(StringRedisTemplate redis) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+    }
+
+    @Override
+    public void store(String tokenHash, Grant grant) {
+        Objects.requireNonNull(tokenHash, "tokenHash must not be null");
+        Objects.requireNonNull(grant, "grant must not be null");
+
+        Duration ttl = Duration.between(Instant.now(), grant.expiresAt());
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        redis.opsForValue().set(OPAQUE_PREFIX + tokenHash, format(grant), ttl);
+    }
+
+    @Override
+    public Redemption rotate(String oldHash, String newHash, Instant newExpiresAt) {
+        if (oldHash == null || newHash == null || newExpiresAt == null) {
+            return new Redemption(Outcome.UNKNOWN, null);
+        }
+        long ttlMillis = Duration.between(Instant.now(), newExpiresAt).toMillis();
+        if (ttlMillis <= 0) {
+            return new Redemption(Outcome.UNKNOWN, null);
+        }
+
+        String previous = redis.execute(
+                ROTATE,
+                List.of(OPAQUE_PREFIX + oldHash, OPAQUE_PREFIX + newHash),
+                Long.toString(newExpiresAt.getEpochSecond()),
+                Long.toString(ttlMillis)
+        );
+        if (previous == null) {
+            return new Redemption(Outcome.UNKNOWN, null);
+        }
+        if (previous.charAt(0) == SPENT) {
+            return new Redemption(Outcome.REUSED, parse(previous.substring(1)));
+        }
+        Grant old = parse(previous);
+        if (old == null) {
+            return new Redemption(Outcome.UNKNOWN, null);
+        }
+        return new Redemption(Outcome.ROTATED, new Grant(
+                old.userId(), old.familyId(), old.email(), old.roles(), newExpiresAt));
+    }
+
+    @Override
+    public Grant find(String tokenHash) {
+        if (tokenHash == null) {
+            return null;
+        }
+        String value = redis.opsForValue().get(OPAQUE_PREFIX + tokenHash);
+        if (value == null || value.isEmpty() || value.charAt(0) == SPENT) {
+            return null;
+        }
+        return parse(value);
+    }
+
+    @Override
+    public void remove(String tokenHash) {
+        if (tokenHash == null) {
+            return;
+        }
+        redis.delete(OPAQUE_PREFIX + tokenHash);
+    }
+
+    // ------------------------------
+    //  Private Helpers
+    // ------------------------------
+
+    private static String format(Grant grant) {
+        return grant.expiresAt().getEpochSecond()
+                + "|" + grant.userId()
+                + "|" + (grant.familyId() == null ? "" : grant.familyId())
+                + "|" + String.join(",", grant.roles())
+                + "|" + grant.email();
+    }
+
+    /**
+     * @return null для битого значения
+     */
+    private static Grant parse(String value) {
+        String[] parts = value.split("\\|", 5);
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            return new Grant(
+                    parts[1],
+                    parts[2].isEmpty() ? null : parts[2],
+                    parts[4],
+                    parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(",")),
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]))
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package am.ivix.securitycore.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * RevocationBus на Redis pub/sub.
+ *
+ * Сообщение: "{jti} {exp epoch seconds}" в канале (по умолчанию jwt:access:revoked).
+ * Подписка живёт в переданном RedisMessageListenerContainer (его жизненным циклом управляет Spring).
+ */
+public final class RedisRevocationBus implements RevocationBus {
+
+    public static final String DEFAULT_CHANNEL = "jwt:access:revoked";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer container;
+    private final ChannelTopic topic;
+
+    public RedisRevocationBus(StringRedisTemplate redis, RedisMessageListenerContainer container) {
+        this(redis, container, DEFAULT_CHANNEL);
+    }
+
+    public RedisRevocationBus(StringRedisTemplate redis, RedisMessageListenerContainer container, String channel) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+        this.container = Objects.requireNonNull(container, "container must not be null");
+        this.topic = new ChannelTopic(Objects.requireNonNull(channel, "channel must not be null"));
+    }
+
+    @Override
+    public void publish(String jti, Instant expiresAt) {
+        redis.convertAndSend(topic.getTopic(), jti + ' ' + expiresAt.getEpochSecond());
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int space = body.indexOf(' ');
+            if (space <= 0) {
+                return;
+            }
+            try {
+                long exp = Long.parseLong(body, space + 1, body.length(), 10);
+                listener.onRevoked(body.substring(0, space), Instant.ofEpochSecond(exp));
+            } catch (NumberFormatException ignored) {
+                // чужое / битое сообщение в канале — пропускаем
+            }
+        }, topic);
+    }
+}
@@ -1,10 +1,18 @@
 package am.ivix.securitycore.store;
 
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -17,6 +25,9 @@ import java.util.Objects;
  * Ключи в Redis:
  * - jwt:access:blacklist:{jti}
  * - jwt:refresh:whitelist:{jti}
+ *
+ * Значение blacklist-ключа — exp в epoch seconds: по нему near-cache
+ * восстанавливает срок жизни записи без отдельного PTTL на каждый ключ.
  */
 @Component
 public final class RedisTokenJtiStore implements TokenJtiStore {
@@ -24,6 +35,22 @@ public final class RedisTokenJtiStore implements TokenJtiStore {
     private static final String ACCESS_BLACKLIST_PREFIX = "jwt:access:blacklist:";
     private static final String REFRESH_WHITELIST_PREFIX = "jwt:refresh:whitelist:";
 
+    /**
+     * DEL старого jti и SET нового — одним EVALSHA.
+     * DEL вернёт 1 ровно одному из конкурентных вызовов, поэтому reuse невозможен.
+     */
+    private static final RedisScript<Long> ROTATE_REFRESH = new DefaultRedisScript<>(
+            "if redis.call('DEL', KEYS[1]) == 1 then "
+                    + "redis.call('SET', KEYS[2], '1', 'PX', ARGV[1]) "
+                    + "return 1 "
+                    + "end "
+                    + "return 0",
+            Long.class
+    );
+
+    /** Ключей за один SCAN / MGET при выгрузке blacklist. */
+    private static final int SCAN_BATCH = 500;
+
     private final StringRedisTemplate redis;
 
     public RedisTokenJtiStore(StringRedisTemplate redis) {
@@ -41,7 +68,7 @@ public final class RedisTokenJtiStore implements TokenJtiStore {
             return;
         }
         String key = ACCESS_BLACKLIST_PREFIX + jti;
-        redis.opsForValue().set(key, "1", ttl);
+        redis.opsForValue().set(key, Long.toString(expiresAt.getEpochSecond()), ttl);
     }
 
     @Override
@@ -54,6 +81,55 @@ public final class RedisTokenJtiStore implements TokenJtiStore {
         return Boolean.TRUE.equals(hasKey);
     }
 
+    /**
+     * Вся пачка — один MGET: значение есть ⇔ jti в blacklist.
+     */
+    @Override
+    public boolean[] areAccessBlacklisted(List<String> jtis) {
+        boolean[] result = new boolean[jtis.size()];
+        if (jtis.isEmpty()) {
+            return result;
+        }
+        List<String> keys = new ArrayList<>(jtis.size());
+        for (String jti : jtis) {
+            keys.add(ACCESS_BLACKLIST_PREFIX + jti);
+        }
+        List<String> values = redis.opsForValue().multiGet(keys);
+        if (values == null) {
+            throw new IllegalStateException("MGET returned no reply");
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i) != null;
+        }
+        return result;
+    }
+
+    /**
+     * Весь текущий blacklist: jti → exp. SCAN (без KEYS) + MGET пачками.
+     *
+     * Для старых записей со значением "1" exp неизвестен — берём now + fallbackTtl.
+     */
+    public Map<String, Instant> scanAccessBlacklist(Duration fallbackTtl) {
+        Map<String, Instant> result = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(ACCESS_BLACKLIST_PREFIX + "*")
+                .count(SCAN_BATCH)
+                .build();
+
+        List<String> batch = new ArrayList<>(SCAN_BATCH);
+        try (Cursor<String> cursor = redis.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == SCAN_BATCH) {
+                    collectBlacklist(batch, fallbackTtl, result);
+                    batch.clear();
+                }
+            }
+        }
+        collectBlacklist(batch, fallbackTtl, result);
+        return result;
+    }
+
     @Override
     public void whitelistRefresh(String jti, Instant expiresAt) {
         if (jti == null || expiresAt == null) {
@@ -86,5 +162,49 @@ public final class RedisTokenJtiStore implements TokenJtiStore {
         String key = REFRESH_WHITELIST_PREFIX + jti;
         redis.delete(key);
     }
-}
 
+    /**
+     * Один round trip вместо EXISTS + DEL + SET, и без гонки между ними.
+     */
+    @Override
+    public boolean rotateRefresh(String oldJti, String newJti, Instant newExpiresAt) {
+        if (oldJti == null || newJti == null || newExpiresAt == null) {
+            return false;
+        }
+        long ttlMillis = Duration.between(Instant.now(), newExpiresAt).toMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        Long consumed = redis.execute(
+                ROTATE_REFRESH,
+                List.of(REFRESH_WHITELIST_PREFIX + oldJti, REFRESH_WHITELIST_PREFIX + newJti),
+                Long.toString(ttlMillis)
+        );
+        return consumed != null && consumed == 1L;
+    }
+
+    private void collectBlacklist(List<String> keys, Duration fallbackTtl, Map<String, Instant> out) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> values = redis.opsForValue().multiGet(keys);
+        if (values == null) {
+            return;
+        }
+        Instant fallback = Instant.now().plus(fallbackTtl);
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                // успел истечь между SCAN и MGET
+                continue;
+            }
+            Instant exp;
+            try {
+                exp = Instant.ofEpochSecond(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                exp = fallback;
+            }
+            out.put(keys.get(i).substring(ACCESS_BLACKLIST_PREFIX.length()), exp);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package am.ivix.securitycore.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * UserRevocationStore на Redis.
+ *
+ * Ключ: jwt:user:revoked-before:{userId} → epoch seconds.
+ *
+ * TTL ключа — время жизни самого долгоживущего токена (refresh): после него
+ * всё, что выпущено до эпохи, истекло само, и запись больше не нужна.
+ */
+public final class RedisUserRevocationStore implements UserRevocationStore {
+
+    private static final String REVOKED_BEFORE_PREFIX = "jwt:user:revoked-before:";
+
+    /**
+     * SET только если новая эпоха больше текущей; TTL продлевается в любом случае.
+     */
+    private static final RedisScript<Long> ADVANCE = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "local epoch = tonumber(ARGV[1]) "
+                    + "if epoch > current then current = epoch end "
+                    + "redis.call('SET', KEYS[1], tostring(current), 'PX', ARGV[2]) "
+                    + "return current",
+            Long.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final Duration ttl;
+
+    /**
+     * @param ttl сколько держать эпоху — не меньше TTL refresh-токена
+     */
+    public RedisUserRevocationStore(StringRedisTemplate redis, Duration ttl) {
+        this.redis = Objects.requireNonNull(redis, "redis must not be null");
+        this.ttl = Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+    }
+
+    @Override
+    public void revokeAllBefore(String userId, Instant revokedAt) {
+        if (userId == null || revokedAt == null) {
+            return;
+        }
+        redis.execute(
+                ADVANCE,
+                List.of(REVOKED_BEFORE_PREFIX + userId),
+                Long.toString(revokedAt.getEpochSecond()),
+                Long.toString(ttl.toMillis())
+        );
+    }
+
+    @Override
+    public long revokedBefore(String userId) {
+        if (userId == null) {
+            return 0;
+        }
+        String value = redis.opsForValue().get(REVOKED_BEFORE_PREFIX + userId);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // чужое значение под нашим ключом — считаем, что отзыва нет
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package am.ivix.securitycore.store;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Семейства refresh-токенов: одна "сессия" (логин на устройстве) = одно семейство.
+ *
+ * - При логине открывается семейство, его id едет в refresh-токене (claim "fam")
+ * - Каждая ротация заменяет текущий jti семейства
+ * - Предъявлен не текущий jti (старый, уже обменянный) → reuse: семейство убивается целиком
+ * - Все семейства пользователя лежат вместе — список сессий и "выйти везде" без SCAN
+ */
+public interface RefreshFamilyStore {
+
+    enum Rotation {
+        /** Старый jti был текущим, новый записан. */
+        ROTATED,
+        /** Старый jti уже обменян — семейство отозвано. */
+        REUSED,
+        /** Семейства нет: отозвано, истекло или не существовало. */
+        UNKNOWN
+    }
+
+    /**
+     * Активная сессия пользователя.
+     *
+     * @param familyId   id семейства (claim "fam")
+     * @param createdAt  логин
+     * @param lastUsedAt последняя ротация
+     * @param expiresAt  exp текущего refresh-токена
+     */
+    record Session(String familyId, Instant createdAt, Instant lastUsedAt, Instant expiresAt) {
+        public Session {
+            Objects.requireNonNull(familyId, "familyId must not be null");
+            Objects.requireNonNull(createdAt, "createdAt must not be null");
+            Objects.requireNonNull(lastUsedAt, "lastUsedAt must not be null");
+            Objects.requireNonNull(expiresAt, "expiresAt must not be null");
+        }
+    }
+
+    /**
+     * Новое семейство с первым refresh jti.
+     */
+    void open(String userId, String familyId, String jti, Instant expiresAt);
+
+    /**
+     * Ротация внутри семейства — одной атомарной операцией, с проверкой reuse.
+     */
+    Rotation rotate(String userId, String familyId, String oldJti, String newJti, Instant newExpiresAt);
+
+    /**
+     * Закрыть одну сессию (logout на устройстве).
+     */
+    void revoke(String userId, String familyId);
+
+    /**
+     * Закрыть все сессии пользователя.
+     */
+    void revokeAll(String userId);
+
+    /**
+     * Активные сессии пользователя, последние использованные — первыми.
+     */
+    List<Session> sessions(String userId);
+}
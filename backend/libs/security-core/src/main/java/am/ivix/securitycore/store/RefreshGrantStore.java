@@ -0,0 +1,57 @@
+package am.ivix.securitycore.store;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Хранилище непрозрачных refresh-токенов: хеш токена → грант (кому и с какими ролями выдан).
+ *
+ * Ключ — только хеш ({@link am.ivix.securitycore.jwt.OpaqueRefreshTokens#hash}), сам токен не хранится.
+ */
+public interface RefreshGrantStore {
+
+    /**
+     * Кому выдан refresh-токен.
+     *
+     * @param familyId семейство (сессия) из RefreshFamilyStore; null — без семейств
+     */
+    record Grant(String userId, String familyId, String email, List<String> roles, Instant expiresAt) {
+        public Grant {
+            Objects.requireNonNull(userId, "userId must not be null");
+            Objects.requireNonNull(email, "email must not be null");
+            Objects.requireNonNull(expiresAt, "expiresAt must not be null");
+            roles = roles == null ? List.of() : List.copyOf(roles);
+        }
+    }
+
+    enum Outcome {
+        /** Старый токен израсходован, новый записан с тем же грантом. */
+        ROTATED,
+        /** Старый токен уже был обменян — повторное предъявление (grant указывает чей). */
+        REUSED,
+        /** Такого токена нет: истёк, отозван или не существовал. */
+        UNKNOWN
+    }
+
+    /**
+     * @param grant для UNKNOWN — null
+     */
+    record Redemption(Outcome outcome, Grant grant) {}
+
+    void store(String tokenHash, Grant grant);
+
+    /**
+     * Обменять токен на новый — одной атомарной операцией.
+     * Новый получает тот же грант и новый срок; старый помечается израсходованным
+     * (до своего exp), чтобы повторное предъявление распознавалось как REUSED.
+     */
+    Redemption rotate(String oldHash, String newHash, Instant newExpiresAt);
+
+    /**
+     * Грант действующего (не израсходованного) токена; null — нет такого.
+     */
+    Grant find(String tokenHash);
+
+    void remove(String tokenHash);
+}
@@ -0,0 +1,27 @@
+package am.ivix.securitycore.store;
+
+import java.time.Instant;
+
+/**
+ * Рассылка отзывов access-токенов между нодами.
+ *
+ * Доставка best-effort (Redis pub/sub): потерянное сообщение догоняет
+ * периодическая пересинхронизация в {@link NearCacheTokenJtiStore}.
+ */
+public interface RevocationBus {
+
+    @FunctionalInterface
+    interface Listener {
+        void onRevoked(String jti, Instant expiresAt);
+    }
+
+    /**
+     * Сообщить всем нодам (включая эту), что jti отозван до expiresAt.
+     */
+    void publish(String jti, Instant expiresAt);
+
+    /**
+     * Подписаться на отзывы. Listener вызывается из потока транспорта — должен быть быстрым.
+     */
+    void subscribe(Listener listener);
+}
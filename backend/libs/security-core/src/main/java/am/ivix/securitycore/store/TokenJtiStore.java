@@ -1,6 +1,7 @@
 package am.ivix.securitycore.store;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Абстракция над хранилищем JTI (Redis, DB, in-memory и т.д.).
@@ -20,6 +21,19 @@ public interface TokenJtiStore {
      */
     boolean isAccessBlacklisted(String jti);
 
+    /**
+     * Проверка пачки jti сразу. result[i] соответствует jtis.get(i).
+     *
+     * По умолчанию — по одному; Redis отвечает на всю пачку одной командой.
+     */
+    default boolean[] areAccessBlacklisted(List<String> jtis) {
+        boolean[] result = new boolean[jtis.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = isAccessBlacklisted(jtis.get(i));
+        }
+        return result;
+    }
+
     /**
      * Добавить refresh-токен в whitelist до момента expiresAt.
      */
@@ -34,5 +48,22 @@ public interface TokenJtiStore {
      * Удалить refresh-токен из whitelist (после rotate или logout).
      */
     void removeRefresh(String jti);
-}
 
+    /**
+     * Ротация refresh: израсходовать oldJti и добавить newJti в whitelist — как одна операция.
+     *
+     * Из двух конкурентных refresh'ей с одним токеном true получает только один.
+     * Реализация по умолчанию НЕ атомарна (проверка + удаление + запись) —
+     * хранилища, где это важно (Redis), переопределяют её.
+     *
+     * @return false, если oldJti уже использован / отозван (newJti тогда не добавляется)
+     */
+    default boolean rotateRefresh(String oldJti, String newJti, Instant newExpiresAt) {
+        if (!isRefreshWhitelisted(oldJti)) {
+            return false;
+        }
+        removeRefresh(oldJti);
+        whitelistRefresh(newJti, newExpiresAt);
+        return true;
+    }
+}
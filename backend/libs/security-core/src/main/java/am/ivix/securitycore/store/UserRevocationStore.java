@@ -0,0 +1,37 @@
+package am.ivix.securitycore.store;
+
+import java.time.Instant;
+
+/**
+ * Эпоха отзыва на пользователя: "все токены, выпущенные не позже T, недействительны".
+ *
+ * - "Выйти со всех устройств" — одна запись, без перечисления jti
+ * - Память хранилища растёт с числом пользователей, а не с числом отозванных токенов
+ *
+ * iat в JWT — с точностью до секунды, поэтому токен, выпущенный в ту же секунду,
+ * что и отзыв, тоже считается отозванным (консервативно).
+ */
+public interface UserRevocationStore {
+
+    /**
+     * Отозвать все токены пользователя, выпущенные не позже revokedAt.
+     * Эпоха только растёт: более ранний revokedAt существующую не сдвигает.
+     */
+    void revokeAllBefore(String userId, Instant revokedAt);
+
+    /**
+     * Текущая эпоха отзыва в epoch seconds; 0 — отзывов не было.
+     */
+    long revokedBefore(String userId);
+
+    /**
+     * Токен с таким iat (epoch seconds) выпущен до отзыва.
+     */
+    default boolean isRevoked(String userId, long issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        long epoch = revokedBefore(userId);
+        return epoch != 0 && issuedAt <= epoch;
+    }
+}
@@ -0,0 +1,121 @@
+-- Бенчмарк /api/profiles/nearby на синтетических профилях.
+--
+--   psql -h localhost -U ivix -d ivix -v profiles=3000000 -f infra/db/bench/nearby_profiles.sql
+--
+-- Всё создаётся в отдельной схеме bench (структура и индексы — как в public, без FK)
+-- и удаляется в конце. Точки — вокруг Еревана (~60 × 60 км), 20% без координат,
+-- у каждого профиля 1–3 специализации из 10.
+-- Смотреть в EXPLAIN: Bitmap Index Scan on ..._ll_to_earth_... и Execution Time.
+
+\set ON_ERROR_STOP on
+\if :{?profiles}
+\else
+    \set profiles 3000000
+\endif
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+
+CREATE TABLE bench.profiles (LIKE public.profiles INCLUDING DEFAULTS INCLUDING INDEXES);
+CREATE TABLE bench.profile_specializations (LIKE public.profile_specializations INCLUDING DEFAULTS INCLUDING INDEXES);
+
+INSERT INTO bench.profiles (user_id, display_name, type, city, lat, lon, rating_avg, reviews_count)
+SELECT gen_random_uuid(),
+       'bench-' || g,
+       CASE WHEN g % 5 = 0 THEN 'COMPANY' ELSE 'PERSON' END,
+       'Yerevan',
+       CASE WHEN g % 5 = 4 THEN NULL ELSE 39.90 + random() * 0.55 END,
+       CASE WHEN g % 5 = 4 THEN NULL ELSE 44.20 + random() * 0.70 END,
+       round((random() * 5)::numeric, 2),
+       (random() * 200)::int
+FROM generate_series(1, :profiles) AS g;
+
+-- 10 фиксированных специализаций: 00000000-0000-0000-0000-00000000000N
+INSERT INTO bench.profile_specializations (profile_id, specialization_id)
+SELECT p.user_id, ('00000000-0000-0000-0000-0000000000' || lpad(s::text, 2, '0'))::uuid
+FROM bench.profiles p
+CROSS JOIN LATERAL (
+    SELECT DISTINCT 1 + (random() * 9)::int AS s
+    FROM generate_series(1, 1 + (random() * 2)::int)
+) spec;
+
+VACUUM ANALYZE bench.profiles;
+VACUUM ANALYZE bench.profile_specializations;
+
+SET search_path = bench, public;
+
+-- 1. Центр города, 2 км, без фильтра: первая страница
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM (
+    SELECT p.user_id, p.display_name, p.type, p.city, p.lat, p.lon, p.rating_avg, p.reviews_count,
+           earth_distance(ll_to_earth(40.18, 44.51), ll_to_earth(p.lat, p.lon)) AS distance_m
+    FROM profiles p
+    WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+      AND earth_box(ll_to_earth(40.18, 44.51), 2000) @> ll_to_earth(p.lat, p.lon)
+) c
+WHERE c.distance_m <= 2000
+ORDER BY c.distance_m, c.user_id
+LIMIT 21;
+
+-- 2. 10 км + специализация
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM (
+    SELECT p.user_id, p.display_name, p.type, p.city, p.lat, p.lon, p.rating_avg, p.reviews_count,
+           earth_distance(ll_to_earth(40.18, 44.51), ll_to_earth(p.lat, p.lon)) AS distance_m
+    FROM profiles p
+    JOIN profile_specializations ps
+          ON ps.profile_id = p.user_id AND ps.specialization_id = '00000000-0000-0000-0000-000000000003'
+    WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+      AND earth_box(ll_to_earth(40.18, 44.51), 10000) @> ll_to_earth(p.lat, p.lon)
+) c
+WHERE c.distance_m <= 10000
+ORDER BY c.distance_m, c.user_id
+LIMIT 21;
+
+-- 3. Следующая страница по курсору (расстояние и user_id — с 500-й строки)
+SELECT c.distance_m AS cursor_distance, c.user_id AS cursor_user_id
+FROM (
+    SELECT p.user_id, earth_distance(ll_to_earth(40.18, 44.51), ll_to_earth(p.lat, p.lon)) AS distance_m
+    FROM profiles p
+    WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+      AND earth_box(ll_to_earth(40.18, 44.51), 2000) @> ll_to_earth(p.lat, p.lon)
+) c
+WHERE c.distance_m <= 2000
+ORDER BY c.distance_m, c.user_id
+OFFSET 499 LIMIT 1
+\gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM (
+    SELECT p.user_id, p.display_name, p.type, p.city, p.lat, p.lon, p.rating_avg, p.reviews_count,
+           earth_distance(ll_to_earth(40.18, 44.51), ll_to_earth(p.lat, p.lon)) AS distance_m
+    FROM profiles p
+    WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+      AND earth_box(ll_to_earth(40.18, 44.51), 2000) @> ll_to_earth(p.lat, p.lon)
+) c
+WHERE c.distance_m <= 2000
+  AND (c.distance_m, c.user_id) > (:cursor_distance, :'cursor_user_id'::uuid)
+ORDER BY c.distance_m, c.user_id
+LIMIT 21;
+
+-- 4. Для сравнения: тот же запрос 1 без индекса (seq scan + earth_distance по каждой строке)
+SET enable_indexscan = off;
+SET enable_bitmapscan = off;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM (
+    SELECT p.user_id, earth_distance(ll_to_earth(40.18, 44.51), ll_to_earth(p.lat, p.lon)) AS distance_m
+    FROM profiles p
+    WHERE p.lat IS NOT NULL AND p.lon IS NOT NULL
+) c
+WHERE c.distance_m <= 2000
+ORDER BY c.distance_m, c.user_id
+LIMIT 21;
+RESET enable_indexscan;
+RESET enable_bitmapscan;
+
+RESET search_path;
+DROP SCHEMA bench CASCADE;